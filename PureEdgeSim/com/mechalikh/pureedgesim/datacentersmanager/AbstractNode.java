@@ -18,12 +18,16 @@ package com.mechalikh.pureedgesim.datacentersmanager;
 
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationengine.Event;
+import com.mechalikh.pureedgesim.simulationengine.IndependentEntity;
+import com.mechalikh.pureedgesim.simulationengine.PartitionedEntity;
 import com.mechalikh.pureedgesim.simulationengine.SimEntity;
+import com.mechalikh.pureedgesim.simulationengine.TimingWheel;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 /**
  * This abstract class represents a computing node in the simulation.
  */
-public abstract class AbstractNode extends SimEntity implements ComputingNode {
+public abstract class AbstractNode extends SimEntity implements ComputingNode, PartitionedEntity, IndependentEntity {
+	private static final long serialVersionUID = 1L;
     
     /**
      * The update status event ID.
@@ -69,6 +73,28 @@ public abstract class AbstractNode extends SimEntity implements ComputingNode {
      */
     protected boolean isOrchestrator = false;
 
+    /**
+     * The pending update status event, null once the status updates are stopped.
+     *
+     * @see #stopStatusUpdates()
+     */
+    protected Event updateStatusEvent;
+
+    /**
+     * The subscription to the status updates when the timing wheel is enabled,
+     * instead of {@link #updateStatusEvent}.
+     *
+     * @see com.mechalikh.pureedgesim.simulationengine.PureEdgeSim#getTimingWheel()
+     */
+    protected TimingWheel.Timer updateStatusTimer;
+
+    /**
+     * The partition of this node when the conservative parallel engine is used.
+     *
+     * @see com.mechalikh.pureedgesim.datacentersmanager.DataCentersManager#assignPartitions()
+     */
+    protected int partition;
+
     /**
      * Constructs a new AbstractNode instance.
      *
@@ -83,7 +109,13 @@ public abstract class AbstractNode extends SimEntity implements ComputingNode {
      * starts.
      */
     public void startInternal() {
-        scheduleNow(this, UPDATE_STATUS);
+        if (!hasStatusUpdates())
+            return;
+        final TimingWheel timingWheel = getSimulation().getTimingWheel();
+        if (timingWheel != null)
+            updateStatusTimer = timingWheel.subscribe(this, UPDATE_STATUS, SimulationParameters.updateInterval, 0);
+        else
+            updateStatusEvent = scheduleNow(this, UPDATE_STATUS);
     }
 
     /**
@@ -94,15 +126,46 @@ public abstract class AbstractNode extends SimEntity implements ComputingNode {
     public void processEvent(Event e) {
         if (e.getTag() == UPDATE_STATUS) {
             updateStatus();
-            schedule(this, SimulationParameters.updateInterval, UPDATE_STATUS);
+            if (updateStatusTimer != null)
+                return; // The next update is scheduled by the timing wheel
+            if (e.isCancelled())
+                updateStatusEvent = null;
+            else
+                updateStatusEvent = schedule(this, SimulationParameters.updateInterval, UPDATE_STATUS);
         }
     }
 
+    /**
+     * Stops the periodic status updates of this computing node, e.g., when it
+     * dies, by cancelling its pending update status event or its timer.
+     *
+     * @see #updateStatus()
+     */
+    protected void stopStatusUpdates() {
+        if (updateStatusTimer != null)
+            updateStatusTimer.cancel();
+        if (updateStatusEvent != null)
+            cancel(updateStatusEvent);
+    }
+
     /**
      * Updates the status of this computing node.
      */
     protected abstract void updateStatus();
 
+    /**
+     * Returns whether this computing node needs the periodic status updates. Nodes
+     * whose status only changes on events, e.g. static ones, can return false to
+     * avoid scheduling an update every {@link SimulationParameters#updateInterval}.
+     * Subclasses that override {@link #updateStatus()} to do something else
+     * periodically must return true.
+     *
+     * @return true if {@link #updateStatus()} must be called periodically
+     */
+    protected boolean hasStatusUpdates() {
+        return true;
+    }
+
     /**
      * Returns the type of this computing node, e.g. Cloud, Edge, or Mist.
      * 
@@ -201,5 +264,51 @@ public abstract class AbstractNode extends SimEntity implements ComputingNode {
         return this.canGenerateTasks;
     }
 
+    /**
+     * Returns the partition of this computing node.
+     *
+     * @return the partition index
+     */
+    @Override
+    public int getPartition() {
+        return partition;
+    }
+
+    /**
+     * Sets the partition of this computing node.
+     *
+     * @param partition the partition index
+     */
+    public void setPartition(int partition) {
+        this.partition = partition;
+    }
+
+    /**
+     * Returns the lookahead of the given event tag. The status updates only
+     * involve this node (its energy consumption, its location, and its own links),
+     * so they can be processed in parallel. All the other events are processed
+     * sequentially. Subclasses whose {@link #updateStatus()} reads or updates other
+     * entities must override this method.
+     *
+     * @param tag the event tag
+     * @return the lookahead in seconds
+     */
+    @Override
+    public double getLookahead(int tag) {
+        return tag == UPDATE_STATUS ? Double.POSITIVE_INFINITY : 0;
+    }
+
+    /**
+     * Returns whether the events having the given tag only involve this node, i.e.,
+     * when their {@link #getLookahead(int) lookahead} is infinite.
+     *
+     * @param tag the event tag
+     * @return true if the events can be processed in parallel
+     */
+    @Override
+    public boolean isIndependent(int tag) {
+        return getLookahead(tag) == Double.POSITIVE_INFINITY;
+    }
+
 
 }
@@ -0,0 +1,89 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.datacentersmanager;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Places each container on the host that will have the least RAM left, to
+ * keep the large blocks of RAM for the large containers. The hosts having a
+ * free core are sorted by their available RAM, so the best one is found in
+ * O(log hosts).
+ * <p>
+ * The tasks arrive one at a time, so they cannot be sorted by decreasing size
+ * beforehand as in the offline best-fit decreasing. The waiting ones can still
+ * be ordered using the scheduling policy of the data center.
+ *
+ * @see TaskQueue.Policy
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class BestFitPlacement extends HostPlacement {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The hosts having a free core, by available RAM.
+	 */
+	protected final TreeSet<Host> available = new TreeSet<>(new ByAvailableRam());
+
+	public BestFitPlacement(List<Host> hosts) {
+		super(hosts);
+		for (Host host : hosts)
+			afterUpdate(host);
+	}
+
+	@Override
+	public Host findHost(double containerSize) {
+		// The probe comes after the hosts having exactly this RAM left, as it must be
+		// strictly greater
+		Host probe = new Host(Integer.MAX_VALUE, 0, 0, containerSize);
+		return available.higher(probe);
+	}
+
+	@Override
+	protected void beforeUpdate(Host host) {
+		available.remove(host);
+	}
+
+	@Override
+	protected void afterUpdate(Host host) {
+		if (host.getAvailableCores() > 0)
+			available.add(host);
+	}
+
+	/**
+	 * Orders the hosts by available RAM, then by id.
+	 */
+	protected static class ByAvailableRam implements Comparator<Host>, Serializable {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int compare(Host a, Host b) {
+			int result = Double.compare(a.getAvailableRam(), b.getAvailableRam());
+			return result != 0 ? result : Integer.compare(a.getId(), b.getId());
+		}
+	}
+
+}
@@ -21,6 +21,7 @@
 package com.mechalikh.pureedgesim.datacentersmanager;
 
 import java.util.List;
+import java.util.Queue;
 
 import com.mechalikh.pureedgesim.energy.EnergyModelComputingNode;
 import com.mechalikh.pureedgesim.locationmanager.MobilityModel;
@@ -428,13 +429,35 @@ public interface ComputingNode {
 	void setAsSensor(boolean isSensor);
 
 	/**
-	 * Gets the list of tasks waiting for execution.
+	 * Gets the queue of tasks waiting for execution.
 	 * 
 	 * @return the execution queue.
 	 * 
 	 * @see #submitTask(Task)
+	 * @see #setSchedulingPolicy(TaskQueue.Policy)
 	 */
-	List<Task> getTasksQueue();
+	Queue<Task> getTasksQueue();
+
+	/**
+	 * Sets the order in which the tasks waiting for execution on this computing
+	 * node are executed. It is defined by the user in the "scheduler" element of
+	 * the computing nodes files (FIFO by default).
+	 * 
+	 * @param policy the scheduling policy
+	 * 
+	 * @see #getTasksQueue()
+	 */
+	void setSchedulingPolicy(TaskQueue.Policy policy);
+
+	/**
+	 * Makes this data center a composite of several hosts, on which the tasks
+	 * containers are placed. They are defined by the user in the "hosts" element
+	 * of the data centers files.
+	 * 
+	 * @param hosts  the hosts of this data center
+	 * @param policy how the containers are placed on the hosts
+	 */
+	void setHosts(List<Host> hosts, HostPlacement.Policy policy);
 
 	/**
 	 * Gets the total amount of storage (in Megabytes) that this computing node has.
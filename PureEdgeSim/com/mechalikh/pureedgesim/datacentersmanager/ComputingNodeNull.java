@@ -1,6 +1,8 @@
 package com.mechalikh.pureedgesim.datacentersmanager;
 
+import java.io.Serializable;
 import java.util.LinkedList;
+import java.util.List;
 
 import com.mechalikh.pureedgesim.energy.EnergyModelComputingNode;
 import com.mechalikh.pureedgesim.locationmanager.MobilityModel;
@@ -14,7 +16,8 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * when using the NULL object instead of attributing null to ComputingNode
  * variables.
  */
-public class ComputingNodeNull implements ComputingNode {
+public class ComputingNodeNull implements ComputingNode, Serializable {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * 
@@ -46,6 +49,16 @@ public class ComputingNodeNull implements ComputingNode {
 		return instance;
 	}
 
+	/**
+	 * Keeps a single instance when a simulation is loaded from a checkpoint, as
+	 * this object is compared by reference.
+	 * 
+	 * @return the singleton instance
+	 */
+	private Object readResolve() {
+		return instance;
+	}
+
 	/**
 	 * Does nothing since this Computing Node is supposed to be null.
 	 */
@@ -399,6 +412,16 @@ public class ComputingNodeNull implements ComputingNode {
 		return tasksQueue;
 	}
 
+	@Override
+	public void setSchedulingPolicy(TaskQueue.Policy policy) {
+		// Do nothing.
+	}
+
+	@Override
+	public void setHosts(List<Host> hosts, HostPlacement.Policy policy) {
+		// Do nothing.
+	}
+
 	/**
 	 * 
 	 * Returns 0 since there is no storage on this Computing Node.
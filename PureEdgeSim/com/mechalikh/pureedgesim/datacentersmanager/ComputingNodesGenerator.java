@@ -22,13 +22,12 @@ package com.mechalikh.pureedgesim.datacentersmanager;
 
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -54,7 +53,8 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 1.0
  */
-public class ComputingNodesGenerator {
+public class ComputingNodesGenerator implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * The list that contains all orchestrators. It is used by the computing node.
@@ -71,6 +71,13 @@ public class ComputingNodesGenerator {
 	 */
 	protected SimulationManager simulationManager;
 
+	/**
+	 * Used to generate the random locations of the edge devices.
+	 * 
+	 * @see #createComputingNode(Element, TYPES)
+	 */
+	protected RandomGenerator random;
+
 	/**
 	 * The Mobility Model to be used in this scenario
 	 * 
@@ -170,6 +177,7 @@ public class ComputingNodesGenerator {
 		this.simulationManager = simulationManager;
 		this.mobilityModelClass = mobilityModelClass;
 		this.computingNodeClass = computingNodeClass;
+		this.random = simulationManager.getSimulation().getRandomStreams().getStream("locations");
 		this.orchestratorsList = new ArrayList<>(simulationManager.getScenario().getDevicesCount());
 		this.mistOnlyList = new ArrayList<>(simulationManager.getScenario().getDevicesCount());
 		this.mistOnlyListSensorsExcluded = new ArrayList<>(simulationManager.getScenario().getDevicesCount());
@@ -282,7 +290,7 @@ public class ComputingNodesGenerator {
 
 			try {
 				insertEdgeDevice(createComputingNode(type, SimulationParameters.TYPES.EDGE_DEVICE));
-			} catch (NoSuchAlgorithmException | NoSuchMethodException | SecurityException | InstantiationException
+			} catch (NoSuchMethodException | SecurityException | InstantiationException
 					| IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 				e.printStackTrace();
 			}
@@ -290,6 +298,40 @@ public class ComputingNodesGenerator {
 		}
 	}
 
+	/**
+	 * Generates the hosts of a data center, declared in its "hosts" element.
+	 * 
+	 * @param datacenterElement the data center element
+	 * @return the hosts, or an empty list if it is a single machine
+	 */
+	protected List<Host> generateHosts(Element datacenterElement) {
+		List<Host> hosts = new ArrayList<>();
+		if (datacenterElement.getElementsByTagName("hosts").getLength() == 0)
+			return hosts;
+		NodeList hostList = ((Element) datacenterElement.getElementsByTagName("hosts").item(0))
+				.getElementsByTagName("host");
+		for (int i = 0; i < hostList.getLength(); i++) {
+			Element hostElement = (Element) hostList.item(i);
+			int cores = Integer.parseInt(hostElement.getElementsByTagName("cores").item(0).getTextContent());
+			double mips = Double.parseDouble(hostElement.getElementsByTagName("mips").item(0).getTextContent());
+			double ram = Double.parseDouble(hostElement.getElementsByTagName("ram").item(0).getTextContent());
+			for (int j = getHostsCount(hostElement); j > 0; j--)
+				hosts.add(new Host(hosts.size(), cores, mips, ram));
+		}
+		return hosts;
+	}
+
+	/**
+	 * Returns how many identical hosts a host element declares.
+	 * 
+	 * @param hostElement the host element
+	 * @return the value of its "count" attribute, 1 by default
+	 */
+	protected int getHostsCount(Element hostElement) {
+		String count = hostElement.getAttribute("count");
+		return count.isEmpty() ? 1 : Integer.parseInt(count.trim());
+	}
+
 	/**
 	 * Generates the Cloud and Edge data centers.
 	 * 
@@ -344,7 +386,6 @@ public class ComputingNodesGenerator {
 	 * @param datacenterElement The configuration file.
 	 * @param type              The type, whether an MIST (edge) device, an EDGE
 	 *                          data center, or a CLOUD one.
-	 * @throws NoSuchAlgorithmException
 	 * @throws SecurityException
 	 * @throws NoSuchMethodException
 	 * @throws InvocationTargetException
@@ -353,10 +394,8 @@ public class ComputingNodesGenerator {
 	 * @throws InstantiationException
 	 */
 	protected ComputingNode createComputingNode(Element datacenterElement, SimulationParameters.TYPES type)
-			throws NoSuchAlgorithmException, NoSuchMethodException, SecurityException, InstantiationException,
+			throws NoSuchMethodException, SecurityException, InstantiationException,
 			IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-		// SecureRandom is preferred to generate random values.
-		Random random = SecureRandom.getInstanceStrong();
 		Boolean mobile = false;
 		double speed = 0;
 		double minPauseDuration = 0;
@@ -370,10 +409,36 @@ public class ComputingNodesGenerator {
 		double maxConsumption = Double
 				.parseDouble(datacenterElement.getElementsByTagName("maxConsumption").item(0).getTextContent());
 		Location datacenterLocation = new Location(xPosition, yPosition);
-		int numOfCores = Integer.parseInt(datacenterElement.getElementsByTagName("cores").item(0).getTextContent());
-		double mips = Double.parseDouble(datacenterElement.getElementsByTagName("mips").item(0).getTextContent());
-		double storage = Double.parseDouble(datacenterElement.getElementsByTagName("storage").item(0).getTextContent());
-		double ram = Double.parseDouble(datacenterElement.getElementsByTagName("ram").item(0).getTextContent());
+		int numOfCores;
+		double mips;
+		double storage;
+		double ram;
+		List<Host> hosts = generateHosts(datacenterElement);
+		if (hosts.isEmpty()) {
+			numOfCores = Integer.parseInt(datacenterElement.getElementsByTagName("cores").item(0).getTextContent());
+			mips = Double.parseDouble(datacenterElement.getElementsByTagName("mips").item(0).getTextContent());
+			storage = Double.parseDouble(datacenterElement.getElementsByTagName("storage").item(0).getTextContent());
+			ram = Double.parseDouble(datacenterElement.getElementsByTagName("ram").item(0).getTextContent());
+		} else {
+			// The data center pools the resources of its hosts
+			numOfCores = 0;
+			double totalMips = 0;
+			storage = 0;
+			ram = 0;
+			for (Host host : hosts) {
+				numOfCores += host.getNumberOfCPUCores();
+				totalMips += host.getNumberOfCPUCores() * host.getMipsPerCore();
+				ram += host.getRamCapacity();
+			}
+			mips = totalMips / numOfCores;
+			NodeList hostList = ((Element) datacenterElement.getElementsByTagName("hosts").item(0))
+					.getElementsByTagName("host");
+			for (int i = 0; i < hostList.getLength(); i++) {
+				Element hostElement = (Element) hostList.item(i);
+				storage += getHostsCount(hostElement)
+						* Double.parseDouble(hostElement.getElementsByTagName("storage").item(0).getTextContent());
+			}
+		}
 
 		Constructor<?> datacenterConstructor = computingNodeClass.getConstructor(SimulationManager.class, double.class,
 				int.class, double.class, double.class);
@@ -386,6 +451,18 @@ public class ComputingNodesGenerator {
 		if (computingNode.isOrchestrator())
 			orchestratorsList.add(computingNode);
 
+		if (!hosts.isEmpty()) {
+			String placement = ((Element) datacenterElement.getElementsByTagName("hosts").item(0))
+					.getAttribute("placement");
+			computingNode.setHosts(hosts,
+					placement.isEmpty() ? HostPlacement.Policy.FIRST_FIT : HostPlacement.Policy.valueOf(placement.trim()));
+		}
+
+		// The order in which the waiting tasks are executed (optional, FIFO by default)
+		if (datacenterElement.getElementsByTagName("scheduler").getLength() > 0)
+			computingNode.setSchedulingPolicy(TaskQueue.Policy
+					.valueOf(datacenterElement.getElementsByTagName("scheduler").item(0).getTextContent().trim()));
+
 		computingNode.setEnergyModel(new EnergyModelComputingNode(maxConsumption, idleConsumption));
 
 		if (type == SimulationParameters.TYPES.EDGE_DATACENTER) {
@@ -20,10 +20,14 @@
  **/
 package com.mechalikh.pureedgesim.datacentersmanager;
 
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
+import java.util.List;
 
 import com.mechalikh.pureedgesim.locationmanager.MobilityModel;
 import com.mechalikh.pureedgesim.network.InfrastructureGraph;
+import com.mechalikh.pureedgesim.network.NetworkLink;
+import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimLog;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager; 
 
@@ -35,7 +39,9 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 5.0
  */
 
-public class DataCentersManager {
+public class DataCentersManager implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * The simulation manager.
 	 * 
@@ -80,6 +86,10 @@ public class DataCentersManager {
 
 		// Generate topology
 		createTopology(topologyCreatorClass);
+
+		// Divide the nodes between the threads of the parallel engine
+		if ("CONSERVATIVE".equals(SimulationParameters.engineMode))
+			assignPartitions();
 	}
 
 	/**
@@ -116,6 +126,70 @@ public class DataCentersManager {
 		topologyCreator.generateTopologyGraph();
 	}
 
+	/**
+	 * Divides the computing nodes into partitions (logical processes) for the
+	 * conservative parallel engine. Each edge data center defines an area, which is
+	 * divided into several partitions when there are more threads than areas. The
+	 * devices are assigned to the area of the closest edge data center to their
+	 * initial location, and the cloud data centers are spread over the areas.
+	 * <p>
+	 * The network lookahead is the minimum latency of the links connecting two
+	 * partitions, i.e., the minimum delay before a partition can affect another
+	 * one through the network.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.ConservativePureEdgeSim
+	 * @see SimulationParameters#engineThreads
+	 */
+	public void assignPartitions() {
+		List<ComputingNode> areas = computingNodesGenerator.getEdgeOnlyList();
+		int threads = SimulationParameters.engineThreads > 0 ? SimulationParameters.engineThreads
+				: Runtime.getRuntime().availableProcessors();
+		int areasCount = Math.max(1, areas.size());
+		int partitionsPerArea = Math.max(1, (threads + areasCount - 1) / areasCount);
+
+		int clouds = 0;
+		for (ComputingNode node : computingNodesGenerator.getAllNodesList()) {
+			if (!(node instanceof AbstractNode))
+				continue;
+			int partition;
+			if (node.getType() == SimulationParameters.TYPES.EDGE_DATACENTER)
+				partition = areas.indexOf(node) * partitionsPerArea;
+			else if (node.getType() == SimulationParameters.TYPES.CLOUD)
+				partition = (clouds++ % areasCount) * partitionsPerArea;
+			else
+				partition = getClosestArea(node, areas) * partitionsPerArea + node.getId() % partitionsPerArea;
+			((AbstractNode) node).setPartition(partition);
+		}
+
+		double lookahead = Double.POSITIVE_INFINITY;
+		for (NetworkLink link : getTopology().getLinks()) {
+			if (getPartition(link.getSrc()) != getPartition(link.getDst()))
+				lookahead = Math.min(lookahead, link.getLatency());
+		}
+
+		int partitionsCount = areasCount * partitionsPerArea;
+		SimLog.println("%s - %d partitions, network lookahead: %.4f s", this.getClass().getSimpleName(),
+				partitionsCount, lookahead);
+		simulationManager.getSimulation().setPartitions(partitionsCount, lookahead);
+	}
+
+	protected int getClosestArea(ComputingNode device, List<ComputingNode> areas) {
+		int closest = 0;
+		double min = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < areas.size(); i++) {
+			double distance = device.getMobilityModel().distanceTo(areas.get(i));
+			if (distance < min) {
+				min = distance;
+				closest = i;
+			}
+		}
+		return closest;
+	}
+
+	protected int getPartition(ComputingNode node) {
+		return node instanceof AbstractNode ? ((AbstractNode) node).getPartition() : -1;
+	}
+
 	/**
 	 * Gets the topology creator.
 	 * 
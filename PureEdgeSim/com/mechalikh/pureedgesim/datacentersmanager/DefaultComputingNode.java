@@ -20,8 +20,12 @@
  **/
 package com.mechalikh.pureedgesim.datacentersmanager;
 
-import java.util.ArrayList;
+import java.io.Serializable;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
 
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationengine.Event;
@@ -38,6 +42,8 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @since PureEdgeSim 5.0
  */
 public class DefaultComputingNode extends LocationAwareNode {
+	private static final long serialVersionUID = 1L;
+
 	protected int applicationType;
 	protected boolean isSensor = false;
 	protected double availableStorage = 0; // in Megabytes
@@ -49,11 +55,56 @@ public class DefaultComputingNode extends LocationAwareNode {
 	protected double mipsPerCore;
 	protected int numberOfCPUCores;
 	protected int availableCores;
-	protected List<Task> tasksQueue = new ArrayList<>();
+	protected Queue<Task> tasksQueue;
 	protected double availableRam; // in Megabytes
 	protected double ram; // in Megabytes
 	protected static final int EXECUTION_FINISHED = 2;
 
+	/**
+	 * How the tasks are placed on the hosts of this data center, or null if it is
+	 * a single machine.
+	 * 
+	 * @see #setHosts(List, HostPlacement.Policy)
+	 */
+	protected HostPlacement hostPlacement;
+
+	/**
+	 * The host executing each task, when this data center has several hosts.
+	 */
+	protected Map<Task, Host> taskHosts = new IdentityHashMap<>();
+
+	/**
+	 * The tasks being executed when the cores are time shared, ordered by their
+	 * completion.
+	 * 
+	 * @see SimulationParameters#cpuScheduling
+	 */
+	protected PriorityQueue<RunningTask> runningTasks = new PriorityQueue<>();
+
+	/**
+	 * The length (in MI) executed by each running task since the CPU was last
+	 * idle, i.e., the virtual time of the processor sharing. A task started when
+	 * it was at x finishes when it reaches x + its length.
+	 */
+	protected double executedLength = 0;
+
+	/**
+	 * The last time {@link #executedLength} has been updated, in seconds.
+	 */
+	protected double lastExecutionUpdate = 0;
+
+	/**
+	 * The number of tasks started in time sharing mode, to order the tasks
+	 * finishing at the same time.
+	 */
+	protected long startedTasks = 0;
+
+	/**
+	 * The pending completion of the next running task in time sharing mode,
+	 * rescheduled whenever the running tasks change.
+	 */
+	protected Event nextCompletionEvent;
+
 	public DefaultComputingNode(SimulationManager simulationManager, double mipsPerCore, int numberOfCPUCores,
 			double storage, double ram) {
 		super(simulationManager);
@@ -65,6 +116,7 @@ public class DefaultComputingNode extends LocationAwareNode {
 		setAvailableRam(ram);
 		setNumberOfCPUCores(numberOfCPUCores);
 		this.availableCores = numberOfCPUCores;
+		this.tasksQueue = new TaskQueue(TaskQueue.Policy.FIFO, mipsPerCore);
 		if (mipsPerCore <= 0 || numberOfCPUCores <= 0 || storage <= 0)
 			this.setAsSensor(true);
 	}
@@ -144,10 +196,41 @@ public class DefaultComputingNode extends LocationAwareNode {
 		this.isSensor = isSensor;
 	}
 
-	public List<Task> getTasksQueue() {
+	public Queue<Task> getTasksQueue() {
 		return tasksQueue;
 	}
 
+	/**
+	 * Makes this data center a composite of several hosts, the tasks being placed
+	 * on them by the given policy. Its capacity must be the sum of theirs. The hosts
+	 * are ignored when the cores are time shared.
+	 * 
+	 * @param hosts  the hosts of this data center
+	 * @param policy the placement policy
+	 * 
+	 * @see SimulationParameters#cpuScheduling
+	 */
+	@Override
+	public void setHosts(List<Host> hosts, HostPlacement.Policy policy) {
+		this.hostPlacement = HostPlacement.create(policy, hosts);
+	}
+
+	/**
+	 * Returns how the tasks are placed on the hosts of this data center.
+	 * 
+	 * @return the host placement, or null if this data center is a single machine
+	 */
+	public HostPlacement getHostPlacement() {
+		return hostPlacement;
+	}
+
+	@Override
+	public void setSchedulingPolicy(TaskQueue.Policy policy) {
+		Queue<Task> waiting = tasksQueue;
+		tasksQueue = new TaskQueue(policy, mipsPerCore);
+		tasksQueue.addAll(waiting);
+	}
+
 	public double getTotalStorage() {
 		return storage;
 	}
@@ -226,8 +309,9 @@ public class DefaultComputingNode extends LocationAwareNode {
 		// Update the amount of available storage
 		this.setAvailableStorage(this.availableStorage - task.getContainerSizeInMBytes());
 
-		// If a CPU core and enough RAM are available, execute task directly
-		if (availableCores > 0 && this.getAvailableRam() > task.getContainerSizeInMBytes()) {
+		// If a CPU core (or a share of it) and enough RAM are available, execute task
+		// directly
+		if (canStartExecution(task)) {
 			startExecution(task);
 		}
 		// Otherwise, add it to the execution queue
@@ -235,6 +319,33 @@ public class DefaultComputingNode extends LocationAwareNode {
 			getTasksQueue().add(task);
 	}
 
+	/**
+	 * Returns whether the given task can be executed right away, or has to wait in
+	 * the queue.
+	 * 
+	 * @param task the task to execute
+	 * @return true if a core (or a share of it when the cores are time shared) and
+	 *         enough RAM are available
+	 */
+	protected boolean canStartExecution(Task task) {
+		if (!isTimeShared() && hostPlacement != null)
+			return hostPlacement.findHost(task.getContainerSizeInMBytes()) != null;
+		if (!isTimeShared())
+			return availableCores > 0 && this.getAvailableRam() > task.getContainerSizeInMBytes();
+		// Start it anyway when idle, otherwise it would never be executed
+		return runningTasks.isEmpty() || this.getAvailableRam() > task.getContainerSizeInMBytes();
+	}
+
+	/**
+	 * Returns whether the cores are shared between the running tasks.
+	 * 
+	 * @return true if the processor sharing model is used
+	 * @see SimulationParameters#cpuScheduling
+	 */
+	protected boolean isTimeShared() {
+		return "TIME_SHARED".equals(SimulationParameters.cpuScheduling);
+	}
+
 	protected void startExecution(Task task) {
 
 		// Update the CPU utilization.
@@ -242,7 +353,8 @@ public class DefaultComputingNode extends LocationAwareNode {
 		// Update the amount of RAM.
 		setAvailableRam(this.getAvailableRam() - task.getContainerSizeInMBytes());
 		// Update the number of available cores.
-		availableCores--;
+		if (!isTimeShared())
+			availableCores--;
 		// Record when the execution has started.
 		task.setExecutionStartTime(getSimulation().clock());
 
@@ -259,13 +371,63 @@ public class DefaultComputingNode extends LocationAwareNode {
 		 * duration, which is clearly not convenient. One way around it, is to make the
 		 * measurement here, when the task is being executed. The problem with this is
 		 * that if we don't receive a task, the static energy consumption will not be
-		 * measured. So the best approach is to measure the dynamic one here, and add
-		 * the static one there.
+		 * measured. So the best approach is to measure the dynamic one here, and let
+		 * the energy model integrate the static one lazily between such changes.
 		 */
 		getEnergyModel().updateDynamicEnergyConsumption(task.getLength(), this.getTotalMipsCapacity());
 
 		// Schedule when the execution will be finished.
-		schedule(this, (task.getLength() / mipsPerCore), EXECUTION_FINISHED, task);
+		if (isTimeShared()) {
+			updateExecutedLength();
+			runningTasks.add(new RunningTask(task, executedLength + task.getLength(), startedTasks++));
+			scheduleNextCompletion();
+		} else if (hostPlacement != null) {
+			Host host = hostPlacement.findHost(task.getContainerSizeInMBytes());
+			hostPlacement.allocate(host, task.getContainerSizeInMBytes());
+			taskHosts.put(task, host);
+			schedule(this, (task.getLength() / host.getMipsPerCore()), EXECUTION_FINISHED, task);
+		} else
+			schedule(this, (task.getLength() / mipsPerCore), EXECUTION_FINISHED, task);
+	}
+
+	/**
+	 * Returns the MIPS each running task gets when the cores are time shared.
+	 * 
+	 * @return the MIPS allocated to each running task
+	 */
+	protected double getSharedMips() {
+		if (runningTasks.size() <= numberOfCPUCores)
+			return mipsPerCore;
+		return mipsPerCore * numberOfCPUCores / runningTasks.size();
+	}
+
+	/**
+	 * Advances the length executed by each running task up to the current time.
+	 * Must be called before the running tasks change, as it changes the MIPS
+	 * allocated to each one of them.
+	 */
+	protected void updateExecutedLength() {
+		double time = getSimulation().clock();
+		if (runningTasks.isEmpty())
+			executedLength = 0; // Restart from 0 to keep the precision
+		else
+			executedLength += getSharedMips() * (time - lastExecutionUpdate);
+		lastExecutionUpdate = time;
+	}
+
+	/**
+	 * Schedules the completion of the running task that will finish first, given
+	 * the current share of the cores, and cancels the previous one.
+	 */
+	protected void scheduleNextCompletion() {
+		if (nextCompletionEvent != null)
+			cancel(nextCompletionEvent);
+		nextCompletionEvent = null;
+		if (runningTasks.isEmpty())
+			return;
+		RunningTask next = runningTasks.peek();
+		nextCompletionEvent = schedule(this, Math.max(0, next.finish - executedLength) / getSharedMips(),
+				EXECUTION_FINISHED, next.task);
 	}
 
 	public double getMipsPerCore() {
@@ -273,35 +435,73 @@ public class DefaultComputingNode extends LocationAwareNode {
 	}
 
 	protected void executionFinished(Event e) {
+		if (isTimeShared()) {
+			sharedExecutionFinished();
+			return;
+		}
 
 		// The execution of one task has been finished, free one more CPU core.
 		availableCores++;
+		Task finished = (Task) e.getData();
+		if (hostPlacement != null)
+			hostPlacement.release(taskHosts.remove(finished), finished.getContainerSizeInMBytes());
+		releaseTask(finished);
+
+		// Execute the waiting tasks, in order, as long as they can be placed on a host
+		if (hostPlacement != null) {
+			while (!getTasksQueue().isEmpty() && canStartExecution(getTasksQueue().peek()))
+				startExecution(getTasksQueue().poll());
+		}
+		// If there are tasks waiting for execution
+		else if (!getTasksQueue().isEmpty()) {
+
+			// Remove the next task from the queue and execute it on the available core.
+			startExecution(getTasksQueue().poll());
+		}
+	}
+
+	/**
+	 * Finishes the running tasks that completed at the current time when the cores
+	 * are time shared, starts the waiting ones that now fit in the RAM, and
+	 * schedules the next completion.
+	 */
+	protected void sharedExecutionFinished() {
+		nextCompletionEvent = null;
+		updateExecutedLength();
+		// The completion event was scheduled for the first task, finish it even if
+		// the floating point arithmetic stopped slightly short of its length
+		executedLength = Math.max(executedLength, runningTasks.peek().finish);
+		while (!runningTasks.isEmpty() && runningTasks.peek().finish <= executedLength)
+			releaseTask(runningTasks.poll().task);
+
+		// Execute the waiting tasks, in order, as long as there is enough RAM
+		while (!getTasksQueue().isEmpty() && canStartExecution(getTasksQueue().peek()))
+			startExecution(getTasksQueue().poll());
+
+		// The share of each remaining task has changed
+		scheduleNextCompletion();
+	}
+
+	/**
+	 * Frees the resources used by a task whose execution has finished, and returns
+	 * its results.
+	 * 
+	 * @param task the finished task
+	 */
+	protected void releaseTask(Task task) {
 		// Free the RAM that has been used by the finished task.
-		setAvailableRam(this.getAvailableRam() + ((Task) e.getData()).getContainerSizeInMBytes());
+		setAvailableRam(this.getAvailableRam() + task.getContainerSizeInMBytes());
 		// Free the storage that has been used by the finished task.
-		setAvailableStorage(this.getAvailableStorage() + ((Task) e.getData()).getContainerSizeInMBytes());
+		setAvailableStorage(this.getAvailableStorage() + task.getContainerSizeInMBytes());
 		// Update CPU utilization.
-		removeCpuUtilization((Task) e.getData());
+		removeCpuUtilization(task);
 
 		// Save the execution end time for later use.
-		((Task) e.getData()).setExecutionFinishTime(this.getSimulation().clock());
+		task.setExecutionFinishTime(this.getSimulation().clock());
 
 		// Notify the simulation manager that a task has been finished, and it's time to
 		// return the execution results.
-		scheduleNow(simulationManager, SimulationManager.TRANSFER_RESULTS_TO_ORCH, e.getData());
-
-		// If there are tasks waiting for execution
-		if (!getTasksQueue().isEmpty()) {
-
-			// Execute the first task in the queue on the available core.
-			Task task = getTasksQueue().get(0);
-
-			// Remove the task from the queue.
-			getTasksQueue().remove(0);
-
-			// Execute the task.
-			startExecution(task);
-		}
+		scheduleNow(simulationManager, SimulationManager.TRANSFER_RESULTS_TO_ORCH, task);
 	}
 
 	@Override
@@ -312,10 +512,37 @@ public class DefaultComputingNode extends LocationAwareNode {
 			simulationManager.getDataCentersManager().getTopology().removeLink(currentDeviceToDeviceWifiLink);
 			currentDeviceToDeviceWifiLink.setDst(node);
 			simulationManager.getDataCentersManager().getTopology().addLink(currentDeviceToDeviceWifiLink);
+			// The status updates of this device now depend on the location of another one
+			getSimulation().updateLocality(this);
 		}
 
 	}
 
+	/**
+	 * A task being executed when the cores are time shared, with the executed
+	 * length at which it finishes.
+	 * 
+	 * @see DefaultComputingNode#executedLength
+	 */
+	protected static class RunningTask implements Comparable<RunningTask>, Serializable {
+		private static final long serialVersionUID = 1L;
+		protected final Task task;
+		protected final double finish;
+		protected final long order;
+
+		protected RunningTask(Task task, double finish, long order) {
+			this.task = task;
+			this.finish = finish;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(RunningTask other) {
+			int result = Double.compare(finish, other.finish);
+			return result != 0 ? result : Long.compare(order, other.order);
+		}
+	}
+
 	@Override
 	protected void onSimulationEnd() {
 		// Do something when the simulation finishes.
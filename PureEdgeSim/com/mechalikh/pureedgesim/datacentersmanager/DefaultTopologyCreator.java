@@ -59,6 +59,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 5.0
  */
 public class DefaultTopologyCreator extends TopologyCreator {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Creates a new DefaultTopologyCreator object with the specified simulation
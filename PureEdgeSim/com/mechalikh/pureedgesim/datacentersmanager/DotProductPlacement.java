@@ -0,0 +1,170 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.datacentersmanager;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Places each container on the host maximizing the dot product between the
+ * needs of the container (one core and its size in RAM) and the free resources
+ * of the host, both normalized by the capacity of the host.
+ * <p>
+ * The score of a host is a + size &times; b, where a and b only depend on the
+ * host, so it cannot be kept sorted for all container sizes at once. The hosts
+ * are instead indexed by a segment tree keeping, for each subtree, the maximum
+ * RAM available and the maximum of a and b among the hosts having a free core,
+ * which is updated in O(log hosts) when a container is placed or released. The
+ * search descends the tree towards the most promising subtrees first, and skips
+ * those that cannot fit the container or whose bound on the score cannot beat
+ * the best host found so far. It usually visits O(log hosts) nodes, but may
+ * visit all of them in the worst case, when many hosts have close scores.
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class DotProductPlacement extends HostPlacement {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of leaves of the tree, a power of two.
+	 */
+	protected final int leaves;
+
+	/**
+	 * The maximum available RAM in each subtree, the root at index 1 and the host
+	 * i at index leaves + i. Minus infinity for the hosts whose cores are all busy.
+	 */
+	protected final double[] maxRam;
+
+	/**
+	 * The maximum free share of the cores, and of the RAM, in each subtree, both
+	 * divided by the capacity of the host.
+	 */
+	protected final double[] maxCoresShare;
+	protected final double[] maxRamShare;
+
+	public DotProductPlacement(List<Host> hosts) {
+		super(hosts);
+		int n = 1;
+		while (n < hosts.size())
+			n <<= 1;
+		leaves = n;
+		maxRam = new double[2 * n];
+		maxCoresShare = new double[2 * n];
+		maxRamShare = new double[2 * n];
+		Arrays.fill(maxRam, Double.NEGATIVE_INFINITY);
+		Arrays.fill(maxCoresShare, Double.NEGATIVE_INFINITY);
+		Arrays.fill(maxRamShare, Double.NEGATIVE_INFINITY);
+		for (Host host : hosts)
+			setLeaf(host);
+		for (int i = leaves - 1; i > 0; i--)
+			merge(i);
+	}
+
+	protected void setLeaf(Host host) {
+		int node = leaves + host.getId();
+		if (host.getAvailableCores() > 0) {
+			double cores = host.getNumberOfCPUCores();
+			double ram = host.getRamCapacity();
+			maxRam[node] = host.getAvailableRam();
+			maxCoresShare[node] = host.getAvailableCores() / (cores * cores);
+			maxRamShare[node] = host.getAvailableRam() / (ram * ram);
+		} else {
+			maxRam[node] = Double.NEGATIVE_INFINITY;
+			maxCoresShare[node] = Double.NEGATIVE_INFINITY;
+			maxRamShare[node] = Double.NEGATIVE_INFINITY;
+		}
+	}
+
+	protected void merge(int node) {
+		maxRam[node] = Math.max(maxRam[2 * node], maxRam[2 * node + 1]);
+		maxCoresShare[node] = Math.max(maxCoresShare[2 * node], maxCoresShare[2 * node + 1]);
+		maxRamShare[node] = Math.max(maxRamShare[2 * node], maxRamShare[2 * node + 1]);
+	}
+
+	@Override
+	public Host findHost(double containerSize) {
+		return search(1, containerSize, null);
+	}
+
+	/**
+	 * Searches the given subtree for a host that can execute the container with a
+	 * better score than the best one found so far.
+	 * 
+	 * @param node          the root of the subtree
+	 * @param containerSize the size of the container
+	 * @param best          the best host found so far, or null
+	 * @return the best host found
+	 */
+	protected Host search(int node, double containerSize, Host best) {
+		// The bound is computed in a different order than the score, so leave some
+		// slack for the rounding errors
+		if (maxRam[node] <= containerSize
+				|| (best != null && getBound(node, containerSize) * (1 + 1e-9) < score(best, containerSize)))
+			return best;
+		if (node >= leaves) {
+			Host host = hosts.get(node - leaves);
+			if (best == null)
+				return host;
+			int result = Double.compare(score(host, containerSize), score(best, containerSize));
+			return result > 0 || (result == 0 && host.getId() > best.getId()) ? host : best;
+		}
+		// Visit the most promising subtree first, the right one (higher ids) on ties
+		int first = 2 * node + 1;
+		int second = 2 * node;
+		if (getBound(second, containerSize) > getBound(first, containerSize)) {
+			first = 2 * node;
+			second = 2 * node + 1;
+		}
+		return search(second, containerSize, search(first, containerSize, best));
+	}
+
+	/**
+	 * Returns an upper bound of the scores of the hosts in the given subtree.
+	 * 
+	 * @param node          the root of the subtree
+	 * @param containerSize the size of the container
+	 * @return the bound
+	 */
+	protected double getBound(int node, double containerSize) {
+		return maxCoresShare[node] + containerSize * maxRamShare[node];
+	}
+
+	protected double score(Host host, double containerSize) {
+		double cores = host.getNumberOfCPUCores();
+		double ram = host.getRamCapacity();
+		return host.getAvailableCores() / (cores * cores) + containerSize * host.getAvailableRam() / (ram * ram);
+	}
+
+	@Override
+	protected void beforeUpdate(Host host) {
+		// The tree is updated afterwards
+	}
+
+	@Override
+	protected void afterUpdate(Host host) {
+		setLeaf(host);
+		for (int node = (leaves + host.getId()) >> 1; node > 0; node >>= 1)
+			merge(node);
+	}
+
+}
@@ -21,30 +21,104 @@
 package com.mechalikh.pureedgesim.datacentersmanager;
 
 import com.mechalikh.pureedgesim.energy.EnergyModelComputingNode; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
+import com.mechalikh.pureedgesim.simulationengine.Event;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 public abstract class EnergyAwareNode extends NetworkingNode {
+	private static final long serialVersionUID = 1L;
+
 	protected EnergyModelComputingNode energyModel = EnergyModelComputingNode.NULL;
 	protected boolean isDead = false;
 	protected double deathTime;
 
+	/**
+	 * The battery depletion event ID.
+	 */
+	protected static final int BATTERY_DEPLETED = 3;
+
+	/**
+	 * The event ID of the battery check at the end of the simulation duration,
+	 * when the simulation goes on until all the tasks are finished.
+	 */
+	protected static final int BATTERY_CHECK = 4;
+
+	/**
+	 * The pending battery depletion event, rescheduled whenever the energy
+	 * consumption brings it forward, or the pending battery check. Null if the
+	 * battery does not run out before the end of the simulation.
+	 * 
+	 * @see #onEnergyConsumptionChanged()
+	 */
+	protected Event batteryDepletionEvent;
+
 	protected EnergyAwareNode(SimulationManager simulationManager) {
 		super(simulationManager);
 	}
 
 	@Override
-	protected void updateStatus() {
-		// Check if the device is dead
-		if (isDead())
-			return;
-		// Update the static energy consumption, the dynamic one is measure separately
-		// in DefaultComputingNode.startExecution() for performance and accuracy reasons
-		getEnergyModel().updateStaticEnergyConsumption();
+	public void startInternal() {
+		super.startInternal();
+		scheduleBatteryDepletion();
+	}
 
-		if (getEnergyModel().isBatteryPowered() && getEnergyModel().getBatteryLevelWattHour() <= 0) {
+	@Override
+	public void processEvent(Event e) {
+		super.processEvent(e);
+		if (e.getTag() == BATTERY_DEPLETED) {
+			batteryDepletionEvent = null;
+			getEnergyModel().updateStaticEnergyConsumption();
 			setDeath(true, simulationManager.getSimulation().clock());
+		} else if (e.getTag() == BATTERY_CHECK) {
+			batteryDepletionEvent = null;
+			scheduleBatteryDepletion();
 		}
+	}
 
+	@Override
+	protected void updateStatus() {
+		// Nothing to update, the static energy consumption is integrated lazily by the
+		// energy model, and the death of the node is scheduled in advance
+	}
+
+	/**
+	 * Reschedules the battery depletion event when the energy consumption of this
+	 * node changes, e.g. when it starts executing a task or transfers a file.
+	 * 
+	 * @see EnergyModelComputingNode#getBatteryDepletionTime()
+	 */
+	public void onEnergyConsumptionChanged() {
+		if (!isDead())
+			scheduleBatteryDepletion();
+	}
+
+	/**
+	 * Schedules the single event that kills this node when its battery runs out,
+	 * if it is battery powered and runs out before the end of the simulation. If
+	 * the simulation goes on until all the tasks are finished, a battery check is
+	 * scheduled at the end of the simulation duration instead, to schedule the
+	 * depletion from then on.
+	 * <p>
+	 * The consumption only grows, so the depletion time can only come earlier: the
+	 * pending event is replaced only in that case, which keeps the cancelled
+	 * events out of the queue for most of the changes.
+	 */
+	protected void scheduleBatteryDepletion() {
+		double time = getEnergyModel().getBatteryDepletionTime();
+		int tag = BATTERY_DEPLETED;
+		if (time > SimulationParameters.simulationDuration
+				&& getSimulation().clock() < SimulationParameters.simulationDuration) {
+			if (!SimulationParameters.waitForAllTasksToFinish || time == Double.POSITIVE_INFINITY)
+				return;
+			time = SimulationParameters.simulationDuration;
+			tag = BATTERY_CHECK;
+		}
+		if (time == Double.POSITIVE_INFINITY
+				|| (batteryDepletionEvent != null && time >= batteryDepletionEvent.getTime()))
+			return;
+		if (batteryDepletionEvent != null)
+			cancel(batteryDepletionEvent);
+		batteryDepletionEvent = schedule(this, time - getSimulation().clock(), tag);
 	}
 
 	public boolean isDead() {
@@ -58,6 +132,13 @@ public abstract class EnergyAwareNode extends NetworkingNode {
 	protected void setDeath(Boolean dead, double time) {
 		isDead = dead;
 		deathTime = time;
+		// A dead node has nothing to update anymore
+		if (dead) {
+			stopStatusUpdates();
+			if (batteryDepletionEvent != null)
+				cancel(batteryDepletionEvent);
+			batteryDepletionEvent = null;
+		}
 	}
 
 	public EnergyModelComputingNode getEnergyModel() {
@@ -66,6 +147,7 @@ public abstract class EnergyAwareNode extends NetworkingNode {
 
 	public void setEnergyModel(EnergyModelComputingNode energyModel) {
 		this.energyModel = energyModel;
+		energyModel.setNode(this);
 	}
 
 }
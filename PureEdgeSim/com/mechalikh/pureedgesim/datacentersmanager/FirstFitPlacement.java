@@ -0,0 +1,95 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.datacentersmanager;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Places each container on the first host that can execute it. The hosts are
+ * indexed by a segment tree keeping the maximum RAM available on the hosts
+ * having a free core, so the first fitting host is found by descending the
+ * tree in O(log hosts).
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class FirstFitPlacement extends HostPlacement {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of leaves of the tree, a power of two.
+	 */
+	protected final int leaves;
+
+	/**
+	 * The segment tree, the root at index 1 and the host i at index leaves + i.
+	 */
+	protected final double[] tree;
+
+	public FirstFitPlacement(List<Host> hosts) {
+		super(hosts);
+		int n = 1;
+		while (n < hosts.size())
+			n <<= 1;
+		leaves = n;
+		tree = new double[2 * n];
+		Arrays.fill(tree, Double.NEGATIVE_INFINITY);
+		for (Host host : hosts)
+			tree[leaves + host.getId()] = getAvailableRam(host);
+		for (int i = leaves - 1; i > 0; i--)
+			tree[i] = Math.max(tree[2 * i], tree[2 * i + 1]);
+	}
+
+	/**
+	 * Returns the RAM available for a new container on the given host.
+	 * 
+	 * @param host the host
+	 * @return its available RAM, or minus infinity if all its cores are busy
+	 */
+	protected double getAvailableRam(Host host) {
+		return host.getAvailableCores() > 0 ? host.getAvailableRam() : Double.NEGATIVE_INFINITY;
+	}
+
+	@Override
+	public Host findHost(double containerSize) {
+		if (tree[1] <= containerSize)
+			return null;
+		int node = 1;
+		while (node < leaves)
+			node = tree[2 * node] > containerSize ? 2 * node : 2 * node + 1;
+		return hosts.get(node - leaves);
+	}
+
+	@Override
+	protected void beforeUpdate(Host host) {
+		// The tree is updated afterwards
+	}
+
+	@Override
+	protected void afterUpdate(Host host) {
+		int node = leaves + host.getId();
+		tree[node] = getAvailableRam(host);
+		for (node >>= 1; node > 0; node >>= 1)
+			tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+	}
+
+}
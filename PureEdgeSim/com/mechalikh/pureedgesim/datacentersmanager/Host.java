@@ -0,0 +1,92 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.datacentersmanager;
+
+import java.io.Serializable;
+
+/**
+ * A physical machine of a data center made of several hosts. The tasks
+ * containers are placed on its cores and RAM by the {@link HostPlacement} of
+ * the data center.
+ *
+ * @see DefaultComputingNode#setHosts(java.util.List, HostPlacement.Policy)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class Host implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The index of this host in its data center.
+	 */
+	protected final int id;
+	protected final int numberOfCPUCores;
+	protected final double mipsPerCore;
+	protected final double ram; // in Megabytes
+	protected int availableCores;
+	protected double availableRam; // in Megabytes
+
+	public Host(int id, int numberOfCPUCores, double mipsPerCore, double ram) {
+		this.id = id;
+		this.numberOfCPUCores = numberOfCPUCores;
+		this.mipsPerCore = mipsPerCore;
+		this.ram = ram;
+		this.availableCores = numberOfCPUCores;
+		this.availableRam = ram;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public int getNumberOfCPUCores() {
+		return numberOfCPUCores;
+	}
+
+	public double getMipsPerCore() {
+		return mipsPerCore;
+	}
+
+	public double getRamCapacity() {
+		return ram;
+	}
+
+	public int getAvailableCores() {
+		return availableCores;
+	}
+
+	public double getAvailableRam() {
+		return availableRam;
+	}
+
+	/**
+	 * Returns whether a container of the given size can be executed on this host
+	 * right now.
+	 * 
+	 * @param containerSize the size of the container in Megabytes
+	 * @return true if a core and enough RAM are available
+	 */
+	public boolean canHost(double containerSize) {
+		return availableCores > 0 && availableRam > containerSize;
+	}
+
+}
@@ -0,0 +1,143 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.datacentersmanager;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Places the tasks containers on the hosts of a data center. The hosts are
+ * indexed by each placement policy, so that finding a host for a container
+ * does not scan all of them on each task: it is O(log hosts) for the first and
+ * the best fit, and usually so for the dot product (see
+ * {@link DotProductPlacement}).
+ * <p>
+ * The hosts must only be allocated and released through this class, which
+ * updates the index.
+ *
+ * @see DefaultComputingNode#setHosts(List, Policy)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public abstract class HostPlacement implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * How the host of a container is chosen.
+	 */
+	public enum Policy {
+		/**
+		 * The first host, in the order they are declared, that has a free core and
+		 * enough RAM.
+		 */
+		FIRST_FIT,
+		/**
+		 * The host that has the least RAM left once the container is placed.
+		 */
+		BEST_FIT,
+		/**
+		 * The host whose free resources are the most aligned with the needs of the
+		 * container.
+		 */
+		DOT_PRODUCT
+	}
+
+	protected final List<Host> hosts;
+
+	protected HostPlacement(List<Host> hosts) {
+		this.hosts = hosts;
+	}
+
+	/**
+	 * Creates the placement of the given hosts.
+	 * 
+	 * @param policy the placement policy
+	 * @param hosts  the hosts of the data center
+	 * @return the placement
+	 */
+	public static HostPlacement create(Policy policy, List<Host> hosts) {
+		switch (policy) {
+		case BEST_FIT:
+			return new BestFitPlacement(hosts);
+		case DOT_PRODUCT:
+			return new DotProductPlacement(hosts);
+		default:
+			return new FirstFitPlacement(hosts);
+		}
+	}
+
+	/**
+	 * Finds the host on which a container of the given size will be executed.
+	 * 
+	 * @param containerSize the size of the container in Megabytes
+	 * @return the host, or null if none of them can host it right now
+	 */
+	public abstract Host findHost(double containerSize);
+
+	/**
+	 * Allocates a core and the RAM of a container on the given host.
+	 * 
+	 * @param host          the host found by {@link #findHost(double)}
+	 * @param containerSize the size of the container in Megabytes
+	 */
+	public void allocate(Host host, double containerSize) {
+		beforeUpdate(host);
+		host.availableCores--;
+		host.availableRam -= containerSize;
+		afterUpdate(host);
+	}
+
+	/**
+	 * Frees the core and the RAM of a container once its execution has finished.
+	 * 
+	 * @param host          the host of the container
+	 * @param containerSize the size of the container in Megabytes
+	 */
+	public void release(Host host, double containerSize) {
+		beforeUpdate(host);
+		host.availableCores++;
+		host.availableRam += containerSize;
+		afterUpdate(host);
+	}
+
+	/**
+	 * Called before the free resources of the given host change, e.g. to remove
+	 * it from the index.
+	 * 
+	 * @param host the host
+	 */
+	protected abstract void beforeUpdate(Host host);
+
+	/**
+	 * Called after the free resources of the given host have changed, to update
+	 * the index.
+	 * 
+	 * @param host the host
+	 */
+	protected abstract void afterUpdate(Host host);
+
+	public List<Host> getHosts() {
+		return Collections.unmodifiableList(hosts);
+	}
+
+}
@@ -25,6 +25,8 @@ import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 public abstract class LocationAwareNode extends EnergyAwareNode {
+	private static final long serialVersionUID = 1L;
+
 	protected MobilityModel mobilityModel = MobilityModel.NULL;
 	protected boolean peripheral = false;
 	protected ComputingNode applicationPlacementLocation = ComputingNode.NULL;
@@ -50,6 +52,13 @@ public abstract class LocationAwareNode extends EnergyAwareNode {
 		}
 	}
 
+	@Override
+	protected boolean hasStatusUpdates() {
+		// The energy consumption is updated on events, only the location is updated
+		// periodically
+		return getMobilityModel().isMobile();
+	}
+
 	protected void connectWith(ComputingNode closestEdgeDataCenter) {
 		getCurrentLink(LinkOrientation.UP_LINK).setDst(closestEdgeDataCenter);
 		getCurrentLink(LinkOrientation.DOWN_LINK).setSrc(closestEdgeDataCenter);
@@ -60,6 +69,16 @@ public abstract class LocationAwareNode extends EnergyAwareNode {
 		}
 	}
 
+	@Override
+	public double getLookahead(int tag) {
+		// Checking the distance to another device reads its location, which it updates
+		// at the same time
+		if (getCurrentLink(LinkOrientation.DEVICE_TO_DEVICE).getDst()
+				.getType() == SimulationParameters.TYPES.EDGE_DEVICE)
+			return 0;
+		return super.getLookahead(tag);
+	}
+
 	@Override
 	public ComputingNode getOrchestrator() {
 		if (orchestrator == ComputingNode.NULL && SimulationParameters.enableOrchestrators) {
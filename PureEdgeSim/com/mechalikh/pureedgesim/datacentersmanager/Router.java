@@ -3,6 +3,7 @@ package com.mechalikh.pureedgesim.datacentersmanager;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 public class Router extends DefaultComputingNode {
+	private static final long serialVersionUID = 1L;
 
 	public Router(SimulationManager simulationManager) {
 		super(simulationManager, 0, 0, 0, 0);
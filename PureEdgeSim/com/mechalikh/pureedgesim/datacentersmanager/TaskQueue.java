@@ -0,0 +1,303 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.datacentersmanager;
+
+import java.io.Serializable;
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
+import com.mechalikh.pureedgesim.taskgenerator.Application;
+import com.mechalikh.pureedgesim.taskgenerator.Task;
+
+/**
+ * The queue of the tasks waiting for execution on a computing node, ordered by
+ * its scheduling {@link Policy policy}. The tasks having the same priority are
+ * executed in their arrival order.
+ * <p>
+ * It is an indexed d-ary heap: each entry knows its position in the heap, so
+ * that any task can be removed in O(log<sub>d</sub> n), as well as
+ * {@link #offer(Task)} and {@link #poll()}, while {@link #peek()} is O(1). With
+ * the FIFO policy, new tasks always go to the bottom of the heap, so adding one
+ * is O(1).
+ * <p>
+ * The {@link #iterator()} returns the tasks in heap order, not in execution
+ * order.
+ *
+ * @see DefaultComputingNode#setSchedulingPolicy(Policy)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class TaskQueue extends AbstractQueue<Task> implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The order in which the waiting tasks are executed.
+	 */
+	public enum Policy {
+		/**
+		 * First in, first out.
+		 */
+		FIFO,
+		/**
+		 * Earliest deadline first, the deadline of a task being its generation time
+		 * plus its maximum latency.
+		 */
+		EDF,
+		/**
+		 * Least slack first, the slack of a task being the time left before its
+		 * deadline once executed on one core of this node.
+		 */
+		LEAST_SLACK,
+		/**
+		 * The tasks of the applications having the highest priority first.
+		 * 
+		 * @see Application#getPriority()
+		 */
+		PRIORITY
+	}
+
+	/**
+	 * The branching factor of the heap.
+	 */
+	protected static final int ARITY = 4;
+
+	protected final Policy policy;
+
+	/**
+	 * The MIPS of one core of the computing node, used to compute the slack.
+	 */
+	protected final double mipsPerCore;
+
+	protected Entry[] heap = new Entry[16];
+
+	protected int size;
+
+	/**
+	 * The entry of each queued task, to find its position in the heap.
+	 */
+	protected Map<Task, Entry> entries = new IdentityHashMap<>();
+
+	/**
+	 * The number of tasks added so far, used to keep the arrival order of the
+	 * tasks having the same priority.
+	 */
+	protected long arrivals;
+
+	/**
+	 * Incremented on each structural modification, used to detect concurrent
+	 * modifications while iterating.
+	 */
+	protected int modCount;
+
+	/**
+	 * Creates a task queue.
+	 * 
+	 * @param policy      the order in which the tasks are executed
+	 * @param mipsPerCore the MIPS of one core of the computing node
+	 */
+	public TaskQueue(Policy policy, double mipsPerCore) {
+		this.policy = policy;
+		this.mipsPerCore = mipsPerCore;
+	}
+
+	/**
+	 * Returns the order in which the tasks of this queue are executed.
+	 * 
+	 * @return the scheduling policy
+	 */
+	public Policy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Returns the priority of the given task, the lowest value being executed
+	 * first.
+	 * 
+	 * @param task the task
+	 * @return its key in the heap
+	 */
+	protected double getKey(Task task) {
+		switch (policy) {
+		case EDF:
+			return task.getTime() + task.getMaxLatency();
+		case LEAST_SLACK:
+			// The current time is the same for all the tasks, so it can be left out
+			return task.getTime() + task.getMaxLatency() - task.getLength() / mipsPerCore;
+		case PRIORITY:
+			return -SimulationParameters.applicationList.get(task.getApplicationID()).getPriority();
+		default:
+			return 0;
+		}
+	}
+
+	@Override
+	public boolean offer(Task task) {
+		if (entries.containsKey(task))
+			return false;
+		Entry entry = new Entry(task, getKey(task), arrivals++);
+		entries.put(task, entry);
+		if (size == heap.length)
+			heap = Arrays.copyOf(heap, size * 2);
+		siftUp(size++, entry);
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public Task poll() {
+		if (size == 0)
+			return null;
+		Task task = heap[0].task;
+		entries.remove(task);
+		removeAt(0);
+		return task;
+	}
+
+	@Override
+	public Task peek() {
+		return size == 0 ? null : heap[0].task;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Entry entry = entries.remove(o);
+		if (entry == null)
+			return false;
+		removeAt(entry.index);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return entries.containsKey(o);
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(heap, 0, size, null);
+		entries.clear();
+		size = 0;
+		modCount++;
+	}
+
+	protected void removeAt(int index) {
+		modCount++;
+		Entry last = heap[--size];
+		heap[size] = null;
+		if (index == size)
+			return;
+		siftDown(index, last);
+		if (heap[index] == last)
+			siftUp(index, last);
+	}
+
+	protected void siftUp(int index, Entry entry) {
+		while (index > 0) {
+			int parent = (index - 1) / ARITY;
+			if (heap[parent].compareTo(entry) <= 0)
+				break;
+			place(index, heap[parent]);
+			index = parent;
+		}
+		place(index, entry);
+	}
+
+	protected void siftDown(int index, Entry entry) {
+		while (true) {
+			int child = index * ARITY + 1;
+			if (child >= size)
+				break;
+			int smallest = child;
+			int end = Math.min(child + ARITY, size);
+			for (int i = child + 1; i < end; i++)
+				if (heap[i].compareTo(heap[smallest]) < 0)
+					smallest = i;
+			if (entry.compareTo(heap[smallest]) <= 0)
+				break;
+			place(index, heap[smallest]);
+			index = smallest;
+		}
+		place(index, entry);
+	}
+
+	protected void place(int index, Entry entry) {
+		heap[index] = entry;
+		entry.index = index;
+	}
+
+	@Override
+	public Iterator<Task> iterator() {
+		return new Iterator<>() {
+			private int cursor;
+			private final int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < size;
+			}
+
+			@Override
+			public Task next() {
+				if (expectedModCount != modCount)
+					throw new ConcurrentModificationException();
+				if (cursor >= size)
+					throw new NoSuchElementException();
+				return heap[cursor++].task;
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * A queued task, with its key and its position in the heap.
+	 */
+	protected static class Entry implements Comparable<Entry>, Serializable {
+		private static final long serialVersionUID = 1L;
+		protected final Task task;
+		protected final double key;
+		protected final long arrival;
+		protected int index;
+
+		protected Entry(Task task, double key, long arrival) {
+			this.task = task;
+			this.key = key;
+			this.arrival = arrival;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			int result = Double.compare(key, other.key);
+			return result != 0 ? result : Long.compare(arrival, other.arrival);
+		}
+	}
+
+}
@@ -20,16 +20,23 @@
  **/
 package com.mechalikh.pureedgesim.datacentersmanager;
 
+import java.io.Serializable;
+
+import com.mechalikh.pureedgesim.network.HierarchicalInfrastructureGraph;
 import com.mechalikh.pureedgesim.network.InfrastructureGraph;
+import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
-public abstract class TopologyCreator {
+public abstract class TopologyCreator implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	protected ComputingNodesGenerator computingNodesGenerator;
 	protected SimulationManager simulationManager;
 	protected InfrastructureGraph infrastructureTopology;
 
 	public TopologyCreator(SimulationManager simulationManager, ComputingNodesGenerator computingNodesGenerator) {
-		infrastructureTopology = new InfrastructureGraph();
+		infrastructureTopology = SimulationParameters.hierarchicalTopology ? new HierarchicalInfrastructureGraph()
+				: new InfrastructureGraph();
 		this.simulationManager = simulationManager;
 		this.computingNodesGenerator = computingNodesGenerator;
 	}
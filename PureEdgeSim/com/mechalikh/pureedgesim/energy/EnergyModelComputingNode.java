@@ -20,6 +20,9 @@
  **/
 package com.mechalikh.pureedgesim.energy;
 
+import java.io.Serializable;
+
+import com.mechalikh.pureedgesim.datacentersmanager.EnergyAwareNode;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 
 /**
@@ -27,11 +30,19 @@ import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
  * Design Pattern in order to start avoiding {@link NullPointerException} when
  * using the NULL object instead of attributing null to EnergyModelNetworkLink
  * variables.
+ * <p>
+ * The idle power is integrated lazily, i.e., only when the consumption changes
+ * (a task starts, a file is transferred) or when it is read, instead of on every
+ * update interval. As the battery is then drained linearly between two changes,
+ * the exact time it will run out is known in advance (see
+ * {@link #getBatteryDepletionTime()}).
  * 
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 5.0
  */
-public class EnergyModelComputingNode {
+public class EnergyModelComputingNode implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	protected double maxActiveConsumption; // Consumed energy when the cpu is operating at 100% in Watt
 	protected double idleConsumption; // Consumed energy when idle (in Watt)
 	protected double cpuEnergyConsumption = 0;
@@ -52,20 +63,69 @@ public class EnergyModelComputingNode {
 	protected double transmissionEnergyPerBits;
 	protected double receptionEnergyPerBits;
 
+	/**
+	 * The node consuming this energy, which provides the simulation clock and is
+	 * notified when the consumption changes.
+	 */
+	protected EnergyAwareNode node;
+
+	/**
+	 * The last time the idle power has been integrated, in seconds.
+	 */
+	protected double lastUpdateTime = 0;
+
 	public EnergyModelComputingNode(double maxActiveConsumption, double idleConsumption) {
 		this.setMaxActiveConsumption(maxActiveConsumption);
 		this.setIdleConsumption(idleConsumption);
 	}
 
+	/**
+	 * Sets the node consuming this energy.
+	 * 
+	 * @param node the computing node that uses this energy model
+	 */
+	public void setNode(EnergyAwareNode node) {
+		this.node = node;
+	}
+
+	/**
+	 * Integrates the idle power from the last update up to the current simulation
+	 * time. A dead node does not consume any more.
+	 */
 	public void updateStaticEnergyConsumption() {
-		cpuEnergyConsumption += getIdleConsumption() / 3600 * SimulationParameters.updateInterval;
+		if (node == null)
+			return;
+		double time = node.getSimulation().clock();
+		if (time > lastUpdateTime && !node.isDead())
+			cpuEnergyConsumption += getIdleConsumption() / 3600 * (time - lastUpdateTime);
+		lastUpdateTime = time;
+	}
+
+	/**
+	 * Returns the time at which the battery will run out if the consumption does
+	 * not change until then, i.e., if the node keeps consuming its idle power.
+	 * 
+	 * @return the depletion time in seconds, or infinity if the node is not battery
+	 *         powered or does not consume anything while idle
+	 */
+	public double getBatteryDepletionTime() {
+		if (!isBatteryPowered() || node == null)
+			return Double.POSITIVE_INFINITY;
+		double remaining = getBatteryLevelWattHour();
+		if (remaining <= 0)
+			return lastUpdateTime;
+		if (getIdleConsumption() <= 0)
+			return Double.POSITIVE_INFINITY;
+		return lastUpdateTime + remaining * 3600 / getIdleConsumption();
 	}
 
 	public double getCpuEnergyConsumption() {
+		updateStaticEnergyConsumption();
 		return cpuEnergyConsumption;
 	}
 
 	public double getTotalEnergyConsumption() {
+		updateStaticEnergyConsumption();
 		return cpuEnergyConsumption + networkEnergyConsumption;
 	}
 
@@ -141,10 +201,20 @@ public class EnergyModelComputingNode {
 			networkEnergyConsumption += sizeInBits * transmissionEnergyPerBits;
 		else
 			networkEnergyConsumption += sizeInBits * receptionEnergyPerBits;
+		consumptionChanged();
 	}
 
 	public void updateDynamicEnergyConsumption(double length, double mipsCapacity) {
 		cpuEnergyConsumption += ((getMaxActiveConsumption() - getIdleConsumption()) / 3600 * length / mipsCapacity);
+		consumptionChanged();
+	}
+
+	/**
+	 * Notifies the node that its battery will run out at another time.
+	 */
+	protected void consumptionChanged() {
+		if (node != null && isBatteryPowered())
+			node.onEnergyConsumptionChanged();
 	}
 
 }
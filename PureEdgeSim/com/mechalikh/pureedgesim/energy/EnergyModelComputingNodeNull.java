@@ -20,6 +20,7 @@
  **/
 package com.mechalikh.pureedgesim.energy;
 
+import com.mechalikh.pureedgesim.datacentersmanager.EnergyAwareNode;
 
 /**
  * A class that implements the Null Object Design Pattern for the
@@ -28,6 +29,7 @@ package com.mechalikh.pureedgesim.energy;
  * attributing null to EnergyModelComputingNode variables.
  */
 public class EnergyModelComputingNodeNull extends EnergyModelComputingNode {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * 
@@ -45,6 +47,15 @@ public class EnergyModelComputingNodeNull extends EnergyModelComputingNode {
 	public static EnergyModelComputingNodeNull getInstance() {
 		return instance;
 	}
+
+	/**
+	 * Keeps a single instance when a simulation is loaded from a checkpoint.
+	 * 
+	 * @return the singleton instance
+	 */
+	private Object readResolve() {
+		return instance;
+	}
 	
 	/**
 	 * 
@@ -54,6 +65,11 @@ public class EnergyModelComputingNodeNull extends EnergyModelComputingNode {
 		super(0, 0);
 	}
 
+	@Override
+	public void setNode(EnergyAwareNode node) {
+		// The null energy model is shared, it does not belong to any node.
+	}
+
 	@Override
 	public double getTotalEnergyConsumption() {
 		return 0;
@@ -9,6 +9,7 @@ import com.mechalikh.pureedgesim.network.NetworkLink;
  * attributing null to EnergyModelNetworkLink variables.
  */
 public class EnergyModelNetworkLinkNull extends EnergyModelNetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * 
@@ -26,6 +27,15 @@ public class EnergyModelNetworkLinkNull extends EnergyModelNetworkLink {
 	public static EnergyModelNetworkLinkNull getInstance() {
 		return instance;
 	}
+
+	/**
+	 * Keeps a single instance when a simulation is loaded from a checkpoint.
+	 * 
+	 * @return the singleton instance
+	 */
+	private Object readResolve() {
+		return instance;
+	}
 	
 	/**
 	 * 
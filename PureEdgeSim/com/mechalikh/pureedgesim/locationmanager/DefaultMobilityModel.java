@@ -20,21 +20,21 @@
  **/
 package com.mechalikh.pureedgesim.locationmanager;
 
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager; 
 
 public class DefaultMobilityModel extends MobilityModel {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Used to generate random values.
 	 * 
 	 * @see #pause
 	 * @see #reoriontate(double, double)
 	 */
-	protected Random random;
+	protected RandomGenerator random;
 	protected boolean pause = false;
 	protected double pauseDuration = -1;
 	protected double mobilityDuration;
@@ -42,11 +42,7 @@ public class DefaultMobilityModel extends MobilityModel {
 
 	public DefaultMobilityModel(SimulationManager simulationManager, Location currentLocation) {
 		super(simulationManager, currentLocation);
-		try {
-			random = SecureRandom.getInstanceStrong();
-		} catch (NoSuchAlgorithmException e) {
-			e.printStackTrace();
-		}
+		random = simulationManager.getSimulation().getRandomStreams().getStream("mobility");
 		orientationAngle = random.nextInt(359);
 	}
 
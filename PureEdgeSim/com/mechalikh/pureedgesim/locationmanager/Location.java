@@ -20,7 +20,11 @@
  **/
 package com.mechalikh.pureedgesim.locationmanager;
 
-public class Location {
+import java.io.Serializable;
+
+public class Location implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	protected double xPos;
 	protected double yPos;
 
@@ -20,6 +20,7 @@
  **/
 package com.mechalikh.pureedgesim.locationmanager;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,7 +39,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 1.0
  */
 
-public abstract class MobilityModel {
+public abstract class MobilityModel implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	protected Location currentLocation;
 	protected boolean isMobile = false;
@@ -156,6 +158,14 @@ public abstract class MobilityModel {
 
 		if (!isMobile())
 			return;
+
+		if (!path.isEmpty()) {
+			// The path has been replayed, only find the closest data centers
+			for (Integer i : path.keySet())
+				datacentersMap.put(i, getDataCenter());
+			return;
+		}
+
 		Location newLocation = getCurrentLocation();
 
 		// Working around the double imprecision
@@ -170,6 +180,29 @@ public abstract class MobilityModel {
 
 	}
 
+	/**
+	 * Gets the locations of the device, by simulation time in milliseconds.
+	 * 
+	 * @return the generated path
+	 * @see #generatePath()
+	 */
+	public Map<Integer, Location> getPath() {
+		return path;
+	}
+
+	/**
+	 * Sets the path of the device, e.g., a recorded one, so that it is not
+	 * generated.
+	 * 
+	 * @param path the locations of the device, by simulation time in
+	 *             milliseconds.
+	 * @see com.mechalikh.pureedgesim.simulationmanager.InputRecording
+	 */
+	public void setPath(Map<Integer, Location> path) {
+		this.path.clear();
+		this.path.putAll(path);
+	}
+
 	protected ComputingNode getDataCenter() {
 		List<ComputingNode> list = getSimulationManager().getDataCentersManager().getComputingNodesGenerator()
 				.getEdgeOnlyList();
@@ -29,6 +29,7 @@ import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
  * variables.
  */
 public class MobilityModelNull extends MobilityModel {
+	private static final long serialVersionUID = 1L;
 
 	public Location getCurrentLocation() {
 		return new Location(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
@@ -48,4 +49,13 @@ public class MobilityModelNull extends MobilityModel {
 	public void generatePath() {
 		// Do nothing.
 	}
+
+	/**
+	 * Keeps a single instance when a simulation is loaded from a checkpoint.
+	 * 
+	 * @return the {@link MobilityModel#NULL} instance
+	 */
+	private Object readResolve() {
+		return MobilityModel.NULL;
+	}
 }
\ No newline at end of file
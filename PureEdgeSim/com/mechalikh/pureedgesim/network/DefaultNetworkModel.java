@@ -31,14 +31,25 @@ import com.mechalikh.pureedgesim.energy.EnergyModelComputingNode;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters.TYPES;
 import com.mechalikh.pureedgesim.simulationengine.Event;
+import com.mechalikh.pureedgesim.simulationengine.SimEntity;
 import com.mechalikh.pureedgesim.simulationmanager.DefaultSimulationManager;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
 public class DefaultNetworkModel extends NetworkModel {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The end-to-end flows, null unless the flow network model is enabled.
+	 *
+	 * @see SimulationParameters#flowNetworkModel
+	 */
+	protected MaxMinFlowModel flowModel;
 
 	public DefaultNetworkModel(SimulationManager simulationManager) {
 		super(simulationManager);
+		if (SimulationParameters.flowNetworkModel)
+			flowModel = new MaxMinFlowModel(simulationManager);
 	}
 
 	@Override
@@ -80,15 +91,14 @@ public class DefaultNetworkModel extends NetworkModel {
 		// If both are edge devices (one hop far from each other), send directly.
 		if (from.getType() == TYPES.EDGE_DEVICE && to.getType() == TYPES.EDGE_DEVICE) {
 			from.getCurrentLink(LinkOrientation.DEVICE_TO_DEVICE).setDst(to);
+			simulationManager.getSimulation().updateLocality((SimEntity) from);
 			vertexList.addAll(List.of(from, to));
 			edgeList.add(from.getCurrentLink(LinkOrientation.DEVICE_TO_DEVICE));
 
 		} // Otherwise, if the first is a mobile edge device
 		else if (from.getType() == TYPES.EDGE_DEVICE && to.getType() == TYPES.EDGE_DATACENTER) { 
-			long id = simulationManager.getDataCentersManager().getTopology()
-					.getUniqueId(from.getCurrentLink(LinkOrientation.UP_LINK).getDst().getId(), to.getId());
 			GraphPath<ComputingNode, NetworkLink> path = simulationManager.getDataCentersManager().getTopology()
-					.getPathsMap().get(id);
+					.getPath(from.getCurrentLink(LinkOrientation.UP_LINK).getDst(), to);
 			vertexList.add(from);
 			vertexList.addAll(path.getVertexList());
 			edgeList.add(from.getCurrentLink(LinkOrientation.UP_LINK));
@@ -96,10 +106,8 @@ public class DefaultNetworkModel extends NetworkModel {
 
 		} // Else, if the second is a mobile edge device
 		else if (from.getType() == TYPES.EDGE_DATACENTER && to.getType() == TYPES.EDGE_DEVICE) {
-			long id = simulationManager.getDataCentersManager().getTopology().getUniqueId(from.getId(),
-					to.getCurrentLink(LinkOrientation.DOWN_LINK).getSrc().getId());
 			GraphPath<ComputingNode, NetworkLink> path = simulationManager.getDataCentersManager().getTopology()
-					.getPathsMap().get(id);
+					.getPath(from, to.getCurrentLink(LinkOrientation.DOWN_LINK).getSrc());
 			vertexList.addAll(path.getVertexList());
 			vertexList.add(from);
 			edgeList.addAll(path.getEdgeList());
@@ -107,21 +115,18 @@ public class DefaultNetworkModel extends NetworkModel {
 			
 		} 
 		else { // Otherwise, if one of them is and edge device but not mobile, or the other is a cloud, or any other cases.
-			GraphPath<ComputingNode, NetworkLink> path;
-			long id = simulationManager.getDataCentersManager().getTopology().getUniqueId(from.getId(), to.getId());
-
-			if (simulationManager.getDataCentersManager().getTopology().getPathsMap().containsKey(id)) {
-				path = simulationManager.getDataCentersManager().getTopology().getPathsMap().get(id);
-			} else {
-				path = simulationManager.getDataCentersManager().getTopology().getPath(from, to);
-				simulationManager.getDataCentersManager().getTopology().getPathsMap().put(id, path);
-			}
+			GraphPath<ComputingNode, NetworkLink> path = simulationManager.getDataCentersManager().getTopology()
+					.getPath(from, to);
 			vertexList.addAll(path.getVertexList());
 			edgeList.addAll(path.getEdgeList());
 			
 		}
-		edgeList.get(0).addTransfer(
-				new TransferProgress(task, fileSize, type).setVertexList(vertexList).setEdgeList(edgeList));
+		TransferProgress transfer = new TransferProgress(task, fileSize, type).setVertexList(vertexList)
+				.setEdgeList(edgeList);
+		if (flowModel != null)
+			flowModel.addFlow(transfer);
+		else
+			edgeList.get(0).addTransfer(transfer);
 
 	}
 
@@ -0,0 +1,287 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments 
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *     
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jgrapht.GraphPath;
+import org.jgrapht.graph.GraphWalk;
+
+import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
+import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
+
+/**
+ * A topology where only the data centers and the routers are in the graph, and
+ * thus in the routing table. The edge devices are attached to them as leaves:
+ * the links from and to each device are kept aside, and the path of a device
+ * goes through the link to its access point with the shortest delay, then
+ * through the shortest path in the graph. Another device can relay the route
+ * to the access point, or from it, and two devices can also use the links
+ * between them, if any, through one other device at most.
+ * <p>
+ * The size of the graph and of the routing table, and the time needed to build
+ * it, no longer depend on the number of devices, and moving the link between
+ * two devices does not update the routing table.
+ *
+ * @see SimulationParameters#hierarchicalTopology
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class HierarchicalInfrastructureGraph extends InfrastructureGraph {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The links leaving each edge device, and those reaching it.
+	 */
+	protected Map<ComputingNode, List<NetworkLink>> deviceUpLinks = new IdentityHashMap<>();
+	protected Map<ComputingNode, List<NetworkLink>> deviceDownLinks = new IdentityHashMap<>();
+
+	/**
+	 * All the links from or to an edge device.
+	 */
+	protected Set<NetworkLink> deviceLinks = new LinkedHashSet<>();
+
+	protected boolean isDevice(ComputingNode node) {
+		return node.getType() == SimulationParameters.TYPES.EDGE_DEVICE;
+	}
+
+	@Override
+	public void addLink(NetworkLink networkLink) {
+		if (!isDevice(networkLink.getSrc()) && !isDevice(networkLink.getDst())) {
+			super.addLink(networkLink);
+		} else if (deviceLinks.add(networkLink)) {
+			deviceUpLinks.computeIfAbsent(networkLink.getSrc(), node -> new ArrayList<>(2)).add(networkLink);
+			deviceDownLinks.computeIfAbsent(networkLink.getDst(), node -> new ArrayList<>(2)).add(networkLink);
+		}
+	}
+
+	@Override
+	public void removeLink(ComputingNode src, ComputingNode dest) {
+		if (!isDevice(src) && !isDevice(dest)) {
+			super.removeLink(src, dest);
+			return;
+		}
+		for (NetworkLink link : getUpLinks(src))
+			if (link.getDst() == dest) {
+				removeLink(link);
+				return;
+			}
+	}
+
+	@Override
+	public void removeLink(NetworkLink link) {
+		if (deviceLinks.remove(link)) {
+			deviceUpLinks.get(link.getSrc()).remove(link);
+			deviceDownLinks.get(link.getDst()).remove(link);
+		} else {
+			super.removeLink(link);
+		}
+	}
+
+	protected List<NetworkLink> getUpLinks(ComputingNode node) {
+		return deviceUpLinks.getOrDefault(node, Collections.emptyList());
+	}
+
+	protected List<NetworkLink> getDownLinks(ComputingNode node) {
+		return deviceDownLinks.getOrDefault(node, Collections.emptyList());
+	}
+
+	@Override
+	public Collection<NetworkLink> getLinks() {
+		List<NetworkLink> links = new ArrayList<>(graph.edgeSet().size() + deviceLinks.size());
+		links.addAll(graph.edgeSet());
+		links.addAll(deviceLinks);
+		return links;
+	}
+
+	@Override
+	public double getDelay(final ComputingNode computingNode, final ComputingNode computingNode2) {
+		if (!isDevice(computingNode) && !isDevice(computingNode2))
+			return super.getDelay(computingNode, computingNode2);
+		Route route = getRoute(computingNode, computingNode2);
+		return route == null ? Double.POSITIVE_INFINITY : route.delay;
+	}
+
+	@Override
+	public GraphPath<ComputingNode, NetworkLink> getPath(final ComputingNode computingNode, final ComputingNode node) {
+		if (!isDevice(computingNode) && !isDevice(node))
+			return super.getPath(computingNode, node);
+		Route route = getRoute(computingNode, node);
+		if (route == null)
+			throw noPathException(computingNode, node);
+
+		List<ComputingNode> vertexList = new ArrayList<>(7);
+		List<NetworkLink> edgeList = new ArrayList<>(6);
+		vertexList.add(computingNode);
+		for (NetworkLink link : route.upLinks) {
+			edgeList.add(link);
+			vertexList.add(link.getDst());
+		}
+		if (route.entry != route.exit) {
+			GraphPath<ComputingNode, NetworkLink> path = super.getPath(route.entry, route.exit);
+			vertexList.addAll(path.getVertexList().subList(1, path.getVertexList().size()));
+			edgeList.addAll(path.getEdgeList());
+		}
+		for (NetworkLink link : route.downLinks) {
+			edgeList.add(link);
+			vertexList.add(link.getDst());
+		}
+		return new GraphWalk<>(graph, computingNode, node, vertexList, edgeList, route.delay);
+	}
+
+	/**
+	 * Finds the shortest route between two nodes, one of them at least being an
+	 * edge device: through the links of the devices to their access points and the
+	 * shortest path between these, or through the links between the devices only.
+	 * Another device can relay the route on each side of the access points, but
+	 * not more.
+	 * 
+	 * @param from the source node
+	 * @param to   the destination node
+	 * @return the route, or null if there is none
+	 */
+	protected Route getRoute(ComputingNode from, ComputingNode to) {
+		if (from == to)
+			return new Route(Collections.emptyList(), null, null, Collections.emptyList(), 0);
+		Route best = null;
+		List<Leg> downLegs = null;
+		for (Leg upLeg : getUpLegs(from, to)) {
+			if (upLeg.node == to) {
+				// Through the links between the devices
+				if (best == null || upLeg.delay < best.delay)
+					best = new Route(upLeg.links, null, null, Collections.emptyList(), upLeg.delay);
+				continue;
+			}
+			if (downLegs == null)
+				downLegs = getDownLegs(from, to);
+			for (Leg downLeg : downLegs) {
+				// The access point may have no link to the other data centers
+				double delay = upLeg.delay + downLeg.delay
+						+ (upLeg.node == downLeg.node ? 0 : super.getDelay(upLeg.node, downLeg.node));
+				if (delay < Double.POSITIVE_INFINITY && (best == null || delay < best.delay))
+					best = new Route(upLeg.links, upLeg.node, downLeg.node, downLeg.links, delay);
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the ways from the given node to the access points, directly or
+	 * through another device, and to the destination if it is reached on the way.
+	 * A node that is not a device is its own access point.
+	 * 
+	 * @param from the source node
+	 * @param to   the destination node
+	 * @return the ways out of the source node
+	 */
+	protected List<Leg> getUpLegs(ComputingNode from, ComputingNode to) {
+		if (!isDevice(from))
+			return Collections.singletonList(new Leg(Collections.emptyList(), from, 0));
+		List<Leg> legs = new ArrayList<>(2);
+		for (NetworkLink link : getUpLinks(from)) {
+			ComputingNode node = link.getDst();
+			if (node == to || !isDevice(node)) {
+				legs.add(new Leg(Collections.singletonList(link), node, link.getLatency()));
+				continue;
+			}
+			for (NetworkLink next : getUpLinks(node))
+				if (next.getDst() == to || !isDevice(next.getDst()))
+					legs.add(new Leg(Arrays.asList(link, next), next.getDst(),
+							link.getLatency() + next.getLatency()));
+		}
+		return legs;
+	}
+
+	/**
+	 * Returns the ways from the access points to the given node, directly or
+	 * through another device. A node that is not a device is its own access point.
+	 * 
+	 * @param from the source node, which is not used to relay the route here
+	 * @param to   the destination node
+	 * @return the ways into the destination node
+	 */
+	protected List<Leg> getDownLegs(ComputingNode from, ComputingNode to) {
+		if (!isDevice(to))
+			return Collections.singletonList(new Leg(Collections.emptyList(), to, 0));
+		List<Leg> legs = new ArrayList<>(2);
+		for (NetworkLink link : getDownLinks(to)) {
+			ComputingNode node = link.getSrc();
+			if (!isDevice(node)) {
+				legs.add(new Leg(Collections.singletonList(link), node, link.getLatency()));
+				continue;
+			}
+			if (node == from)
+				continue;
+			for (NetworkLink previous : getDownLinks(node))
+				if (!isDevice(previous.getSrc()))
+					legs.add(new Leg(Arrays.asList(previous, link), previous.getSrc(),
+							previous.getLatency() + link.getLatency()));
+		}
+		return legs;
+	}
+
+	/**
+	 * The links between a node and an access point, or another node reached before
+	 * any access point, with their delay.
+	 */
+	protected static class Leg {
+		protected final List<NetworkLink> links;
+		protected final ComputingNode node;
+		protected final double delay;
+
+		protected Leg(List<NetworkLink> links, ComputingNode node, double delay) {
+			this.links = links;
+			this.node = node;
+			this.delay = delay;
+		}
+	}
+
+	/**
+	 * The route of a device: the links to the access point, if the source is a
+	 * device, the path between the access points, unless the route only goes
+	 * through devices, and the links from the access point, if the destination is
+	 * a device.
+	 */
+	protected static class Route {
+		protected final List<NetworkLink> upLinks;
+		protected final ComputingNode entry;
+		protected final ComputingNode exit;
+		protected final List<NetworkLink> downLinks;
+		protected final double delay;
+
+		protected Route(List<NetworkLink> upLinks, ComputingNode entry, ComputingNode exit,
+				List<NetworkLink> downLinks, double delay) {
+			this.upLinks = upLinks;
+			this.entry = entry;
+			this.exit = exit;
+			this.downLinks = downLinks;
+			this.delay = delay;
+		}
+	}
+}
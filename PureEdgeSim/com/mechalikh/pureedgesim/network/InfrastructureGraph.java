@@ -20,14 +20,16 @@
  **/
 package com.mechalikh.pureedgesim.network;
 
-import java.util.LinkedHashMap;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.jgrapht.GraphPath;
 import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
-import org.jgrapht.alg.shortestpath.FloydWarshallShortestPaths;
 import org.jgrapht.graph.DirectedWeightedMultigraph;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
@@ -40,14 +42,34 @@ import com.mechalikh.pureedgesim.network.NetworkLink.NetworkLinkTypes;
  * The implementation is a bit messy because it complies with the outdated
  * CloudSim NetworkTopology interface.
  */
-public class InfrastructureGraph {
+public class InfrastructureGraph implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	public static final InfrastructureGraph NULL = new InfrastructureGraph() {
 	};
 
 	protected DirectedWeightedMultigraph<ComputingNode, NetworkLink> graph;
 
-	protected Map<Long, GraphPath<ComputingNode, NetworkLink>> pathsMap = new LinkedHashMap<>();
+	/**
+	 * The shortest paths towards the edge data centers and the cloud, computed
+	 * once the topology is generated and then updated whenever a link is added or
+	 * removed. Null when it needs to be built again.
+	 *
+	 * @see #savePathsToMap(List)
+	 */
+	protected RoutingTable routingTable;
+
+	/**
+	 * The destinations of the routing table, null until the topology is generated.
+	 */
+	protected List<ComputingNode> routingDestinations;
+
+	/**
+	 * The paths that are not in the routing table, e.g. towards an edge device,
+	 * by the indexes of their ends in the routing table. Cleared whenever a link is
+	 * added or removed.
+	 */
+	protected Map<Long, GraphPath<ComputingNode, NetworkLink>> otherPaths = new HashMap<>();
 
 	public InfrastructureGraph() {
 		graph = new DirectedWeightedMultigraph<>(NetworkLink.class);
@@ -56,15 +78,36 @@ public class InfrastructureGraph {
 	public void addLink(NetworkLink networkLink) {
 		graph.addVertex(networkLink.getSrc());
 		graph.addVertex(networkLink.getDst());
-		graph.addEdge(networkLink.getSrc(), networkLink.getDst(), networkLink);
+		if (!graph.addEdge(networkLink.getSrc(), networkLink.getDst(), networkLink))
+			return;
 		graph.setEdgeWeight(networkLink, networkLink.getLatency()); // in jgrapht all access to the weight of an edge
 																	// must go through the graph interface
+		otherPaths.clear();
+		// The table is built again if the link connects a new node
+		if (routingTable != null && !routingTable.addLink(networkLink))
+			routingTable = null;
 	}
 
+	/**
+	 * Returns the delay of the shortest path between the given nodes. It is read
+	 * from the routing table, to which the destination is added the first time it
+	 * is used, so it is computed once for all the nodes, then kept up to date as
+	 * links are added or removed.
+	 * 
+	 * @param computingNode  the source node
+	 * @param computingNode2 the destination node
+	 * @return the delay, or positive infinity if there is no path
+	 */
 	public double getDelay(final ComputingNode computingNode, final ComputingNode computingNode2) {
+		RoutingTable table = getRoutingTable();
+		if (table != null && table.getIndex(computingNode) != -1 && table.getIndex(computingNode2) != -1) {
+			table.addDestination(computingNode2);
+			return table.getDelay(computingNode, computingNode2);
+		}
+
 		// The Network interfaces in CloudSimPlus are not very good, the try catch
 		// should not be necessary
-		FloydWarshallShortestPaths<ComputingNode, NetworkLink> algorithm = new FloydWarshallShortestPaths<>(graph);
+		DijkstraShortestPath<ComputingNode, NetworkLink> algorithm = new DijkstraShortestPath<>(graph);
 		try {
 			return algorithm.getPathWeight(computingNode, computingNode2); // Returns Double.POSITIVE_INFINITY if no
 																			// path exists
@@ -74,25 +117,68 @@ public class InfrastructureGraph {
 	}
 
 	public void removeLink(ComputingNode src, ComputingNode dest) {
-		graph.removeEdge(src, dest);
+		NetworkLink link = graph.removeEdge(src, dest);
+		if (link != null)
+			linkRemoved(link);
 	}
 
 	public void removeLink(NetworkLink link) {
-		graph.removeEdge(link);
+		if (graph.removeEdge(link))
+			linkRemoved(link);
 	}
 
+	protected void linkRemoved(NetworkLink link) {
+		otherPaths.clear();
+		if (routingTable != null)
+			routingTable.removeLink(link);
+	}
+
+	/**
+	 * Returns the shortest path between the given nodes. The paths towards the
+	 * edge data centers and the cloud are read from the routing table, and the
+	 * other ones are computed once and then reused until a link is added or
+	 * removed.
+	 * 
+	 * @param computingNode the source node
+	 * @param node          the destination node
+	 * @return the shortest path
+	 * @see #savePathsToMap(List)
+	 */
 	public GraphPath<ComputingNode, NetworkLink> getPath(final ComputingNode computingNode, final ComputingNode node) {
-		DijkstraShortestPath<ComputingNode, NetworkLink> algorithm = new DijkstraShortestPath<>(graph);
 		try {
-			return assertNotNull(algorithm.getPath(computingNode, node));
+			RoutingTable table = getRoutingTable();
+			if (table == null)
+				return findPath(computingNode, node);
+			if (table.contains(computingNode, node))
+				return assertNotNull(table.getPath(computingNode, node));
+			int from = table.getIndex(computingNode);
+			int to = table.getIndex(node);
+			if (from == -1 || to == -1)
+				return findPath(computingNode, node);
+			long id = (long) from * table.getNodesCount() + to;
+			GraphPath<ComputingNode, NetworkLink> path = otherPaths.get(id);
+			if (path == null) {
+				path = findPath(computingNode, node);
+				otherPaths.put(id, path);
+			}
+			return path;
 		} catch (IllegalArgumentException e) {
-			throw new IllegalArgumentException("Cannot get a path from node " + computingNode.getId() + " (Class: "
-					+ computingNode.getClass().getSimpleName() + " type: " + computingNode.getType() + ") to "
-					+ node.getId() + " (Class: " + node.getClass().getSimpleName() + " type: " + node.getType()
-					+ "). Possible solutions : add links in edge_datacenter.xml file (see examples), Or check your topology creator class.");
+			throw noPathException(computingNode, node);
 		}
 	}
 
+	protected IllegalArgumentException noPathException(final ComputingNode computingNode, final ComputingNode node) {
+		return new IllegalArgumentException("Cannot get a path from node " + computingNode.getId() + " (Class: "
+				+ computingNode.getClass().getSimpleName() + " type: " + computingNode.getType() + ") to "
+				+ node.getId() + " (Class: " + node.getClass().getSimpleName() + " type: " + node.getType()
+				+ "). Possible solutions : add links in edge_datacenter.xml file (see examples), Or check your topology creator class.");
+	}
+
+	protected GraphPath<ComputingNode, NetworkLink> findPath(final ComputingNode computingNode,
+			final ComputingNode node) {
+		return assertNotNull(new DijkstraShortestPath<>(graph).getPath(computingNode, node));
+	}
+
 	protected GraphPath<ComputingNode, NetworkLink> assertNotNull(GraphPath<ComputingNode, NetworkLink> path) {
 		if (null == path)
 			throw new IllegalArgumentException();
@@ -103,6 +189,15 @@ public class InfrastructureGraph {
 		return graph;
 	}
 
+	/**
+	 * Returns all the links of the topology.
+	 * 
+	 * @return the links
+	 */
+	public Collection<NetworkLink> getLinks() {
+		return graph.edgeSet();
+	}
+
 	public List<NetworkLinkWifi> getWifiLinks() {
 		return getEdgeByType(NetworkLinkWifi.class);
 	}
@@ -136,30 +231,35 @@ public class InfrastructureGraph {
 	}
 
 	protected <T extends NetworkLink> List<T> getEdgeByType(Class<T> x) {
-		return getGraph().edgeSet().stream().filter(x::isInstance).map(x::cast).collect(Collectors.toList());
+		return getLinks().stream().filter(x::isInstance).map(x::cast).collect(Collectors.toList());
 	}
 
 	protected List<NetworkLink> getEdgeByType(NetworkLinkTypes type) {
-		return getGraph().edgeSet().stream().filter(n -> n.getType().equals(type)).collect(Collectors.toList());
-	}
-
-	public Map<Long, GraphPath<ComputingNode, NetworkLink>> getPathsMap() {
-		return pathsMap;
+		return getLinks().stream().filter(n -> n.getType().equals(type)).collect(Collectors.toList());
 	}
 
+	/**
+	 * Computes the shortest paths from every node to the given ones, to read them
+	 * later in constant time.
+	 * 
+	 * @param list the destinations, usually the edge data centers and the cloud
+	 * @see RoutingTable
+	 */
 	public void savePathsToMap(List<ComputingNode> list) {
-		// Save shortest paths in map to use them later
-		for (int i = 0; i < list.size(); i++) {
-			ComputingNode from = list.get(i);
-			for (int j = 0; j < list.size(); j++) { 
-				ComputingNode to = list.get(j);
-				pathsMap.put(getUniqueId(from.getId(), to.getId()), this.getPath(from, to));
-			}
-		}
+		routingDestinations = new ArrayList<>(list);
+		routingTable = new RoutingTable(graph, routingDestinations);
+		otherPaths.clear();
 	}
 
-	// Get a unique id using Cantor pairing function
-	public long getUniqueId(int a, int b) {
-		return (long) ((1 / 2.0) * (a + b) * (a + b + 1)) + b;
+	/**
+	 * Returns the routing table, after building it again if a node has been added
+	 * since.
+	 * 
+	 * @return the routing table, or null if the topology has not been generated
+	 */
+	public RoutingTable getRoutingTable() {
+		if (routingTable == null && routingDestinations != null)
+			routingTable = new RoutingTable(graph, routingDestinations);
+		return routingTable;
 	}
 }
@@ -0,0 +1,358 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments 
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *     
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.network;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
+import com.mechalikh.pureedgesim.simulationengine.Event;
+import com.mechalikh.pureedgesim.simulationengine.SimEntity;
+import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
+
+/**
+ * The end-to-end flow model of the network. Instead of being stored and
+ * forwarded hop by hop, each transfer is a flow that uses all the links of its
+ * path at the same time. The rates of the flows are the max-min fair
+ * allocation, found by progressive filling: the flows crossing the most
+ * congested link get an equal share of it, and the remaining bandwidth is
+ * shared in the same way among the other flows. The rate of each flow is thus
+ * set by its bottleneck link (e.g. the WAN).
+ * <p>
+ * When a flow starts or finishes, only the rates of the flows that share a
+ * link with it, directly or through other flows, can change, so the allocation
+ * is computed again for them only. A single event is then scheduled for the
+ * next flow to finish, so each transfer costs a few events whatever its size
+ * and the number of hops.
+ *
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#flowNetworkModel
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class MaxMinFlowModel extends SimEntity {
+	private static final long serialVersionUID = 1L;
+
+	public static final int FLOW_COMPLETED = 1;
+	protected SimulationManager simulationManager;
+
+	/**
+	 * The links used by at least one flow in progress.
+	 */
+	protected Map<NetworkLink, LinkFlows> links = new IdentityHashMap<>();
+
+	/**
+	 * The flows in progress, ordered by their completion time.
+	 */
+	protected TreeSet<Flow> flows = new TreeSet<>();
+
+	/**
+	 * The number of flows added, to order the ones finishing at the same time.
+	 */
+	protected long arrivals = 0;
+
+	/**
+	 * Incremented at each allocation, to mark the links and the flows it visits.
+	 */
+	protected long allocations = 0;
+
+	/**
+	 * The pending completion of the next flow, rescheduled whenever the rates
+	 * change.
+	 */
+	protected Event nextCompletionEvent;
+
+	public MaxMinFlowModel(SimulationManager simulationManager) {
+		super(simulationManager.getSimulation());
+		this.simulationManager = simulationManager;
+	}
+
+	@Override
+	public void startInternal() {
+		// Do nothing for now.
+	}
+
+	@Override
+	public void onSimulationEnd() {
+		// Do something when the simulation finishes.
+	}
+
+	@Override
+	public void processEvent(Event evt) {
+		if (evt.getTag() == FLOW_COMPLETED)
+			flowsCompleted();
+	}
+
+	/**
+	 * Starts sending the given transfer over all the links of its path.
+	 * 
+	 * @param transfer the new transfer
+	 */
+	public void addFlow(TransferProgress transfer) {
+		Flow flow = new Flow(transfer, getSimulation().clock(), arrivals++);
+		for (NetworkLink link : transfer.getEdgeList()) {
+			// Used by the energy model to get the total energy consumed by this network
+			// link
+			link.totalTrasferredData += transfer.getFileSize();
+			LinkFlows linkFlows = links.computeIfAbsent(link, LinkFlows::new);
+			linkFlows.flows.add(flow);
+			flow.links.add(linkFlows);
+		}
+		allocate(flow.links);
+		scheduleNextCompletion();
+	}
+
+	/**
+	 * Computes the max-min fair rates of the flows that are connected to the given
+	 * links, i.e. that use one of them or that share a link with such a flow, and
+	 * so on. The other flows keep their rates.
+	 * 
+	 * @param changedLinks the links where a flow has started or finished
+	 */
+	protected void allocate(List<LinkFlows> changedLinks) {
+		long allocation = ++allocations;
+		List<LinkFlows> componentLinks = new ArrayList<>();
+		List<Flow> componentFlows = new ArrayList<>();
+		for (LinkFlows linkFlows : changedLinks)
+			visit(linkFlows, allocation, componentLinks);
+		for (int i = 0; i < componentLinks.size(); i++)
+			for (Flow flow : componentLinks.get(i).flows)
+				if (flow.allocation != allocation) {
+					flow.allocation = allocation;
+					componentFlows.add(flow);
+					for (LinkFlows linkFlows : flow.links)
+						visit(linkFlows, allocation, componentLinks);
+				}
+
+		// Advance the flows up to now at their previous rates
+		double time = getSimulation().clock();
+		for (Flow flow : componentFlows) {
+			// A new flow is not in the set yet
+			flows.remove(flow);
+			flow.remainingSize = Math.max(0, flow.remainingSize - flow.rate * (time - flow.lastUpdate));
+			flow.lastUpdate = time;
+			flow.allocated = false;
+		}
+
+		// Progressive filling. Freezing the flows of the bottleneck can only increase
+		// the fair share of the other links, so the outdated shares in the queue are
+		// too low and get updated when they are polled
+		PriorityQueue<Share> shares = new PriorityQueue<>();
+		for (int i = 0; i < componentLinks.size(); i++) {
+			LinkFlows linkFlows = componentLinks.get(i);
+			linkFlows.remainingBandwidth = linkFlows.link.bandwidth;
+			linkFlows.unallocatedFlows = linkFlows.flows.size();
+			if (linkFlows.unallocatedFlows > 0)
+				shares.add(new Share(linkFlows, linkFlows.getFairShare(), i));
+		}
+		while (!shares.isEmpty()) {
+			Share share = shares.poll();
+			LinkFlows bottleneck = share.linkFlows;
+			if (bottleneck.unallocatedFlows == 0)
+				continue;
+			double fairShare = bottleneck.getFairShare();
+			if (fairShare > share.value) {
+				shares.add(new Share(bottleneck, fairShare, share.order));
+				continue;
+			}
+			for (Flow flow : bottleneck.flows)
+				if (!flow.allocated) {
+					flow.allocated = true;
+					flow.rate = fairShare;
+					for (LinkFlows linkFlows : flow.links) {
+						linkFlows.remainingBandwidth = Math.max(0, linkFlows.remainingBandwidth - fairShare);
+						linkFlows.unallocatedFlows--;
+					}
+				}
+		}
+
+		for (LinkFlows linkFlows : componentLinks) {
+			linkFlows.link.usedBandwidth = linkFlows.link.bandwidth - linkFlows.remainingBandwidth;
+			if (linkFlows.flows.isEmpty()) {
+				linkFlows.link.usedBandwidth = 0;
+				links.remove(linkFlows.link);
+			}
+		}
+		for (Flow flow : componentFlows) {
+			flow.finish = time + flow.remainingSize / flow.rate;
+			flows.add(flow);
+		}
+	}
+
+	protected void visit(LinkFlows linkFlows, long allocation, List<LinkFlows> componentLinks) {
+		if (linkFlows.allocation != allocation) {
+			linkFlows.allocation = allocation;
+			componentLinks.add(linkFlows);
+		}
+	}
+
+	/**
+	 * Schedules the completion of the flow that will finish first, and cancels the
+	 * previous one.
+	 */
+	protected void scheduleNextCompletion() {
+		if (nextCompletionEvent != null)
+			cancel(nextCompletionEvent);
+		nextCompletionEvent = null;
+		if (flows.isEmpty())
+			return;
+		nextCompletionEvent = schedule(this, Math.max(0, flows.first().finish - getSimulation().clock()),
+				FLOW_COMPLETED);
+	}
+
+	/**
+	 * Finishes the flows that completed at the current time, gives their bandwidth
+	 * to the remaining ones, and schedules the next completion.
+	 */
+	protected void flowsCompleted() {
+		nextCompletionEvent = null;
+		double time = getSimulation().clock();
+		// The completion event was scheduled for the first flow, finish it even if the
+		// floating point arithmetic stopped slightly short of its completion time
+		List<Flow> completed = new ArrayList<>();
+		completed.add(flows.pollFirst());
+		while (!flows.isEmpty() && flows.first().finish <= time)
+			completed.add(flows.pollFirst());
+
+		List<LinkFlows> changedLinks = new ArrayList<>();
+		for (Flow flow : completed)
+			for (LinkFlows linkFlows : flow.links) {
+				linkFlows.flows.remove(flow);
+				changedLinks.add(linkFlows);
+			}
+		allocate(changedLinks);
+
+		for (Flow flow : completed)
+			flowFinished(flow, time);
+		scheduleNextCompletion();
+	}
+
+	/**
+	 * Accounts for the time the flow spent in the network and delivers it to its
+	 * destination once the data has propagated along the path.
+	 * 
+	 * @param flow the completed flow
+	 * @param time the current time, in seconds
+	 */
+	protected void flowFinished(Flow flow, double time) {
+		TransferProgress transfer = flow.transfer;
+		double transferDelay = time - flow.start;
+		if (transferDelay > 0)
+			transfer.setCurrentBandwidth(transfer.getFileSize() / transferDelay);
+		transfer.setRemainingFileSize(0);
+		transfer.getTask().addActualNetworkTime(transferDelay);
+
+		// The flow used all the links of its path during the whole transfer
+		double latency = 0;
+		for (LinkFlows linkFlows : flow.links) {
+			linkFlows.link.addNetworkUsage(transfer, transferDelay);
+			latency += linkFlows.link.getLatency();
+		}
+
+		// Data has reached the destination, which is the only vertex left as when it
+		// is forwarded hop by hop
+		List<ComputingNode> vertexList = transfer.getVertexList();
+		vertexList.subList(0, vertexList.size() - 1).clear();
+		transfer.getEdgeList().clear();
+
+		// Update logger parameters
+		simulationManager.getSimulationLogger().updateNetworkUsage(transfer);
+
+		schedule(simulationManager.getNetworkModel(), latency, NetworkModel.TRANSFER_FINISHED, transfer);
+	}
+
+	/**
+	 * The flows in progress on a link, and its state during the allocation.
+	 */
+	protected static class LinkFlows implements Serializable {
+		private static final long serialVersionUID = 1L;
+		protected final NetworkLink link;
+		protected final List<Flow> flows = new ArrayList<>();
+		protected long allocation;
+		protected double remainingBandwidth;
+		protected int unallocatedFlows;
+
+		protected LinkFlows(NetworkLink link) {
+			this.link = link;
+		}
+
+		protected double getFairShare() {
+			return remainingBandwidth / unallocatedFlows;
+		}
+	}
+
+	/**
+	 * A transfer in progress over all the links of its path.
+	 */
+	protected static class Flow implements Comparable<Flow>, Serializable {
+		private static final long serialVersionUID = 1L;
+		protected final TransferProgress transfer;
+		protected final List<LinkFlows> links = new ArrayList<>();
+		protected final double start;
+		protected final long order;
+		protected double remainingSize;
+		protected double rate = 0;
+		protected double lastUpdate;
+		protected double finish;
+		protected long allocation;
+		protected boolean allocated;
+
+		protected Flow(TransferProgress transfer, double start, long order) {
+			this.transfer = transfer;
+			this.start = start;
+			this.order = order;
+			this.remainingSize = transfer.getRemainingFileSize();
+			this.lastUpdate = start;
+		}
+
+		@Override
+		public int compareTo(Flow other) {
+			int result = Double.compare(finish, other.finish);
+			return result != 0 ? result : Long.compare(order, other.order);
+		}
+	}
+
+	/**
+	 * The fair share of a link when it was added to the progressive filling queue.
+	 */
+	protected static class Share implements Comparable<Share>, Serializable {
+		private static final long serialVersionUID = 1L;
+		protected final LinkFlows linkFlows;
+		protected final double value;
+		protected final int order;
+
+		protected Share(LinkFlows linkFlows, double value, int order) {
+			this.linkFlows = linkFlows;
+			this.value = value;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(Share other) {
+			int result = Double.compare(value, other.value);
+			return result != 0 ? result : Integer.compare(order, other.order);
+		}
+	}
+}
@@ -20,21 +20,27 @@
  **/
 package com.mechalikh.pureedgesim.network;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationengine.Event;
 import com.mechalikh.pureedgesim.simulationengine.SimEntity;
+import com.mechalikh.pureedgesim.simulationengine.TimingWheel;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
  * Link between two compute nodes in the infrastructure graph
  */
 public class NetworkLink extends SimEntity {
+	private static final long serialVersionUID = 1L;
+
 	public static final int UPDATE_PROGRESS = 1;
+	public static final int TRANSFER_COMPLETED = 2;
 	protected double latency = 0;
 	protected double bandwidth = 0;
 	protected List<TransferProgress> transferProgressList = new ArrayList<>();
@@ -46,6 +52,46 @@ public class NetworkLink extends SimEntity {
 	protected EnergyModelNetworkLink energyModel = EnergyModelNetworkLink.NULL;
 	protected boolean scheduled = false;
 
+	/**
+	 * The subscription to the progress updates when the timing wheel is enabled,
+	 * null when there is no transfer.
+	 *
+	 * @see com.mechalikh.pureedgesim.simulationengine.PureEdgeSim#getTimingWheel()
+	 */
+	protected TimingWheel.Timer progressTimer;
+
+	/**
+	 * The transfers in progress when the fluid model is used, ordered by their
+	 * completion.
+	 *
+	 * @see SimulationParameters#fluidNetworkModel
+	 */
+	protected PriorityQueue<FluidTransfer> fluidTransfers = new PriorityQueue<>();
+
+	/**
+	 * The size (in bits) sent by each transfer in progress since the link was last
+	 * idle. A transfer added when it was at x finishes when it reaches x + its
+	 * size.
+	 */
+	protected double sentSize = 0;
+
+	/**
+	 * The last time {@link #sentSize} has been updated, in seconds.
+	 */
+	protected double lastSentSizeUpdate = 0;
+
+	/**
+	 * The number of transfers added with the fluid model, to order the ones
+	 * finishing at the same time.
+	 */
+	protected long fluidArrivals = 0;
+
+	/**
+	 * The pending completion of the next transfer with the fluid model,
+	 * rescheduled whenever the transfers in progress change.
+	 */
+	protected Event nextCompletionEvent;
+
 	public enum NetworkLinkTypes {
 		WAN, MAN, LAN, IGNORE
 	}
@@ -111,11 +157,99 @@ public class NetworkLink extends SimEntity {
 			// Update the progress of the current transfers and their allocated bandwidth
 			updateTransfersProgress();
 			if (this.transferProgressList.size() != 0)
-				schedule(this, SimulationParameters.networkUpdateInterval, UPDATE_PROGRESS);
-			else
+				scheduleNextUpdate();
+			else {
 				scheduled = false;
+				if (progressTimer != null) {
+					progressTimer.cancel();
+					progressTimer = null;
+				}
+			}
+		} else if (evt.getTag() == TRANSFER_COMPLETED) {
+			fluidTransfersCompleted();
+		}
+
+	}
+
+	/**
+	 * Adds a transfer with the fluid model: the bandwidth is shared fairly between
+	 * the transfers in progress, and the completion of the next one is scheduled
+	 * analytically.
+	 * 
+	 * @param transfer the new transfer
+	 */
+	protected void addFluidTransfer(TransferProgress transfer) {
+		updateSentSize();
+		fluidTransfers.add(new FluidTransfer(transfer, sentSize + transfer.getRemainingFileSize(),
+				getSimulation().clock(), fluidArrivals++));
+		scheduleNextCompletion();
+	}
+
+	/**
+	 * Advances the size sent by each transfer in progress up to the current time.
+	 * Must be called before the transfers change, as it changes the bandwidth
+	 * allocated to each one of them.
+	 */
+	protected void updateSentSize() {
+		double time = getSimulation().clock();
+		if (fluidTransfers.isEmpty())
+			sentSize = 0; // Restart from 0 to keep the precision
+		else
+			sentSize += getBandwidth(fluidTransfers.size()) * (time - lastSentSizeUpdate);
+		lastSentSizeUpdate = time;
+	}
+
+	/**
+	 * Schedules the completion of the transfer that will finish first, given the
+	 * current share of the bandwidth, and cancels the previous one.
+	 */
+	protected void scheduleNextCompletion() {
+		if (nextCompletionEvent != null)
+			cancel(nextCompletionEvent);
+		nextCompletionEvent = null;
+		// The link is fully used while there are transfers
+		usedBandwidth = fluidTransfers.isEmpty() ? 0 : bandwidth;
+		if (fluidTransfers.isEmpty())
+			return;
+		nextCompletionEvent = schedule(this,
+				Math.max(0, fluidTransfers.peek().finish - sentSize) / getBandwidth(fluidTransfers.size()),
+				TRANSFER_COMPLETED);
+	}
+
+	/**
+	 * Finishes the transfers that completed at the current time with the fluid
+	 * model, and schedules the next completion.
+	 */
+	protected void fluidTransfersCompleted() {
+		nextCompletionEvent = null;
+		updateSentSize();
+		// The completion event was scheduled for the first transfer, finish it even if
+		// the floating point arithmetic stopped slightly short of its size
+		sentSize = Math.max(sentSize, fluidTransfers.peek().finish);
+		List<FluidTransfer> completed = new ArrayList<>();
+		while (!fluidTransfers.isEmpty() && fluidTransfers.peek().finish <= sentSize)
+			completed.add(fluidTransfers.poll());
+
+		for (FluidTransfer completedTransfer : completed) {
+			TransferProgress transfer = completedTransfer.transfer;
+			double transferDelay = getSimulation().clock() - completedTransfer.start;
+			if (transferDelay > 0)
+				transfer.setCurrentBandwidth(transfer.getRemainingFileSize() / transferDelay);
+			transfer.setRemainingFileSize(0);
+			addNetworkTime(transfer, transferDelay);
+			transferFinished(transfer);
 		}
+		// The share of each remaining transfer has changed
+		scheduleNextCompletion();
+	}
 
+	protected void scheduleNextUpdate() {
+		final TimingWheel timingWheel = getSimulation().getTimingWheel();
+		if (timingWheel == null)
+			schedule(this, SimulationParameters.networkUpdateInterval, UPDATE_PROGRESS);
+		else if (progressTimer == null)
+			progressTimer = timingWheel.subscribe(this, UPDATE_PROGRESS, SimulationParameters.networkUpdateInterval,
+					SimulationParameters.networkUpdateInterval);
 	}
 
 	protected void updateTransfersProgress() {
@@ -147,10 +281,29 @@ public class NetworkLink extends SimEntity {
 
 		double transferDelay = (oldRemainingSize - transfer.getRemainingFileSize()) / transfer.getCurrentBandwidth();
 
+		addNetworkTime(transfer, transferDelay);
+
+		if (transfer.getRemainingFileSize() <= 0) { // Transfer finished
+			transfer.setRemainingFileSize(0); // if < 0 set it to 0
+			transferFinished(transfer);
+		}
+	}
+
+	protected void addNetworkTime(TransferProgress transfer, double transferDelay) {
 		// Set the task network delay to decide whether it has failed due to latency or
 		// not.
 		transfer.getTask().addActualNetworkTime(transferDelay);
+		addNetworkUsage(transfer, transferDelay);
+	}
 
+	/**
+	 * Adds the time during which the transfer used this link to its network usage,
+	 * according to the type of the link.
+	 * 
+	 * @param transfer      the transfer
+	 * @param transferDelay the time spent on this link, in seconds
+	 */
+	protected void addNetworkUsage(TransferProgress transfer, double transferDelay) {
 		// Update network usage delay
 		if (type == NetworkLinkTypes.LAN)
 			transfer.setLanNetworkUsage(transfer.getLanNetworkUsage() + transferDelay);
@@ -162,11 +315,6 @@ public class NetworkLink extends SimEntity {
 		// Update WAN network usage delay
 		else if (type == NetworkLinkTypes.WAN)
 			transfer.setWanNetworkUsage(transfer.getWanNetworkUsage() + transferDelay);
-
-		if (transfer.getRemainingFileSize() <= 0) { // Transfer finished
-			transfer.setRemainingFileSize(0); // if < 0 set it to 0
-			transferFinished(transfer);
-		}
 	}
 
 	protected void transferFinished(TransferProgress transfer) {
@@ -210,6 +358,10 @@ public class NetworkLink extends SimEntity {
 		// Used by the energy model to get the total energy consumed by this network
 		// link
 		totalTrasferredData += transfer.getFileSize();
+		if (SimulationParameters.fluidNetworkModel) {
+			addFluidTransfer(transfer);
+			return;
+		}
 		transferProgressList.add(transfer);
 
 		if (!scheduled) {
@@ -230,6 +382,33 @@ public class NetworkLink extends SimEntity {
 		return totalTrasferredData;
 	}
 
+	/**
+	 * A transfer in progress with the fluid model, with the size sent by each
+	 * transfer at which it finishes.
+	 *
+	 * @see NetworkLink#sentSize
+	 */
+	protected static class FluidTransfer implements Comparable<FluidTransfer>, Serializable {
+		private static final long serialVersionUID = 1L;
+		protected final TransferProgress transfer;
+		protected final double finish;
+		protected final double start;
+		protected final long order;
+
+		protected FluidTransfer(TransferProgress transfer, double finish, double start, long order) {
+			this.transfer = transfer;
+			this.finish = finish;
+			this.start = start;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(FluidTransfer other) {
+			int result = Double.compare(finish, other.finish);
+			return result != 0 ? result : Long.compare(order, other.order);
+		}
+	}
+
 	/**
 	 * Defines the logic to be performed by the network link when the simulation
 	 * ends.
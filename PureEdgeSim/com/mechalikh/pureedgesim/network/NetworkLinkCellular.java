@@ -28,6 +28,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * A 4G LTE network link.
  */
 public abstract class NetworkLinkCellular extends NetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	protected NetworkLinkCellular(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
@@ -29,6 +29,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * A 4G LTE network link.
  */
 public class NetworkLinkCellularDown extends NetworkLinkCellular {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkCellularDown(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
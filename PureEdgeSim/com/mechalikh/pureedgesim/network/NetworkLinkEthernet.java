@@ -29,6 +29,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * An Ethernet network link.
  */
 public class NetworkLinkEthernet extends NetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkEthernet(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
@@ -29,6 +29,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * A 4G LTE network link.
  */
 public class NetworkLinkMan extends NetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkMan(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
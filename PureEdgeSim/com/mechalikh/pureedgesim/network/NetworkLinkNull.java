@@ -4,6 +4,7 @@ import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink; 
 
 public class NetworkLinkNull extends NetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	public double getLatency() {
 		return 0;
@@ -32,4 +33,13 @@ public class NetworkLinkNull extends NetworkLink {
 	public double getTotalTransferredData() {
 		return 0;
 	}
+
+	/**
+	 * Keeps a single instance when a simulation is loaded from a checkpoint.
+	 * 
+	 * @return the {@link NetworkLink#NULL} instance
+	 */
+	private Object readResolve() {
+		return NetworkLink.NULL;
+	}
 }
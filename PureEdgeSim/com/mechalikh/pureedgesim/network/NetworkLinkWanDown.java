@@ -29,6 +29,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * A WAN network link.
  */
 public class NetworkLinkWanDown extends NetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkWanDown(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
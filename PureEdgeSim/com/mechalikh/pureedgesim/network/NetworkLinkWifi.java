@@ -29,6 +29,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * A WiFi network link.
  */
 public abstract class NetworkLinkWifi extends NetworkLink {
+	private static final long serialVersionUID = 1L;
  
 	protected NetworkLinkWifi(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
         super(src, dst, simulationManager, type);
@@ -29,6 +29,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * A WiFi network link.
  */
 public class NetworkLinkWifiDeviceToDevice extends NetworkLinkWifi {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkWifiDeviceToDevice(ComputingNode src, ComputingNode dst, SimulationManager simulationManager,
 			NetworkLinkTypes type) {
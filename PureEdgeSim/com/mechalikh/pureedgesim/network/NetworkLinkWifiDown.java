@@ -29,6 +29,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * A WiFi network link.
  */
 public class NetworkLinkWifiDown extends NetworkLinkWifi {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkWifiDown(ComputingNode src, ComputingNode dst, SimulationManager simulationManager,
 			NetworkLinkTypes type) {
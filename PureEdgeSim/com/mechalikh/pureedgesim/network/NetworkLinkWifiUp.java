@@ -29,6 +29,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * A WiFi network link.
  */
 public class NetworkLinkWifiUp extends NetworkLinkWifi {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkWifiUp(ComputingNode src, ComputingNode dst, SimulationManager simulationManager,
 			NetworkLinkTypes type) {
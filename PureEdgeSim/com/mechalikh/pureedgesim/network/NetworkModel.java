@@ -33,6 +33,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 5.0
  */
 public abstract class NetworkModel extends SimEntity {
+	private static final long serialVersionUID = 1L;
+
 	public static final int SEND_REQUEST_FROM_ORCH_TO_DESTINATION = 1;
 	protected static final int TRANSFER_FINISHED = 2;
 	public static final int DOWNLOAD_CONTAINER = 3;
@@ -0,0 +1,585 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments 
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *     
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.network;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+import org.jgrapht.graph.GraphWalk;
+
+import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
+
+/**
+ * The shortest paths from every node of the infrastructure graph to a set of
+ * destinations, usually the edge data centers and the cloud.
+ * <p>
+ * The nodes are given dense indexes, and one single-source search is run from
+ * each destination on the reversed graph, in parallel on the common fork-join
+ * pool. It gives, for every node, its delay to the destination and the first
+ * link of the shortest path towards it. These are stored in primitive arrays,
+ * so the delay between two nodes is read in constant time, and a path is
+ * rebuilt by following the next links, in as many steps as it has hops.
+ * <p>
+ * When a link is added or removed, only the nodes whose shortest paths change
+ * are updated: those that get closer through the new link, or those whose path
+ * went through the removed one.
+ *
+ * @see InfrastructureGraph#savePathsToMap(List)
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class RoutingTable implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	protected final Graph<ComputingNode, NetworkLink> graph;
+
+	/**
+	 * The nodes of the graph, by index.
+	 */
+	protected final ComputingNode[] nodes;
+	protected final Map<ComputingNode, Integer> nodeIndexes = new IdentityHashMap<>();
+
+	/**
+	 * The links of the graph, by index, with the indexes of their ends and their
+	 * weight. The links that have been removed are null, until their index is
+	 * given to a new link.
+	 */
+	protected NetworkLink[] links;
+	protected int[] linkSources;
+	protected int[] linkDestinations;
+	protected double[] linkWeights;
+	protected int linksCount = 0;
+	protected final Map<NetworkLink, Integer> linkIndexes = new IdentityHashMap<>();
+
+	/**
+	 * The indexes of the removed links, reused by the next links added. The arrays
+	 * are compacted when more than half of their entries are free, so their size
+	 * stays proportional to the number of links in the graph.
+	 */
+	protected int[] freeIndexes = new int[0];
+	protected int freeIndexesCount = 0;
+
+	/**
+	 * The indexes of the links entering each node: those of node i are the first
+	 * incomingLinksCount[i] entries of incomingLinks[i]. The same goes for the
+	 * links leaving each node. A link is added at the end of the links of its
+	 * ends, and removed by moving the last one in its place, so a link change does
+	 * not go through the other nodes.
+	 */
+	protected final int[][] incomingLinks;
+	protected final int[] incomingLinksCount;
+	protected final int[][] outgoingLinks;
+	protected final int[] outgoingLinksCount;
+
+	/**
+	 * The position of each link among the incoming links of its destination, and
+	 * among the outgoing links of its source, by link index.
+	 */
+	protected int[] incomingPositions;
+	protected int[] outgoingPositions;
+
+	/**
+	 * The destinations, and the index of each one of them among the destinations.
+	 */
+	protected final List<ComputingNode> destinations = new ArrayList<>();
+	protected final Map<ComputingNode, Integer> destinationIndexes = new IdentityHashMap<>();
+
+	/**
+	 * The delay from each node to each destination, by destination index then node
+	 * index. Positive infinity when there is no path.
+	 */
+	protected double[][] delays;
+
+	/**
+	 * The index of the first link of the shortest path from each node to each
+	 * destination, by destination index then node index. -1 when there is no path,
+	 * or for the destination itself.
+	 */
+	protected int[][] nextLinks;
+
+	/**
+	 * The heap and the affected nodes used to update the shortest paths, reused
+	 * from one link change to the next.
+	 * 
+	 * @see #addLink(NetworkLink)
+	 * @see #removeLink(NetworkLink)
+	 */
+	protected transient NodeHeap heap;
+	protected transient boolean[] affected;
+	protected transient int[] affectedNodes;
+
+	/**
+	 * Builds the routing table of the given graph towards the given destinations.
+	 * 
+	 * @param graph        the infrastructure graph
+	 * @param destinations the nodes to which the paths are computed
+	 */
+	public RoutingTable(Graph<ComputingNode, NetworkLink> graph, List<ComputingNode> destinations) {
+		this.graph = graph;
+		nodes = graph.vertexSet().toArray(new ComputingNode[0]);
+		for (int i = 0; i < nodes.length; i++)
+			nodeIndexes.put(nodes[i], i);
+
+		incomingLinks = new int[nodes.length][];
+		incomingLinksCount = new int[nodes.length];
+		outgoingLinks = new int[nodes.length][];
+		outgoingLinksCount = new int[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			incomingLinks[i] = new int[graph.inDegreeOf(nodes[i])];
+			outgoingLinks[i] = new int[graph.outDegreeOf(nodes[i])];
+		}
+
+		int capacity = graph.edgeSet().size();
+		links = new NetworkLink[capacity];
+		linkSources = new int[capacity];
+		linkDestinations = new int[capacity];
+		linkWeights = new double[capacity];
+		incomingPositions = new int[capacity];
+		outgoingPositions = new int[capacity];
+		for (NetworkLink link : graph.edgeSet())
+			putLink(link);
+
+		for (ComputingNode destination : destinations)
+			if (nodeIndexes.containsKey(destination) && !destinationIndexes.containsKey(destination)) {
+				destinationIndexes.put(destination, this.destinations.size());
+				this.destinations.add(destination);
+			}
+		delays = new double[this.destinations.size()][];
+		nextLinks = new int[this.destinations.size()][];
+		IntStream.range(0, this.destinations.size()).parallel()
+				.forEach(i -> search(i, nodeIndexes.get(this.destinations.get(i))));
+	}
+
+	/**
+	 * Gives an index to the given link, whose ends must be in this table.
+	 * 
+	 * @param link the link
+	 * @return its index
+	 */
+	protected int putLink(NetworkLink link) {
+		int index = freeIndexesCount > 0 ? freeIndexes[--freeIndexesCount] : addIndex();
+		links[index] = link;
+		linkSources[index] = nodeIndexes.get(graph.getEdgeSource(link));
+		linkDestinations[index] = nodeIndexes.get(graph.getEdgeTarget(link));
+		linkWeights[index] = graph.getEdgeWeight(link);
+		linkIndexes.put(link, index);
+
+		int destination = linkDestinations[index];
+		incomingPositions[index] = incomingLinksCount[destination];
+		incomingLinks[destination] = append(incomingLinks[destination], incomingLinksCount[destination]++, index);
+		int source = linkSources[index];
+		outgoingPositions[index] = outgoingLinksCount[source];
+		outgoingLinks[source] = append(outgoingLinks[source], outgoingLinksCount[source]++, index);
+		return index;
+	}
+
+	protected static int[] append(int[] array, int position, int value) {
+		if (position == array.length)
+			array = Arrays.copyOf(array, Math.max(4, 2 * array.length));
+		array[position] = value;
+		return array;
+	}
+
+	/**
+	 * Removes the given link from the links of its ends, by moving their last link
+	 * in its place.
+	 * 
+	 * @param index the index of the link
+	 */
+	protected void detachLink(int index) {
+		int destination = linkDestinations[index];
+		int last = incomingLinks[destination][--incomingLinksCount[destination]];
+		incomingLinks[destination][incomingPositions[index]] = last;
+		incomingPositions[last] = incomingPositions[index];
+
+		int source = linkSources[index];
+		last = outgoingLinks[source][--outgoingLinksCount[source]];
+		outgoingLinks[source][outgoingPositions[index]] = last;
+		outgoingPositions[last] = outgoingPositions[index];
+	}
+
+	protected int addIndex() {
+		if (linksCount == links.length) {
+			int capacity = Math.max(16, 2 * links.length);
+			links = Arrays.copyOf(links, capacity);
+			linkSources = Arrays.copyOf(linkSources, capacity);
+			linkDestinations = Arrays.copyOf(linkDestinations, capacity);
+			linkWeights = Arrays.copyOf(linkWeights, capacity);
+			incomingPositions = Arrays.copyOf(incomingPositions, capacity);
+			outgoingPositions = Arrays.copyOf(outgoingPositions, capacity);
+		}
+		return linksCount++;
+	}
+
+	/**
+	 * Moves the links to the first indexes, and updates the links of the nodes and
+	 * the next links accordingly.
+	 */
+	protected void compactLinks() {
+		int[] newIndexes = new int[linksCount];
+		int count = 0;
+		for (int i = 0; i < linksCount; i++) {
+			if (links[i] == null) {
+				newIndexes[i] = -1;
+				continue;
+			}
+			newIndexes[i] = count;
+			links[count] = links[i];
+			linkSources[count] = linkSources[i];
+			linkDestinations[count] = linkDestinations[i];
+			linkWeights[count] = linkWeights[i];
+			incomingPositions[count] = incomingPositions[i];
+			outgoingPositions[count] = outgoingPositions[i];
+			incomingLinks[linkDestinations[count]][incomingPositions[count]] = count;
+			outgoingLinks[linkSources[count]][outgoingPositions[count]] = count;
+			linkIndexes.put(links[count], count);
+			count++;
+		}
+		Arrays.fill(links, count, linksCount, null);
+		linksCount = count;
+		freeIndexesCount = 0;
+		for (int[] nextLink : nextLinks)
+			for (int i = 0; i < nextLink.length; i++)
+				if (nextLink[i] != -1)
+					nextLink[i] = newIndexes[nextLink[i]];
+	}
+
+	/**
+	 * Runs Dijkstra's algorithm from the given destination on the reversed graph.
+	 * 
+	 * @param destinationIndex the index of the destination among the destinations
+	 * @param destination      the index of the destination node
+	 */
+	protected void search(int destinationIndex, int destination) {
+		double[] delay = new double[nodes.length];
+		int[] nextLink = new int[nodes.length];
+		Arrays.fill(delay, Double.POSITIVE_INFINITY);
+		Arrays.fill(nextLink, -1);
+		NodeHeap heap = new NodeHeap(nodes.length);
+		heap.delays = delay;
+		delay[destination] = 0;
+		heap.update(destination);
+		propagate(heap, delay, nextLink);
+		delays[destinationIndex] = delay;
+		nextLinks[destinationIndex] = nextLink;
+	}
+
+	/**
+	 * Settles the nodes in the heap by increasing delay, and lowers the delay of
+	 * the nodes that reach them with a shorter path.
+	 * 
+	 * @param heap     the nodes whose delay has decreased
+	 * @param delay    the delay of each node to the destination
+	 * @param nextLink the first link of the path of each node to the destination
+	 */
+	protected void propagate(NodeHeap heap, double[] delay, int[] nextLink) {
+		while (!heap.isEmpty()) {
+			int node = heap.poll();
+			int[] incoming = incomingLinks[node];
+			for (int i = 0; i < incomingLinksCount[node]; i++) {
+				int link = incoming[i];
+				int source = linkSources[link];
+				double newDelay = delay[node] + linkWeights[link];
+				if (newDelay < delay[source]) {
+					delay[source] = newDelay;
+					nextLink[source] = link;
+					heap.update(source);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Updates the shortest paths after a link has been added to the graph.
+	 * 
+	 * @param link the new link
+	 * @return false if one of its ends is not in this table, in which case the
+	 *         table must be built again
+	 */
+	public boolean addLink(NetworkLink link) {
+		if (!nodeIndexes.containsKey(graph.getEdgeSource(link)) || !nodeIndexes.containsKey(graph.getEdgeTarget(link)))
+			return false;
+		int index = putLink(link);
+		int source = linkSources[index];
+		double weight = linkWeights[index];
+		NodeHeap heap = getHeap();
+		for (int i = 0; i < destinations.size(); i++) {
+			double[] delay = delays[i];
+			// Only the nodes that get closer through the new link change
+			double newDelay = delay[linkDestinations[index]] + weight;
+			if (newDelay < delay[source]) {
+				delay[source] = newDelay;
+				nextLinks[i][source] = index;
+				heap.delays = delay;
+				heap.update(source);
+				propagate(heap, delay, nextLinks[i]);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Updates the shortest paths after a link has been removed from the graph.
+	 * 
+	 * @param link the removed link
+	 */
+	public void removeLink(NetworkLink link) {
+		Integer index = linkIndexes.remove(link);
+		if (index == null)
+			return;
+		links[index] = null;
+		detachLink(index);
+		int source = linkSources[index];
+		NodeHeap heap = getHeap();
+		for (int i = 0; i < destinations.size(); i++) {
+			// Only the nodes whose path went through the removed link change
+			int[] nextLink = nextLinks[i];
+			if (nextLink[source] != index)
+				continue;
+			double[] delay = delays[i];
+			affected[source] = true;
+			affectedNodes[0] = source;
+			int affectedCount = 1;
+			for (int j = 0; j < affectedCount; j++) {
+				int node = affectedNodes[j];
+				int[] incoming = incomingLinks[node];
+				for (int k = 0; k < incomingLinksCount[node]; k++) {
+					int previous = linkSources[incoming[k]];
+					if (!affected[previous] && nextLink[previous] == incoming[k]) {
+						affected[previous] = true;
+						affectedNodes[affectedCount++] = previous;
+					}
+				}
+			}
+			for (int j = 0; j < affectedCount; j++) {
+				delay[affectedNodes[j]] = Double.POSITIVE_INFINITY;
+				nextLink[affectedNodes[j]] = -1;
+			}
+			// Reconnect them through the nodes whose paths have not changed
+			heap.delays = delay;
+			for (int j = 0; j < affectedCount; j++) {
+				int node = affectedNodes[j];
+				int[] outgoing = outgoingLinks[node];
+				for (int k = 0; k < outgoingLinksCount[node]; k++) {
+					int next = outgoing[k];
+					double newDelay = delay[linkDestinations[next]] + linkWeights[next];
+					if (!affected[linkDestinations[next]] && newDelay < delay[node]) {
+						delay[node] = newDelay;
+						nextLink[node] = next;
+					}
+				}
+				if (delay[node] != Double.POSITIVE_INFINITY)
+					heap.update(node);
+			}
+			propagate(heap, delay, nextLink);
+			for (int j = 0; j < affectedCount; j++)
+				affected[affectedNodes[j]] = false;
+		}
+
+		// No next link refers to the removed one anymore, so its index can be reused
+		if (freeIndexesCount == freeIndexes.length)
+			freeIndexes = Arrays.copyOf(freeIndexes, Math.max(16, 2 * freeIndexes.length));
+		freeIndexes[freeIndexesCount++] = index;
+		if (freeIndexesCount > linksCount / 2)
+			compactLinks();
+	}
+
+	/**
+	 * Returns the heap used to update the shortest paths after a link change,
+	 * along with the affected nodes, creating them the first time.
+	 * 
+	 * @return the heap, which is empty
+	 */
+	protected NodeHeap getHeap() {
+		if (heap == null) {
+			heap = new NodeHeap(nodes.length);
+			affected = new boolean[nodes.length];
+			affectedNodes = new int[nodes.length];
+		}
+		return heap;
+	}
+
+	/**
+	 * Adds a destination to this table, if it was not already one of them.
+	 * 
+	 * @param destination the new destination, which must be in this table
+	 * @see #getIndex(ComputingNode)
+	 */
+	public void addDestination(ComputingNode destination) {
+		if (destinationIndexes.containsKey(destination))
+			return;
+		int destinationIndex = destinations.size();
+		destinationIndexes.put(destination, destinationIndex);
+		destinations.add(destination);
+		delays = Arrays.copyOf(delays, destinationIndex + 1);
+		nextLinks = Arrays.copyOf(nextLinks, destinationIndex + 1);
+		search(destinationIndex, nodeIndexes.get(destination));
+	}
+
+	/**
+	 * Returns the index of the given node in this table.
+	 * 
+	 * @param node the node
+	 * @return its index, or -1 if it was not in the graph when the table was built
+	 */
+	public int getIndex(ComputingNode node) {
+		Integer index = nodeIndexes.get(node);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Returns the number of nodes in this table.
+	 * 
+	 * @return the number of nodes
+	 */
+	public int getNodesCount() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns whether the paths from the given node to the other one are in this
+	 * table.
+	 * 
+	 * @param from the source node
+	 * @param to   the destination node
+	 * @return true if the delay and the path between them can be read from this
+	 *         table
+	 */
+	public boolean contains(ComputingNode from, ComputingNode to) {
+		return destinationIndexes.containsKey(to) && nodeIndexes.containsKey(from);
+	}
+
+	/**
+	 * Returns the delay of the shortest path between the given nodes.
+	 * 
+	 * @param from the source node
+	 * @param to   the destination node, which must be one of the destinations
+	 * @return the delay, or positive infinity if there is no path
+	 * @see #contains(ComputingNode, ComputingNode)
+	 */
+	public double getDelay(ComputingNode from, ComputingNode to) {
+		return delays[destinationIndexes.get(to)][nodeIndexes.get(from)];
+	}
+
+	/**
+	 * Returns the shortest path between the given nodes.
+	 * 
+	 * @param from the source node
+	 * @param to   the destination node, which must be one of the destinations
+	 * @return the path, or null if there is none
+	 * @see #contains(ComputingNode, ComputingNode)
+	 */
+	public GraphPath<ComputingNode, NetworkLink> getPath(ComputingNode from, ComputingNode to) {
+		int destinationIndex = destinationIndexes.get(to);
+		int node = nodeIndexes.get(from);
+		double delay = delays[destinationIndex][node];
+		if (delay == Double.POSITIVE_INFINITY)
+			return null;
+		List<ComputingNode> vertexList = new ArrayList<>(4);
+		List<NetworkLink> edgeList = new ArrayList<>(3);
+		vertexList.add(from);
+		int[] nextLink = nextLinks[destinationIndex];
+		while (nextLink[node] != -1) {
+			int link = nextLink[node];
+			edgeList.add(links[link]);
+			node = linkDestinations[link];
+			vertexList.add(nodes[node]);
+		}
+		return new GraphWalk<>(graph, from, to, vertexList, edgeList, delay);
+	}
+
+	/**
+	 * A binary min-heap of node indexes, ordered by their delay, that supports
+	 * decreasing the delay of a node already in it. It is empty again once all the
+	 * nodes have been polled, and can then be used with other delays.
+	 */
+	protected static class NodeHeap {
+		protected final int[] heap;
+		protected final int[] positions;
+		protected double[] delays;
+		protected int size = 0;
+
+		protected NodeHeap(int capacity) {
+			heap = new int[capacity];
+			positions = new int[capacity];
+			Arrays.fill(positions, -1);
+		}
+
+		protected boolean isEmpty() {
+			return size == 0;
+		}
+
+		/**
+		 * Adds the node, or moves it up after its delay has decreased.
+		 * 
+		 * @param node the node index
+		 */
+		protected void update(int node) {
+			int position = positions[node];
+			if (position == -1) {
+				position = size++;
+				heap[position] = node;
+			}
+			while (position > 0) {
+				int parent = (position - 1) >>> 1;
+				if (delays[heap[parent]] <= delays[node])
+					break;
+				move(heap[parent], position);
+				position = parent;
+			}
+			move(node, position);
+		}
+
+		protected int poll() {
+			int first = heap[0];
+			positions[first] = -1;
+			int last = heap[--size];
+			if (size > 0) {
+				int position = 0;
+				while (true) {
+					int child = 2 * position + 1;
+					if (child >= size)
+						break;
+					if (child + 1 < size && delays[heap[child + 1]] < delays[heap[child]])
+						child++;
+					if (delays[last] <= delays[heap[child]])
+						break;
+					move(heap[child], position);
+					position = child;
+				}
+				move(last, position);
+			}
+			return first;
+		}
+
+		protected void move(int node, int position) {
+			heap[position] = node;
+			positions[node] = position;
+		}
+	}
+}
@@ -20,12 +20,15 @@
  **/
 package com.mechalikh.pureedgesim.network;
 
+import java.io.Serializable;
 import java.util.List;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
-public class TransferProgress {
+public class TransferProgress implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	public enum Type {
 		TASK, CONTAINER, RESULTS_TO_DEV, RESULTS_TO_ORCH, REQUEST
 	}
@@ -85,8 +85,15 @@ public class ApplicationFileParser extends XmlFileParser {
 				String type = appElement.getElementsByTagName("type").item(0).getTextContent();
 
 				// Save applications parameters.
-				SimulationParameters.applicationList.add(new Application(type, rate, usagePercentage, latency,
-						containerSize, requestSize, resultsSize, taskLength));
+				Application app = new Application(type, rate, usagePercentage, latency, containerSize, requestSize,
+						resultsSize, taskLength);
+
+				// The priority of its tasks (optional).
+				if (appElement.getElementsByTagName("priority").getLength() > 0)
+					app.setPriority((int) assertDouble(appElement, "priority", value -> (value == Math.floor(value)),
+							"an integer. Check the \"" + appElement.getAttribute("name") + application + file));
+
+				SimulationParameters.applicationList.add(app);
 			}
 
 		} catch (Exception e) {
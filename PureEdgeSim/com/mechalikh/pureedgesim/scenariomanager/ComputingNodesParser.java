@@ -2,12 +2,15 @@ package com.mechalikh.pureedgesim.scenariomanager;
 
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.Arrays;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
+import com.mechalikh.pureedgesim.datacentersmanager.TaskQueue;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters.TYPES;
 import com.mechalikh.pureedgesim.simulationmanager.SimLog;
 
@@ -47,4 +50,24 @@ public abstract class ComputingNodesParser extends XmlFileParser {
 
 	protected abstract boolean typeSpecificChecking(Document xmlDoc);
 
+	/**
+	 * Checks the scheduling policy of the given computing node, if it is defined.
+	 * 
+	 * @param element the computing node element
+	 * 
+	 * @see TaskQueue.Policy
+	 */
+	protected void checkScheduler(Element element) {
+		if (element.getElementsByTagName("scheduler").getLength() == 0)
+			return;
+		String scheduler = element.getElementsByTagName("scheduler").item(0).getTextContent().trim();
+		try {
+			TaskQueue.Policy.valueOf(scheduler);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(getClass().getSimpleName() + " - Error, unknown scheduler \""
+					+ scheduler + "\", it must be one of " + Arrays.toString(TaskQueue.Policy.values())
+					+ ". Check the file " + file, e);
+		}
+	}
+
 }
@@ -1,5 +1,6 @@
 package com.mechalikh.pureedgesim.scenariomanager;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.w3c.dom.Document;
@@ -7,6 +8,7 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import com.mechalikh.pureedgesim.datacentersmanager.HostPlacement;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters.TYPES;
 
 public class DatacentersParser extends ComputingNodesParser {
@@ -21,12 +23,14 @@ public class DatacentersParser extends ComputingNodesParser {
 		for (int i = 0; i < datacenterList.getLength(); i++) {
 			Node datacenterNode = datacenterList.item(i);
 			Element datacenterElement = (Element) datacenterNode;
-			for (String element : List.of("isOrchestrator", "idleConsumption", "maxConsumption", "cores", "mips", "ram",
-					"storage"))
+			for (String element : List.of("isOrchestrator", "idleConsumption", "maxConsumption"))
 				isElementPresent(datacenterElement, element);
+			checkScheduler(datacenterElement);
 
-			for (String element : List.of("cores", "mips", "ram", "storage"))
-				assertDouble(datacenterElement, element, value -> (value > 0), "> 0. Check the file: " + file );
+			if (datacenterElement.getElementsByTagName("hosts").getLength() > 0)
+				checkHosts((Element) datacenterElement.getElementsByTagName("hosts").item(0));
+			else
+				checkResources(datacenterElement);
 
 			assertDouble(datacenterElement, "idleConsumption", value -> (value >= 0),
 					">= 0. Check the file " + file);
@@ -50,4 +54,41 @@ public class DatacentersParser extends ComputingNodesParser {
 		return true;
 	}
 
+	protected void checkResources(Element element) {
+		for (String resource : List.of("cores", "mips", "ram", "storage"))
+			isElementPresent(element, resource);
+		for (String resource : List.of("cores", "mips", "ram", "storage"))
+			assertDouble(element, resource, value -> (value > 0), "> 0. Check the file: " + file);
+	}
+
+	/**
+	 * Checks the hosts of a data center made of several hosts, and their placement
+	 * policy.
+	 * 
+	 * @param hostsElement the "hosts" element of the data center
+	 * 
+	 * @see HostPlacement.Policy
+	 */
+	protected void checkHosts(Element hostsElement) {
+		String placement = hostsElement.getAttribute("placement").trim();
+		if (!placement.isEmpty() && Arrays.stream(HostPlacement.Policy.values())
+				.noneMatch(policy -> policy.name().equals(placement)))
+			throw new IllegalArgumentException(getClass().getSimpleName() + " - Error, unknown placement \""
+					+ placement + "\", it must be one of " + Arrays.toString(HostPlacement.Policy.values())
+					+ ". Check the file " + file);
+
+		NodeList hostList = hostsElement.getElementsByTagName("host");
+		if (hostList.getLength() == 0)
+			throw new IllegalArgumentException(
+					getClass().getSimpleName() + " - Error, the \"hosts\" element is empty. Check the file " + file);
+		for (int i = 0; i < hostList.getLength(); i++) {
+			Element hostElement = (Element) hostList.item(i);
+			checkResources(hostElement);
+			String count = hostElement.getAttribute("count").trim();
+			if (!count.isEmpty() && Integer.parseInt(count) <= 0)
+				throw new IllegalArgumentException(getClass().getSimpleName()
+						+ " - Error, the \"count\" of the hosts must be > 0. Check the file " + file);
+		}
+	}
+
 }
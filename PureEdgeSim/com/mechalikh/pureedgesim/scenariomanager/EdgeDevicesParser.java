@@ -38,6 +38,7 @@ public class EdgeDevicesParser extends ComputingNodesParser {
 				"maxPauseDuration", "minMobilityDuration", "maxMobilityDuration", "batteryCapacity", "generateTasks",
 				"isOrchestrator", "idleConsumption", "maxConsumption", "cores", "mips", "ram", "storage"))
 			isElementPresent(deviceElement, element);
+		checkScheduler(deviceElement);
 
 		for (String element : List.of("speed", "minPauseDuration", "minMobilityDuration", "batteryCapacity",
 				"idleConsumption", "cores", "mips", "ram", "storage"))
@@ -6,6 +6,7 @@ import java.io.InputStream;
 import java.util.Properties;
 import java.util.function.Predicate;
 
+import com.mechalikh.pureedgesim.simulationengine.TraceRecorder;
 import com.mechalikh.pureedgesim.simulationmanager.SimLog;
 
 public class ParametersParser extends FileParserAbstract {
@@ -34,6 +35,33 @@ public class ParametersParser extends FileParserAbstract {
 			
 			SimulationParameters.batchSize = (int) assertDouble(prop, "batch_size", value -> (value > 0), "> 0");
 			
+			SimulationParameters.eventsQueue = assertOption(prop, "events_queue", "HEAP", "HEAP", "CALENDAR", "PRIMITIVE",
+					"TREE");
+			SimulationParameters.pooledEvents = Boolean.parseBoolean(prop.getProperty("pooled_events", "false").trim());
+			SimulationParameters.engineMode = assertOption(prop, "engine_mode", "SEQUENTIAL", "SEQUENTIAL", "CONSERVATIVE",
+					"BATCH");
+			SimulationParameters.engineThreads = (int) assertDouble(prop, "engine_threads", "0", value -> (value >= 0),
+					">= 0");
+			SimulationParameters.engineProfiling = Boolean
+					.parseBoolean(prop.getProperty("engine_profiling", "false").trim());
+			// In seconds
+			SimulationParameters.checkpointInterval = assertDouble(prop, "checkpoint_interval", "0",
+					value -> (value >= 0), ">= 0");
+			SimulationParameters.timingWheel = Boolean.parseBoolean(prop.getProperty("timing_wheel", "false").trim());
+			String randomSeed = prop.getProperty("random_seed", "").trim();
+			SimulationParameters.randomSeed = randomSeed.isEmpty() ? null : Long.parseLong(randomSeed);
+			SimulationParameters.traceEvents = Boolean.parseBoolean(prop.getProperty("trace_events", "false").trim());
+			SimulationParameters.traceCapacity = (int) assertDouble(prop, "trace_capacity", "1000000",
+					value -> (value >= 1 && value <= TraceRecorder.MAX_CAPACITY),
+					"between 1 and " + TraceRecorder.MAX_CAPACITY);
+			SimulationParameters.recordInputs = Boolean.parseBoolean(prop.getProperty("record_inputs", "false").trim());
+			SimulationParameters.replayInputs = prop.getProperty("replay_inputs", "").trim();
+			// In seconds
+			SimulationParameters.replaySeekTime = assertDouble(prop, "replay_seek_time", "0", value -> (value >= 0),
+					">= 0");
+			SimulationParameters.cpuScheduling = assertOption(prop, "cpu_scheduling", "SPACE_SHARED", "SPACE_SHARED",
+					"TIME_SHARED");
+
 			SimulationParameters.parallelism_enabled = Boolean.parseBoolean(prop.getProperty("parallel_simulation").trim());
 
 			// In seconds
@@ -94,8 +122,14 @@ public class ParametersParser extends FileParserAbstract {
 			// Seconds
 			SimulationParameters.networkUpdateInterval = assertDouble(prop, "network_update_interval",
 					value -> (value >= 0.001), ">= 0.001");
+			SimulationParameters.fluidNetworkModel = Boolean
+					.parseBoolean(prop.getProperty("fluid_network_model", "false").trim());
+			SimulationParameters.flowNetworkModel = Boolean
+					.parseBoolean(prop.getProperty("flow_network_model", "false").trim());
 			SimulationParameters.useOneSharedWanLink = Boolean
 					.parseBoolean(prop.getProperty("one_shared_wan_network").trim());
+			SimulationParameters.hierarchicalTopology = Boolean
+					.parseBoolean(prop.getProperty("hierarchical_topology", "false").trim());
 
 			// Mbps to bits per second
 			SimulationParameters.wanBandwidthBitsPerSecond = 1000000
@@ -157,8 +191,27 @@ public class ParametersParser extends FileParserAbstract {
 
 	}
 
+	/**
+	 * Reads an optional parameter that can only take one of the given values. The
+	 * default value is used when the parameter is missing, so that older
+	 * configuration files can still be loaded.
+	 */
+	protected String assertOption(Properties prop, String parameter, String defaultValue, String... options) {
+		String value = prop.getProperty(parameter, defaultValue).trim().toUpperCase();
+		for (String option : options)
+			if (option.equals(value))
+				return value;
+		throw new IllegalArgumentException(getClass().getSimpleName() + " - Error, the value of \"" + parameter
+				+ "\" must be one of " + String.join(", ", options) + ". Check the simulation_parameters.xml file!.");
+	}
+
 	protected double assertDouble(Properties prop, String parameter, Predicate<Double> p, String message) {
-		double number = Double.parseDouble(prop.getProperty(parameter).trim());
+		return assertDouble(prop, parameter, null, p, message);
+	}
+
+	protected double assertDouble(Properties prop, String parameter, String defaultValue, Predicate<Double> p,
+			String message) {
+		double number = Double.parseDouble(prop.getProperty(parameter, defaultValue).trim());
 		if (!p.test(number))
 			throw new IllegalArgumentException(getClass().getSimpleName() + " - Error, the value of \"" + parameter
 					+ "\" must be " + message + ". Check the simulation_parameters.xml file!.");
@@ -20,7 +20,11 @@
  **/
 package com.mechalikh.pureedgesim.scenariomanager;
 
-public class Scenario {
+import java.io.Serializable;
+
+public class Scenario implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	protected int devicesCount; // The number of edge devices in this scenario
 	protected int orchArchitecture; // The used architecture/ computing paradigms
 	protected int orchAlgorithm; // The tasks orchestration algorithm that will be used in this scenario
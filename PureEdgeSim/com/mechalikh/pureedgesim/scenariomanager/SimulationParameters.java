@@ -255,6 +255,20 @@ public class SimulationParameters {
 	 */
 	public static boolean useOneSharedWanLink;
 
+	/**
+	 * If true, only the data centers and the routers are in the graph of the
+	 * topology. The edge devices are attached to it as leaves, through their
+	 * links, and their paths go through one of these links, possibly relayed by
+	 * another device, and then through the shortest path between data centers.
+	 * The memory used by the graph and the time needed to compute the paths then
+	 * no longer depend on the number of devices, but a path never goes through
+	 * more than one other device on each side of the data centers, and a path
+	 * between data centers never goes through a device.
+	 * 
+	 * @see com.mechalikh.pureedgesim.network.HierarchicalInfrastructureGraph
+	 */
+	public static boolean hierarchicalTopology = false;
+
 	/**
 	 * The MAN (the links between edge data centers) bandwidth in bits per second.
 	 * 
@@ -472,6 +486,28 @@ public class SimulationParameters {
 	 */
 	public static boolean realisticNetworkModel;
 
+	/**
+	 * If true, the transfers share the bandwidth of each link fairly, and the
+	 * completion of the next one is computed whenever a transfer starts or
+	 * finishes, instead of updating all of them every
+	 * {@link #networkUpdateInterval}. The results then no longer depend on the
+	 * update interval. Overrides {@link #realisticNetworkModel}.
+	 * 
+	 * @see com.mechalikh.pureedgesim.network.NetworkLink#addFluidTransfer(com.mechalikh.pureedgesim.network.TransferProgress)
+	 */
+	public static boolean fluidNetworkModel = false;
+
+	/**
+	 * If true, each transfer is an end-to-end flow that uses all the links of its
+	 * path at the same time, instead of being stored and forwarded hop by hop. The
+	 * flows share the bandwidth with max-min fairness, so the rate of each one is
+	 * set by its most congested link. Overrides {@link #fluidNetworkModel} and
+	 * {@link #realisticNetworkModel}.
+	 * 
+	 * @see com.mechalikh.pureedgesim.network.MaxMinFlowModel
+	 */
+	public static boolean flowNetworkModel = false;
+
 	/**
 	 * If true, the tasks will be sent for another computing node (i.e. the
 	 * orchestrator) in order to make offlaoding decision, before being sent to the
@@ -540,6 +576,147 @@ public class SimulationParameters {
 	 */
 	public static int batchSize;
 
+	/**
+	 * The implementation of the future events queue: "HEAP" for the array-backed
+	 * d-ary heap (default), "CALENDAR" for the calendar queue, "PRIMITIVE" for the
+	 * queue storing the events in primitive arrays, or "TREE" for the
+	 * {@link java.util.TreeSet TreeSet} based queue.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.PureEdgeSim#createEventsQueue()
+	 * @see com.mechalikh.pureedgesim.simulationengine.DaryHeapQueue
+	 * @see com.mechalikh.pureedgesim.simulationengine.CalendarQueue
+	 * @see com.mechalikh.pureedgesim.simulationengine.PrimitiveEventQueue
+	 * @see com.mechalikh.pureedgesim.simulationengine.FutureQueue
+	 */
+	public static String eventsQueue = "HEAP";
+
+	/**
+	 * If true, the simulation engine reuses the events once they have been
+	 * processed, instead of allocating a new one for each scheduled event. In
+	 * this mode, entities that keep a reference to an event after processing it
+	 * must call {@link com.mechalikh.pureedgesim.simulationengine.Event#retain()
+	 * retain()}. With the "PRIMITIVE" {@link #eventsQueue events queue}, only
+	 * the processed events are reused: the scheduled events are handles that the
+	 * queue never gives back, so they are still allocated.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.PureEdgeSim#recycle(com.mechalikh.pureedgesim.simulationengine.Event)
+	 */
+	public static boolean pooledEvents = false;
+
+	/**
+	 * The simulation engine: "SEQUENTIAL" (default) processes all the events on
+	 * one thread, "CONSERVATIVE" processes the events of different partitions in
+	 * parallel when they are within the lookahead window, and "BATCH" processes
+	 * the independent events happening at the same time in parallel. All of them
+	 * give the same results.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.ConservativePureEdgeSim
+	 * @see com.mechalikh.pureedgesim.simulationengine.BatchPureEdgeSim
+	 * @see com.mechalikh.pureedgesim.datacentersmanager.DataCentersManager#assignPartitions()
+	 */
+	public static String engineMode = "SEQUENTIAL";
+
+	/**
+	 * The number of threads used by the parallel engines, 0 to use all the
+	 * available processors.
+	 * 
+	 * @see #engineMode
+	 */
+	public static int engineThreads = 0;
+
+	/**
+	 * If true, the simulation engine collects statistics about the processed
+	 * events, which are saved next to the results at the end of each iteration.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.EngineProfiler
+	 * @see com.mechalikh.pureedgesim.simulationmanager.SimLog#saveEngineStatistics(com.mechalikh.pureedgesim.simulationengine.PureEdgeSim)
+	 */
+	public static boolean engineProfiling = false;
+
+	/**
+	 * The interval between two checkpoints of the simulation, in seconds of
+	 * simulation time, 0 to disable them. The checkpoints are saved next to the
+	 * results, and can be resumed with
+	 * {@link com.mechalikh.pureedgesim.simulationmanager.Simulation#launchSimulation(String)
+	 * launchSimulation(checkpointFile)}.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.Checkpoint
+	 */
+	public static double checkpointInterval = 0;
+
+	/**
+	 * If true, the periodic status updates of the computing nodes and progress
+	 * updates of the network links are driven by a shared timing wheel, which
+	 * keeps a single pending event in the queue instead of one per entity. The
+	 * order of the events happening at the same time may change, and these
+	 * updates are no longer processed in parallel by the parallel engines.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.TimingWheel
+	 */
+	public static boolean timingWheel = false;
+
+	/**
+	 * The master seed of the random numbers, null to use a different seed for
+	 * each simulation. With a seed, the results can be reproduced exactly.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.RandomStreams
+	 */
+	public static Long randomSeed = null;
+
+	/**
+	 * If true, the processed events are recorded in a binary trace file next to
+	 * the results of each iteration.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.TraceRecorder
+	 * @see com.mechalikh.pureedgesim.simulationengine.TraceReader
+	 */
+	public static boolean traceEvents = false;
+
+	/**
+	 * The maximum number of events kept in a trace, the oldest ones are
+	 * overwritten once it is full.
+	 * 
+	 * @see #traceEvents
+	 */
+	public static int traceCapacity = 1000000;
+
+	/**
+	 * If true, the inputs of each iteration (the generated tasks, the paths of
+	 * the mobile devices and the random draws) are recorded next to its results,
+	 * so that they can be replayed.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationmanager.InputRecording
+	 * @see #replayInputs
+	 */
+	public static boolean recordInputs = false;
+
+	/**
+	 * The inputs recording replayed by the simulations instead of generating
+	 * their inputs, empty to generate them.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationmanager.InputRecording
+	 * @see #replaySeekTime
+	 */
+	public static String replayInputs = "";
+
+	/**
+	 * When replaying inputs, the simulation time, in seconds, before which the
+	 * log and the progress are not printed, to reach it faster.
+	 * 
+	 * @see #replayInputs
+	 */
+	public static double replaySeekTime = 0;
+
+	/**
+	 * How the computing nodes execute the tasks: "SPACE_SHARED" (default) to run
+	 * each task on its own core until it finishes, the others waiting in the
+	 * queue, or "TIME_SHARED" to share the cores between all the tasks that fit in
+	 * the RAM (processor sharing).
+	 * 
+	 * @see com.mechalikh.pureedgesim.datacentersmanager.DefaultComputingNode#submitTask(com.mechalikh.pureedgesim.taskgenerator.Task)
+	 */
+	public static String cpuScheduling = "SPACE_SHARED";
+
 	/**
 	 * A private constructor to prevent this class from being instantiated.
 	 * 
@@ -0,0 +1,439 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * A simulation engine that processes the events happening at the same time in
+ * parallel, when they target different {@link IndependentEntity independent
+ * entities}.
+ * <p>
+ * At each instant, the consecutive independent events at the head of the queue
+ * are collected into a batch and grouped by entity. The groups are processed on
+ * a fork-join pool, each one in the order of its events. Events of the same
+ * instant that are not independent are processed sequentially, between the
+ * batches, as in {@link PureEdgeSim}.
+ * <p>
+ * The events scheduled during a batch are recorded, and only inserted in the
+ * queue once the batch is over, in the order in which the sequential engine
+ * would have scheduled them, so that they get the same serials and the results
+ * are identical.
+ *
+ * @see IndependentEntity
+ * @see PureEdgeSim
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#engineMode
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class BatchPureEdgeSim extends PureEdgeSim {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Batches having fewer groups are processed sequentially.
+	 */
+	protected static final int MIN_GROUPS = 2;
+
+	/**
+	 * The number of worker threads.
+	 */
+	protected final int threads;
+
+	protected transient ForkJoinPool pool;
+
+	/**
+	 * Whether a batch is currently being processed by the worker threads.
+	 */
+	protected boolean batchRunning;
+
+	protected transient ThreadLocal<Group> currentGroup = new ThreadLocal<>();
+
+	/**
+	 * The events of the current batch, in (time, serial) order.
+	 */
+	protected final List<Event> batch = new ArrayList<>();
+
+	/**
+	 * The group of each event of the batch.
+	 */
+	protected Group[] batchGroups = new Group[16];
+
+	protected final Map<SimEntity, Group> groupsMap = new IdentityHashMap<>();
+
+	protected final List<Group> groups = new ArrayList<>();
+
+	protected final ArrayDeque<Group> groupsPool = new ArrayDeque<>();
+
+	/** @see #getBatchesCount() */
+	protected long batchesCount;
+
+	/** @see #getParallelEventsCount() */
+	protected long parallelEventsCount;
+
+	/**
+	 * Creates a batch engine.
+	 *
+	 * @param threads the number of worker threads, 0 to use all the available
+	 *                processors.
+	 */
+	public BatchPureEdgeSim(int threads) {
+		super();
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+	}
+
+	@Override
+	public synchronized void finish() {
+		try {
+			super.finish();
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+				pool = null;
+			}
+		}
+	}
+
+	@Override
+	protected void processFutureEventsHappeningAtSameTimeOfTheFirstOne(final Event firstEvent) {
+		final double firstEventTime = firstEvent.getTime();
+		Event next = firstEvent;
+		boolean polled = true;
+		do {
+			if (isIndependent(next)) {
+				processBatch(next, polled);
+			} else {
+				if (!polled)
+					events.pollFirst();
+				processEvent(next);
+				processNowEvents();
+			}
+			polled = false;
+		} while ((next = firstPendingEvent()) != null && next.getTime() == firstEventTime);
+	}
+
+	protected static boolean isIndependent(Event event) {
+		return event.getSimEntity() instanceof IndependentEntity
+				&& ((IndependentEntity) event.getSimEntity()).isIndependent(event.getTag());
+	}
+
+	/**
+	 * Collects the consecutive independent events happening at the same time as
+	 * the given one, and processes them.
+	 *
+	 * @param first  the first event of the batch.
+	 * @param polled whether it has already been removed from the queue.
+	 */
+	protected void processBatch(Event first, boolean polled) {
+		if (!polled)
+			events.pollFirst();
+		batch.add(first);
+		Event next;
+		while ((next = firstPendingEvent()) != null && next.getTime() == first.getTime() && isIndependent(next))
+			batch.add(events.pollFirst());
+
+		try {
+			if (!groupBatch()) {
+				// Not worth it, process the batch as usual
+				for (Event event : batch) {
+					if (event.isCancelled()) {
+						discard(event);
+						continue;
+					}
+					processEvent(event);
+					processNowEvents();
+				}
+				return;
+			}
+			time = first.getTime();
+			runGroups();
+			insertScheduledEvents();
+			batchesCount++;
+			parallelEventsCount += batch.size();
+		} finally {
+			for (Group group : groups) {
+				group.clear();
+				groupsPool.addLast(group);
+			}
+			groups.clear();
+			groupsMap.clear();
+			Arrays.fill(batchGroups, 0, batch.size(), null);
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Groups the events of the batch by entity.
+	 *
+	 * @return true if the batch should be processed in parallel
+	 */
+	protected boolean groupBatch() {
+		if (batchGroups.length < batch.size())
+			batchGroups = new Group[Math.max(batch.size(), batchGroups.length << 1)];
+		for (int i = 0; i < batch.size(); i++) {
+			final Event event = batch.get(i);
+			Group group = groupsMap.get(event.getSimEntity());
+			if (group == null) {
+				group = groupsPool.isEmpty() ? new Group() : groupsPool.pollLast();
+				group.entity = event.getSimEntity();
+				groupsMap.put(group.entity, group);
+				groups.add(group);
+			}
+			group.add(event);
+			batchGroups[i] = group;
+		}
+		return groups.size() >= MIN_GROUPS;
+	}
+
+	protected void runGroups() {
+		if (pool == null)
+			pool = new ForkJoinPool(threads);
+
+		batchRunning = true;
+		try {
+			pool.submit(() -> groups.parallelStream().forEach(Group::run)).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(getClass().getSimpleName() + " - Interrupted while processing a batch.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(getClass().getSimpleName() + " - Error while processing a batch.",
+					e.getCause());
+		} finally {
+			batchRunning = false;
+		}
+	}
+
+	/**
+	 * Inserts the events scheduled during the batch, following the order of the
+	 * events that scheduled them, then recycles the events of the batch. The
+	 * processed events are traced at this point, in the sequential order, unlike
+	 * those that have been cancelled during the batch.
+	 */
+	protected void insertScheduledEvents() {
+		for (int i = 0; i < batch.size(); i++) {
+			final Group group = batchGroups[i];
+			final int index = group.cursor++;
+			if (traceRecorder != null && !batch.get(i).isCancelled())
+				traceRecorder.record(batch.get(i));
+			for (int j = index == 0 ? 0 : group.scheduledEnds[index - 1]; j < group.scheduledEnds[index]; j++) {
+				final Event event = group.scheduled[j];
+				if (group.now[j]) {
+					// Already processed
+					event.setSerial(nowSerial++);
+					if (traceRecorder != null && !event.isCancelled())
+						traceRecorder.record(event);
+					if (pooledEvents)
+						recycle(event);
+				} else {
+					events.add(event);
+				}
+			}
+			if (pooledEvents)
+				recycle(batch.get(i));
+		}
+	}
+
+	@Override
+	Event newEvent(SimEntity simEntity, double time, int tag, Object data) {
+		// The pool is not shared with the worker threads
+		if (batchRunning)
+			return new Event(simEntity, time, tag, data);
+		return super.newEvent(simEntity, time, tag, data);
+	}
+
+	@Override
+	void insert(Event event) {
+		if (batchRunning)
+			workerGroup().schedule(event, false);
+		else
+			super.insert(event);
+	}
+
+	@Override
+	public void insertFirst(Event event) {
+		if (batchRunning)
+			workerGroup().schedule(event, true);
+		else
+			super.insertFirst(event);
+	}
+
+	protected Group workerGroup() {
+		final Group group = currentGroup.get();
+		if (group == null)
+			throw new IllegalStateException(
+					getClass().getSimpleName() + " - Events cannot be scheduled from outside the simulation threads.");
+		return group;
+	}
+
+	@Override
+	public void cancel(Event event) {
+		super.cancel(event);
+		// A primitive queue gives a copy of the event, which may be in the batch
+		if (batchRunning && event.slot >= 0 && events instanceof PrimitiveEventQueue) {
+			final Group group = groupsMap.get(event.getSimEntity());
+			if (group != null)
+				group.cancel(event.getSerial());
+		}
+	}
+
+	@Override
+	public int cancelAll(Predicate<Event> predicate) {
+		if (batchRunning)
+			throw new IllegalStateException(
+					getClass().getSimpleName() + " - Events can only be cancelled one by one during a batch.");
+		return super.cancelAll(predicate);
+	}
+
+	private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+		input.defaultReadObject();
+		// The thread-local variable is not serialized, and the pool is created on demand
+		currentGroup = new ThreadLocal<>();
+	}
+
+	/**
+	 * Gets the number of batches processed in parallel so far.
+	 *
+	 * @return the number of batches
+	 */
+	public long getBatchesCount() {
+		return batchesCount;
+	}
+
+	/**
+	 * Gets the number of events processed in parallel so far.
+	 *
+	 * @return the number of events
+	 */
+	public long getParallelEventsCount() {
+		return parallelEventsCount;
+	}
+
+	/**
+	 * The events of the batch that target the same entity, and the events they
+	 * scheduled.
+	 */
+	protected class Group implements Serializable {
+		private static final long serialVersionUID = 1L;
+		protected SimEntity entity;
+
+		protected Event[] events = new Event[4];
+		protected int eventsCount;
+
+		/**
+		 * The events scheduled by this group, in order, whether they were scheduled
+		 * for now, and the index of the last one scheduled by each event of the group
+		 * (or by the events it scheduled for now).
+		 */
+		protected Event[] scheduled = new Event[4];
+		protected boolean[] now = new boolean[4];
+		protected int scheduledCount;
+		protected int[] scheduledEnds = new int[4];
+
+		protected final ArrayDeque<Event> lane = new ArrayDeque<>();
+
+		/**
+		 * The next event whose scheduled events must be inserted.
+		 */
+		protected int cursor;
+
+		protected void add(Event event) {
+			if (eventsCount == events.length) {
+				events = Arrays.copyOf(events, eventsCount << 1);
+				scheduledEnds = Arrays.copyOf(scheduledEnds, eventsCount << 1);
+			}
+			events[eventsCount++] = event;
+		}
+
+		protected void run() {
+			currentGroup.set(this);
+			try {
+				for (int i = 0; i < eventsCount; i++) {
+					// It may have been cancelled by a previous event of the group
+					if (!events[i].isCancelled()) {
+						entity.processEvent(events[i]);
+						Event event;
+						while ((event = lane.pollFirst()) != null) {
+							if (!event.isCancelled())
+								entity.processEvent(event);
+						}
+					}
+					scheduledEnds[i] = scheduledCount;
+				}
+			} finally {
+				currentGroup.remove();
+			}
+		}
+
+		/**
+		 * Cancels the event of this group having the given serial, if it has not been
+		 * processed yet.
+		 * 
+		 * @param serial the serial of the event
+		 */
+		protected void cancel(long serial) {
+			for (int i = 0; i < eventsCount; i++)
+				if (events[i].getSerial() == serial) {
+					events[i].cancelled = true;
+					return;
+				}
+		}
+
+		protected void schedule(Event event, boolean now) {
+			if (now) {
+				if (event.getSimEntity() != entity || !isIndependent(event))
+					throw new IllegalStateException(String.format(
+							"%s - %s scheduled a dependent event (tag %d) for now to %s while processing an independent event.",
+							BatchPureEdgeSim.class.getSimpleName(), entity.getClass().getSimpleName(), event.getTag(),
+							event.getSimEntity().getClass().getSimpleName()));
+				lane.addLast(event);
+			}
+			if (scheduledCount == scheduled.length) {
+				scheduled = Arrays.copyOf(scheduled, scheduledCount << 1);
+				this.now = Arrays.copyOf(this.now, scheduledCount << 1);
+			}
+			scheduled[scheduledCount] = event;
+			this.now[scheduledCount++] = now;
+		}
+
+		protected void clear() {
+			Arrays.fill(events, 0, eventsCount, null);
+			Arrays.fill(scheduled, 0, scheduledCount, null);
+			entity = null;
+			eventsCount = 0;
+			scheduledCount = 0;
+			cursor = 0;
+		}
+	}
+
+}
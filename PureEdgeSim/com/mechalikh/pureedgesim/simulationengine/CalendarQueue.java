@@ -0,0 +1,493 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A calendar queue (R. Brown, 1988) implementation of the {@link Queue}
+ * interface. The time axis is divided into buckets of equal width, like the
+ * days of a year. An element with time {@code t} is stored in the bucket
+ * {@code floor(t / width) mod bucketsCount}, and each bucket is a small binary
+ * heap ordered by (time, serial). Elements with the same time always end up in
+ * the same bucket, so the processing order is exactly the same as with the
+ * {@link FutureQueue} and the {@link DaryHeapQueue}. Using heaps rather than
+ * sorted lists keeps the worst case logarithmic when thousands of events share
+ * the same bucket (e.g., the periodic updates of all devices).
+ * <p>
+ * The first element is found by walking the buckets from the current one, so
+ * when the width matches the distribution of the pending events, both inserts
+ * and dequeues take O(1) amortized time. To keep it that way, the number of
+ * buckets is doubled (or halved) when the queue size exceeds twice (or drops
+ * below half) the number of buckets, and the width is recomputed each time
+ * from the separation between the earliest pending events. The width is also
+ * recomputed when dequeues start to scan too many empty buckets, i.e., when the
+ * event-time distribution has changed.
+ * <p>
+ * The {@link #iterator()} and {@link #stream()} methods return the elements in
+ * bucket order, not in sorted order.
+ *
+ * @param <T> the type of the queue elements
+ *
+ * @see FutureQueue
+ * @see DaryHeapQueue
+ * @see PureEdgeSim#createEventsQueue()
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#eventsQueue
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class CalendarQueue<T extends QueueElement & Comparable<? super T>> implements Queue<T> {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The minimum number of buckets.
+	 */
+	public static final int MIN_BUCKETS = 16;
+
+	/**
+	 * The number of earliest elements used to estimate the bucket width.
+	 */
+	protected static final int SAMPLE_SIZE = 25;
+
+	/**
+	 * The average number of buckets a dequeue can scan before the bucket width
+	 * is recomputed.
+	 */
+	protected static final int MAX_AVERAGE_SCAN = 4;
+
+	protected Bucket[] buckets;
+
+	protected int mask;
+
+	protected double width;
+
+	protected int size;
+
+	/**
+	 * The virtual bucket (i.e., {@code floor(time / width)}) from which the next
+	 * search starts. No element has a lower virtual bucket.
+	 */
+	protected long currentBucket;
+
+	/**
+	 * The index of the bucket holding the first element, or -1 when it has to be
+	 * searched again.
+	 */
+	protected int firstBucket = -1;
+
+	protected long serial;
+
+	protected long lowestSerial;
+
+	/** @see #getMaxTsNumber() */
+	protected long maxTsNumber;
+
+	protected int modCount;
+
+	/**
+	 * Number of buckets scanned and dequeues performed since the last check of
+	 * the bucket width.
+	 */
+	protected long scannedBuckets;
+	protected int dequeues;
+
+	/**
+	 * Creates a calendar queue with {@value #MIN_BUCKETS} buckets of one second.
+	 * The width is adjusted automatically afterwards.
+	 */
+	public CalendarQueue() {
+		this(MIN_BUCKETS, 1);
+	}
+
+	/**
+	 * Creates a calendar queue.
+	 *
+	 * @param bucketsCount the initial number of buckets, rounded up to a power of
+	 *                     two.
+	 * @param bucketWidth  the initial width of the buckets in seconds.
+	 */
+	public CalendarQueue(int bucketsCount, double bucketWidth) {
+		if (bucketWidth <= 0)
+			throw new IllegalArgumentException(getClass().getSimpleName() + " - The bucket width must be > 0.");
+		this.width = bucketWidth;
+		initBuckets(Math.max(MIN_BUCKETS, Integer.highestOneBit(Math.max(1, bucketsCount - 1)) << 1));
+	}
+
+	protected void initBuckets(int bucketsCount) {
+		buckets = new Bucket[bucketsCount];
+		for (int i = 0; i < bucketsCount; i++)
+			buckets[i] = new Bucket();
+		mask = bucketsCount - 1;
+	}
+
+	protected long virtualBucket(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	@Override
+	public void add(final T item) {
+		item.setSerial(serial++);
+		offer(item);
+		maxTsNumber = Math.max(maxTsNumber, size);
+	}
+
+	@Override
+	public void addFirst(final T item) {
+		item.setSerial(--lowestSerial);
+		offer(item);
+	}
+
+	protected void offer(final T item) {
+		final long virtualBucket = virtualBucket(item.getTime());
+		if (size == 0 || virtualBucket < currentBucket)
+			currentBucket = virtualBucket;
+		if (firstBucket >= 0 && item.compareTo(elementAt(buckets[firstBucket].first())) < 0)
+			firstBucket = -1;
+
+		buckets[(int) (virtualBucket & mask)].push(item);
+		size++;
+		modCount++;
+
+		if (size > buckets.length << 1)
+			resize(buckets.length << 1);
+	}
+
+	/**
+	 * Finds the bucket containing the first element. The buckets are scanned
+	 * starting from the current one for one "year". If all elements are further
+	 * in time, the heads of all buckets are compared directly.
+	 *
+	 * @return the index of the bucket
+	 */
+	protected int locateFirst() {
+		if (firstBucket >= 0)
+			return firstBucket;
+
+		for (int i = 0; i < buckets.length; i++) {
+			final long virtualBucket = currentBucket + i;
+			final int index = (int) (virtualBucket & mask);
+			final Bucket bucket = buckets[index];
+			if (!bucket.isEmpty() && virtualBucket(elementAt(bucket.first()).getTime()) == virtualBucket) {
+				scannedBuckets += i + 1;
+				currentBucket = virtualBucket;
+				return firstBucket = index;
+			}
+		}
+
+		// Direct search
+		T first = null;
+		for (int i = 0; i < buckets.length; i++) {
+			if (buckets[i].isEmpty())
+				continue;
+			final T head = elementAt(buckets[i].first());
+			if (first == null || head.compareTo(first) < 0) {
+				first = head;
+				firstBucket = i;
+			}
+		}
+		scannedBuckets += buckets.length << 1;
+		currentBucket = virtualBucket(first.getTime());
+		return firstBucket;
+	}
+
+	@Override
+	public T first() throws NoSuchElementException {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return elementAt(buckets[locateFirst()].first());
+	}
+
+	@Override
+	public T pollFirst() {
+		if (size == 0)
+			return null;
+		final Bucket bucket = buckets[locateFirst()];
+		final T result = elementAt(bucket.first());
+		bucket.removeAt(0);
+		firstBucket = -1;
+		size--;
+		modCount++;
+
+		if (size < buckets.length >> 1 && buckets.length > MIN_BUCKETS)
+			resize(buckets.length >> 1);
+		else if (++dequeues >= buckets.length) {
+			if (scannedBuckets > (long) MAX_AVERAGE_SCAN * dequeues)
+				resize(buckets.length);
+			scannedBuckets = 0;
+			dequeues = 0;
+		}
+		return result;
+	}
+
+	/**
+	 * Removes an item from the queue. Only the bucket of the item is searched.
+	 *
+	 * @param queueElement the element to remove
+	 * @return true if successful; false if not queueElement was removed
+	 */
+	@Override
+	public boolean remove(final T queueElement) {
+		final Bucket bucket = buckets[(int) (virtualBucket(queueElement.getTime()) & mask)];
+		int position = 0;
+		while (position < bucket.size && bucket.items[position] != queueElement)
+			position++;
+		if (position == bucket.size)
+			return false;
+		bucket.removeAt(position);
+		firstBucket = -1;
+		size--;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Redistributes the elements over the given number of buckets, using a bucket
+	 * width estimated from the earliest elements.
+	 *
+	 * @param bucketsCount the new number of buckets
+	 */
+	protected void resize(int bucketsCount) {
+		final Object[] elements = new Object[size];
+		int count = 0;
+		for (Bucket bucket : buckets) {
+			System.arraycopy(bucket.items, 0, elements, count, bucket.size);
+			count += bucket.size;
+		}
+
+		width = estimateWidth(elements);
+		initBuckets(bucketsCount);
+
+		currentBucket = Long.MAX_VALUE;
+		for (Object element : elements) {
+			final long virtualBucket = virtualBucket(elementAt(element).getTime());
+			currentBucket = Math.min(currentBucket, virtualBucket);
+			buckets[(int) (virtualBucket & mask)].append(element);
+		}
+		for (Bucket bucket : buckets)
+			bucket.heapify();
+
+		firstBucket = -1;
+		scannedBuckets = 0;
+		dequeues = 0;
+	}
+
+	/**
+	 * Estimates the bucket width as three times the average separation between
+	 * the earliest distinct times, ignoring separations larger than twice the
+	 * average. Keeps the current width when there are not enough distinct times.
+	 *
+	 * @param elements the elements of the queue
+	 * @return the new bucket width
+	 */
+	protected double estimateWidth(Object[] elements) {
+		final double[] sample = new double[Math.min(SAMPLE_SIZE, elements.length)];
+		int count = 0;
+		for (Object element : elements) {
+			final double time = elementAt(element).getTime();
+			if (count < sample.length)
+				count++;
+			else if (time >= sample[count - 1])
+				continue;
+			int position = count - 1;
+			while (position > 0 && sample[position - 1] > time) {
+				sample[position] = sample[position - 1];
+				position--;
+			}
+			sample[position] = time;
+		}
+
+		double sum = 0;
+		int separations = 0;
+		for (int i = 1; i < count; i++) {
+			if (sample[i] > sample[i - 1]) {
+				sum += sample[i] - sample[i - 1];
+				separations++;
+			}
+		}
+		if (separations == 0)
+			return width;
+
+		final double average = sum / separations;
+		sum = 0;
+		separations = 0;
+		for (int i = 1; i < count; i++) {
+			final double separation = sample[i] - sample[i - 1];
+			if (separation > 0 && separation <= 2 * average) {
+				sum += separation;
+				separations++;
+			}
+		}
+		return 3 * sum / separations;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected T elementAt(Object element) {
+		return (T) element;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int bucket;
+			private int cursor;
+			private final int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				while (bucket < buckets.length && cursor >= buckets[bucket].size) {
+					bucket++;
+					cursor = 0;
+				}
+				return bucket < buckets.length;
+			}
+
+			@Override
+			public T next() {
+				if (expectedModCount != modCount)
+					throw new ConcurrentModificationException();
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return elementAt(buckets[bucket].items[cursor++]);
+			}
+		};
+	}
+
+	@Override
+	public Stream<T> stream() {
+		return StreamSupport.stream(Spliterators.spliterator(iterator(), size, Spliterator.NONNULL), false);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the current width of the buckets.
+	 *
+	 * @return the bucket width in seconds
+	 */
+	public double getBucketWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the maximum number of elements that has ever been in the queue at the
+	 * same time.
+	 *
+	 * @return the maximum number of elements
+	 */
+	public long getMaxTsNumber() {
+		return maxTsNumber;
+	}
+
+	/**
+	 * A bucket of the calendar, stored as an array-backed binary heap.
+	 */
+	protected static final class Bucket implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private static final Object[] EMPTY = new Object[0];
+
+		Object[] items = EMPTY;
+		int size;
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		Object first() {
+			return items[0];
+		}
+
+		void append(Object element) {
+			if (size == items.length)
+				items = Arrays.copyOf(items, Math.max(4, size << 1));
+			items[size++] = element;
+		}
+
+		void push(Object element) {
+			append(element);
+			siftUp(size - 1, element);
+		}
+
+		void removeAt(int index) {
+			final Object moved = items[--size];
+			items[size] = null;
+			if (index == size)
+				return;
+			siftDown(index, moved);
+			if (items[index] == moved)
+				siftUp(index, moved);
+		}
+
+		void heapify() {
+			for (int i = (size >>> 1) - 1; i >= 0; i--)
+				siftDown(i, items[i]);
+		}
+
+		private void siftUp(int index, Object element) {
+			while (index > 0) {
+				final int parent = (index - 1) >>> 1;
+				final Object parentElement = items[parent];
+				if (compare(element, parentElement) >= 0)
+					break;
+				items[index] = parentElement;
+				index = parent;
+			}
+			items[index] = element;
+		}
+
+		private void siftDown(int index, Object element) {
+			final int half = size >>> 1;
+			while (index < half) {
+				int child = (index << 1) + 1;
+				Object childElement = items[child];
+				if (child + 1 < size && compare(items[child + 1], childElement) < 0)
+					childElement = items[++child];
+				if (compare(element, childElement) <= 0)
+					break;
+				items[index] = childElement;
+				index = child;
+			}
+			items[index] = element;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static int compare(Object a, Object b) {
+			return ((Comparable<Object>) a).compareTo(b);
+		}
+	}
+
+}
@@ -0,0 +1,159 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Saves the whole state of a simulation to disk, and loads it back.
+ * <p>
+ * A checkpoint is a gzip-compressed Java serialization stream of the
+ * {@link PureEdgeSim simulation engine}, preceded by a small header. As the
+ * engine references all the entities through its {@link EntityRegistry
+ * registry}, the checkpoint includes the pending events and everything they
+ * carry: the simulation manager and its logger counters, the computing nodes,
+ * the network links and the transfers in progress, the tasks that have not been
+ * offloaded yet, the mobility models and the state of their random number
+ * generators, etc.
+ * <p>
+ * A loaded simulation is continued with {@link PureEdgeSim#resume()}, and gives
+ * the same results as if it had never been interrupted. The same checkpoint can
+ * be loaded several times, e.g., to run different what-if scenarios from a
+ * warmed-up state. The
+ * {@link com.mechalikh.pureedgesim.scenariomanager.SimulationParameters
+ * simulation parameters} are static, so they are not part of the checkpoint:
+ * they must be loaded again before resuming, and may be changed in between.
+ * <p>
+ * Checkpoints can only be loaded by the same version of the simulator and of
+ * the custom models that saved them.
+ *
+ * @see PureEdgeSim#enableCheckpoints(double, String)
+ * @see com.mechalikh.pureedgesim.simulationmanager.Simulation#launchSimulation(String)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class Checkpoint {
+
+	/**
+	 * The extension of the checkpoint files.
+	 */
+	public static final String EXTENSION = ".ckpt";
+
+	/**
+	 * The first bytes of a checkpoint file, "PESC".
+	 */
+	private static final int MAGIC = 0x50455343;
+
+	/**
+	 * The version of the checkpoint format.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * A private constructor to prevent this class from being instantiated.
+	 */
+	private Checkpoint() {
+	}
+
+	/**
+	 * Saves the state of the given simulation to a file. It must be called
+	 * between two instants of the simulation, i.e., not while an event is being
+	 * processed. The file is written next to the target, then renamed, so an
+	 * existing checkpoint is never left half-written.
+	 *
+	 * @param simulation the simulation engine.
+	 * @param file       the checkpoint file.
+	 * @throws IOException if the file cannot be written, or if some object of the
+	 *                     simulation is not serializable
+	 */
+	public static void save(PureEdgeSim simulation, File file) throws IOException {
+		final File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+		final File temporary = new File(file.getPath() + ".tmp");
+		try (ObjectOutputStream output = new ObjectOutputStream(
+				new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(temporary), 1 << 16)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeDouble(simulation.clock());
+			output.writeObject(simulation);
+		}
+		Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Loads a simulation from a checkpoint file.
+	 *
+	 * @param file the checkpoint file.
+	 * @return the simulation engine, to be continued with
+	 *         {@link PureEdgeSim#resume()}
+	 * @throws IOException            if the file cannot be read, or if it is not a
+	 *                                checkpoint of this version
+	 * @throws ClassNotFoundException if a class of the simulation cannot be found
+	 */
+	public static PureEdgeSim load(File file) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream input = new ObjectInputStream(
+				new BufferedInputStream(new GZIPInputStream(new FileInputStream(file), 1 << 16)))) {
+			if (input.readInt() != MAGIC)
+				throw new StreamCorruptedException(
+						Checkpoint.class.getSimpleName() + " - " + file.getPath() + " is not a checkpoint file.");
+			final int version = input.readInt();
+			if (version != VERSION)
+				throw new StreamCorruptedException(Checkpoint.class.getSimpleName() + " - Unsupported checkpoint version "
+						+ version + " in " + file.getPath() + ".");
+			input.readDouble();
+			return (PureEdgeSim) input.readObject();
+		}
+	}
+
+	/**
+	 * Reads the simulation time at which a checkpoint was saved, without loading
+	 * it.
+	 *
+	 * @param file the checkpoint file.
+	 * @return the simulation time in seconds
+	 * @throws IOException if the file cannot be read, or if it is not a
+	 *                     checkpoint
+	 */
+	public static double getTime(File file) throws IOException {
+		try (ObjectInputStream input = new ObjectInputStream(new GZIPInputStream(new FileInputStream(file)))) {
+			if (input.readInt() != MAGIC)
+				throw new StreamCorruptedException(
+						Checkpoint.class.getSimpleName() + " - " + file.getPath() + " is not a checkpoint file.");
+			input.readInt();
+			return input.readDouble();
+		}
+	}
+
+}
@@ -0,0 +1,661 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * A conservative parallel discrete event simulation engine (synchronous
+ * windows, in the style of YAWNS). The {@link PartitionedEntity partitioned
+ * entities} are divided into logical processes, each one having its own events
+ * queue, while the events of the other entities, and those that must be
+ * processed sequentially (i.e., having a lookahead of 0), are kept in a global
+ * queue.
+ * <p>
+ * The engine repeatedly computes a safe window: it ends at the first event of
+ * the global queue, and at the first event of each partition plus the
+ * lookahead of that partition. If at least two partitions have events inside
+ * the window, they process them on worker threads, each one in (time, serial)
+ * order. Otherwise, the earliest event is processed sequentially, as in
+ * {@link PureEdgeSim}.
+ * <p>
+ * The results are identical to those of the sequential engine:
+ * <ul>
+ * <li>The events of a window only involve their own partition, so the order in
+ * which the partitions process them does not matter.</li>
+ * <li>The events scheduled during a window are given provisional serials.
+ * After the window, the processed events of all partitions are merged in
+ * (time, serial) order, which is the order the sequential engine would have
+ * processed them in, and the scheduled events are given their final serials in
+ * that order. Events scheduled to other partitions are only inserted then.</li>
+ * <li>Global events, which may read or update any entity, are processed when
+ * all the partitions have reached them.</li>
+ * </ul>
+ * Scheduling an event to another partition within the window, or with
+ * {@link SimEntity#scheduleNow(SimEntity, int) scheduleNow()}, is a lookahead
+ * violation and throws an {@link IllegalStateException}.
+ *
+ * @see PartitionedEntity
+ * @see PureEdgeSim
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#engineMode
+ * @see com.mechalikh.pureedgesim.datacentersmanager.DataCentersManager#assignPartitions()
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class ConservativePureEdgeSim extends PureEdgeSim {
+	private static final long serialVersionUID = 1L;
+
+	protected static final byte LOCAL = 0;
+	protected static final byte LOCAL_NOW = 1;
+	protected static final byte REMOTE = 2;
+
+	/**
+	 * The number of worker threads.
+	 */
+	protected final int threads;
+
+	/**
+	 * The queue of the events that are processed sequentially.
+	 */
+	protected final DaryHeapQueue<Event> globalQueue;
+
+	protected Partition[] partitions = new Partition[0];
+
+	/**
+	 * The serial of the next event, shared by all the queues.
+	 */
+	protected long nextSerial;
+
+	/**
+	 * Whether the partitions are currently processing a window.
+	 */
+	protected boolean windowRunning;
+
+	protected transient ThreadLocal<Partition> currentPartition = new ThreadLocal<>();
+
+	protected transient ForkJoinPool pool;
+
+	/** @see #getWindowsCount() */
+	protected long windowsCount;
+
+	/** @see #getParallelEventsCount() */
+	protected long parallelEventsCount;
+
+	/**
+	 * Creates a conservative parallel engine.
+	 *
+	 * @param threads the number of worker threads, 0 to use all the available
+	 *                processors.
+	 */
+	public ConservativePureEdgeSim(int threads) {
+		super();
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.globalQueue = (DaryHeapQueue<Event>) events;
+	}
+
+	@Override
+	protected Queue<Event> createEventsQueue() {
+		return new DaryHeapQueue<>();
+	}
+
+	@Override
+	public void setPartitions(int partitionsCount, double networkLookahead) {
+		super.setPartitions(partitionsCount, networkLookahead);
+		// Move the events of the previous partitions, if any
+		for (Partition partition : partitions) {
+			Event event;
+			while ((event = partition.queue.pollFirst()) != null)
+				globalQueue.offer(event);
+		}
+		partitions = new Partition[partitionsCount];
+		for (int i = 0; i < partitionsCount; i++)
+			partitions[i] = new Partition(i);
+	}
+
+	@Override
+	public synchronized void finish() {
+		try {
+			super.finish();
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+				pool = null;
+			}
+		}
+	}
+
+	@Override
+	public double clock() {
+		if (windowRunning) {
+			final Partition partition = currentPartition.get();
+			if (partition != null)
+				return partition.time;
+		}
+		return time;
+	}
+
+	@Override
+	protected boolean runClockTickAndProcessFutureEvents(final double until) {
+		if (!processNextEvents(until))
+			return false;
+
+		// Like the sequential engine, finish the current instant before terminating
+		// or pausing
+		if (!isRunning || paused) {
+			final double now = time;
+			while (processNextEvents(now)) {
+				// Keep processing the events of this instant
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Processes either one window in parallel, or the earliest event sequentially.
+	 *
+	 * @param until the time after which no event is processed.
+	 * @return false if there is no event to process before that time
+	 */
+	protected boolean processNextEvents(final double until) {
+		processNowEvents();
+
+		// The window ends at the first sequential event...
+		double windowTime = until;
+		long windowSerial = Long.MAX_VALUE;
+		Event earliest = firstPendingEvent();
+		Partition earliestPartition = null;
+		if (earliest != null && isBefore(earliest, windowTime, windowSerial)) {
+			windowTime = earliest.getTime();
+			windowSerial = earliest.getSerial();
+		}
+
+		// ... and when a partition could affect the others
+		for (Partition partition : partitions) {
+			final Event head = partition.firstPendingEvent(true);
+			if (head == null)
+				continue;
+			if (earliest == null || head.compareTo(earliest) < 0) {
+				earliest = head;
+				earliestPartition = partition;
+			}
+			final double lookaheadTime = head.getTime() + partition.lookahead;
+			if (lookaheadTime < windowTime || (lookaheadTime == windowTime && windowSerial != Long.MIN_VALUE)) {
+				windowTime = lookaheadTime;
+				windowSerial = Long.MIN_VALUE;
+			}
+		}
+
+		if (earliest == null || earliest.getTime() > until)
+			return false;
+
+		final List<Partition> active = new ArrayList<>();
+		for (Partition partition : partitions) {
+			final Event head = partition.firstPendingEvent(true);
+			if (head != null && isBefore(head, windowTime, windowSerial))
+				active.add(partition);
+		}
+
+		if (active.size() > 1) {
+			runWindow(active, windowTime, windowSerial);
+		} else {
+			(earliestPartition == null ? globalQueue : earliestPartition.queue).pollFirst();
+			processEvent(earliest);
+			processNowEvents();
+		}
+		return true;
+	}
+
+	/**
+	 * Processes the earliest event sequentially, whether it is in the global queue
+	 * or in a partition.
+	 */
+	@Override
+	protected boolean processNextEvent(final double until) {
+		if (processNextNowEvent())
+			return true;
+
+		Event earliest = firstPendingEvent();
+		DaryHeapQueue<Event> queue = globalQueue;
+		for (Partition partition : partitions) {
+			final Event head = partition.firstPendingEvent(true);
+			if (head != null && (earliest == null || head.compareTo(earliest) < 0)) {
+				earliest = head;
+				queue = partition.queue;
+			}
+		}
+		if (earliest == null || earliest.getTime() > until)
+			return false;
+		queue.pollFirst();
+		processEvent(earliest);
+		return true;
+	}
+
+	@Override
+	protected boolean hasPendingEvents() {
+		if (super.hasPendingEvents())
+			return true;
+		for (Partition partition : partitions) {
+			if (partition.firstPendingEvent(true) != null)
+				return true;
+		}
+		return false;
+	}
+
+	protected static boolean isBefore(Event event, double windowTime, long windowSerial) {
+		return event.getTime() < windowTime || (event.getTime() == windowTime && event.getSerial() < windowSerial);
+	}
+
+	/**
+	 * Lets the given partitions process their events that are before the end of
+	 * the window, in parallel, then gives the events they scheduled their final
+	 * serials.
+	 *
+	 * @param active       the partitions having events in the window.
+	 * @param windowTime   the end time of the window.
+	 * @param windowSerial the serial of the first event after the window, at the
+	 *                     end time of the window.
+	 */
+	protected void runWindow(List<Partition> active, double windowTime, long windowSerial) {
+		if (pool == null)
+			pool = new ForkJoinPool(threads);
+
+		final List<Callable<Void>> tasks = new ArrayList<>(active.size());
+		for (Partition partition : active) {
+			partition.startWindow(windowTime, windowSerial);
+			tasks.add(partition);
+		}
+
+		windowRunning = true;
+		try {
+			for (Future<Void> future : pool.invokeAll(tasks))
+				future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(getClass().getSimpleName() + " - Interrupted while processing a window.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(getClass().getSimpleName() + " - Error while processing a window.",
+					e.getCause());
+		} finally {
+			windowRunning = false;
+		}
+
+		assignSerials(active);
+		windowsCount++;
+	}
+
+	/**
+	 * Merges the events processed by the partitions in (time, serial) order, and
+	 * gives the events they scheduled the serials they would have had in the
+	 * sequential engine. The events scheduled to other partitions or to the global
+	 * queue are inserted at this point, and the processed events are traced.
+	 *
+	 * @param active the partitions that processed the window.
+	 */
+	protected void assignSerials(List<Partition> active) {
+		final int[] cursors = new int[active.size()];
+		while (true) {
+			int next = -1;
+			Event nextEvent = null;
+			for (int i = 0; i < cursors.length; i++) {
+				final Partition partition = active.get(i);
+				if (cursors[i] < partition.processedCount) {
+					final Event event = partition.processed[cursors[i]];
+					if (nextEvent == null || event.compareTo(nextEvent) < 0) {
+						next = i;
+						nextEvent = event;
+					}
+				}
+			}
+			if (next == -1)
+				break;
+
+			final Partition partition = active.get(next);
+			final int index = cursors[next]++;
+			if (traceRecorder != null)
+				traceRecorder.record(nextEvent);
+			for (int i = index == 0 ? 0 : partition.scheduledEnds[index - 1]; i < partition.scheduledEnds[index]; i++) {
+				final Event event = partition.scheduled[i];
+				if (partition.kinds[i] == LOCAL_NOW) {
+					event.setSerial(nowSerial++);
+					// Already processed
+					if (traceRecorder != null && !event.isCancelled())
+						traceRecorder.record(event);
+				} else {
+					event.setSerial(nextSerial++);
+					if (partition.kinds[i] == REMOTE)
+						queueOf(event).offer(event);
+				}
+			}
+		}
+
+		for (Partition partition : active) {
+			time = Math.max(time, partition.time);
+			parallelEventsCount += partition.processedCount;
+			partition.endWindow();
+		}
+	}
+
+	@Override
+	Event newEvent(SimEntity simEntity, double time, int tag, Object data) {
+		// The pool is not shared with the worker threads
+		if (windowRunning)
+			return new Event(simEntity, time, tag, data);
+		return super.newEvent(simEntity, time, tag, data);
+	}
+
+	@Override
+	void insert(Event event) {
+		if (windowRunning) {
+			workerPartition().schedule(event, false);
+			return;
+		}
+		event.setSerial(nextSerial++);
+		queueOf(event).offer(event);
+	}
+
+	@Override
+	public void insertFirst(Event event) {
+		if (windowRunning) {
+			workerPartition().schedule(event, true);
+			return;
+		}
+		super.insertFirst(event);
+	}
+
+	protected Partition workerPartition() {
+		final Partition partition = currentPartition.get();
+		if (partition == null)
+			throw new IllegalStateException(
+					getClass().getSimpleName() + " - Events cannot be scheduled from outside the simulation threads.");
+		return partition;
+	}
+
+	/**
+	 * Returns the queue of the given event, and updates the lookahead of its
+	 * partition. Must not be called by the worker threads.
+	 *
+	 * @param event the event
+	 * @return the queue where the event must be inserted
+	 */
+	protected DaryHeapQueue<Event> queueOf(Event event) {
+		final int index = partitionOf(event);
+		if (index < 0)
+			return globalQueue;
+		final Partition partition = partitions[index];
+		partition.lookahead = Math.min(partition.lookahead,
+				((PartitionedEntity) event.getSimEntity()).getLookahead(event.getTag()));
+		return partition.queue;
+	}
+
+	/**
+	 * Gets the partition in which the given event is processed.
+	 *
+	 * @param event the event
+	 * @return the partition index, or -1 if the event is processed sequentially
+	 */
+	protected int partitionOf(Event event) {
+		if (partitions.length == 0 || !(event.getSimEntity() instanceof PartitionedEntity))
+			return -1;
+		final PartitionedEntity entity = (PartitionedEntity) event.getSimEntity();
+		if (!(entity.getLookahead(event.getTag()) > 0))
+			return -1;
+		final int index = entity.getPartition();
+		if (index < 0 || index >= partitions.length)
+			throw new IllegalArgumentException(getClass().getSimpleName() + " - Invalid partition " + index + " for "
+					+ entity.getClass().getSimpleName() + ", the number of partitions is " + partitions.length + ".");
+		return index;
+	}
+
+	/**
+	 * Moves the pending events of the given entity whose lookahead is now 0 from
+	 * its partition to the global queue, keeping their serials.
+	 */
+	@Override
+	public void updateLocality(SimEntity entity) {
+		if (windowRunning)
+			throw new IllegalStateException(
+					getClass().getSimpleName() + " - The locality can only be updated by sequential events.");
+		if (partitions.length == 0 || !(entity instanceof PartitionedEntity))
+			return;
+
+		final int index = ((PartitionedEntity) entity).getPartition();
+		if (index < 0 || index >= partitions.length)
+			return;
+		final DaryHeapQueue<Event> queue = partitions[index].queue;
+		final List<Event> moved = new ArrayList<>();
+		for (Iterator<Event> iterator = queue.iterator(); iterator.hasNext();) {
+			final Event event = iterator.next();
+			if (event.getSimEntity() == entity && partitionOf(event) != index)
+				moved.add(event);
+		}
+		for (Event event : moved) {
+			queue.remove(event);
+			globalQueue.offer(event);
+		}
+	}
+
+	@Override
+	public int cancelAll(Predicate<Event> predicate) {
+		if (windowRunning)
+			throw new IllegalStateException(
+					getClass().getSimpleName() + " - Events can only be cancelled one by one during a window.");
+		int count = super.cancelAll(predicate);
+		for (Partition partition : partitions) {
+			for (Iterator<Event> iterator = partition.queue.iterator(); iterator.hasNext();) {
+				final Event event = iterator.next();
+				if (!event.isCancelled() && predicate.test(event)) {
+					event.cancelled = true;
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+		input.defaultReadObject();
+		// The thread-local variable is not serialized, and the pool is created on demand
+		currentPartition = new ThreadLocal<>();
+	}
+
+	/**
+	 * Gets the number of windows processed in parallel so far.
+	 *
+	 * @return the number of windows
+	 */
+	public long getWindowsCount() {
+		return windowsCount;
+	}
+
+	/**
+	 * Gets the number of events processed in parallel so far.
+	 *
+	 * @return the number of events
+	 */
+	public long getParallelEventsCount() {
+		return parallelEventsCount;
+	}
+
+	/**
+	 * A logical process: the events queue of a partition, and what it has
+	 * processed and scheduled during the current window.
+	 */
+	protected class Partition implements Callable<Void>, Serializable {
+		private static final long serialVersionUID = 1L;
+		protected final int index;
+		protected final DaryHeapQueue<Event> queue = new DaryHeapQueue<>();
+		protected final ArrayDeque<Event> lane = new ArrayDeque<>();
+
+		/**
+		 * The minimum lookahead of the events that have been inserted in this
+		 * partition.
+		 */
+		protected double lookahead = Double.POSITIVE_INFINITY;
+
+		/**
+		 * The local clock of this partition.
+		 */
+		protected double time;
+
+		protected double windowTime;
+		protected long windowSerial;
+		protected long provisionalSerial;
+
+		/**
+		 * The events processed from the queue during the window, in order.
+		 */
+		protected Event[] processed = new Event[16];
+		protected int processedCount;
+
+		/**
+		 * The events scheduled during the window, in order, with their kind, and the
+		 * index of the last one scheduled by each processed event (or by the events
+		 * of the lane that followed it).
+		 */
+		protected Event[] scheduled = new Event[16];
+		protected byte[] kinds = new byte[16];
+		protected int scheduledCount;
+		protected int[] scheduledEnds = new int[16];
+
+		protected Partition(int index) {
+			this.index = index;
+		}
+
+		protected void startWindow(double windowTime, long windowSerial) {
+			this.windowTime = windowTime;
+			this.windowSerial = windowSerial;
+			// Above all the existing serials, and in the same order as the final ones
+			this.provisionalSerial = nextSerial;
+			this.time = ConservativePureEdgeSim.this.time;
+		}
+
+		@Override
+		public Void call() {
+			currentPartition.set(this);
+			try {
+				Event event;
+				while ((event = firstPendingEvent(false)) != null && isBefore(event, windowTime, windowSerial)) {
+					queue.pollFirst();
+					if (processedCount == processed.length) {
+						processed = Arrays.copyOf(processed, processedCount << 1);
+						scheduledEnds = Arrays.copyOf(scheduledEnds, processedCount << 1);
+					}
+					processed[processedCount++] = event;
+					process(event);
+					while ((event = lane.pollFirst()) != null) {
+						if (!event.isCancelled())
+							process(event);
+					}
+					scheduledEnds[processedCount - 1] = scheduledCount;
+				}
+			} finally {
+				currentPartition.remove();
+			}
+			return null;
+		}
+
+		protected void process(Event event) {
+			if (event.getTime() < time) {
+				final String msg = "Past event detected. Event time: %.2f Simulation clock: %.2f";
+				throw new IllegalArgumentException(String.format(msg, event.getTime(), time));
+			}
+			time = event.getTime();
+			event.getSimEntity().processEvent(event);
+		}
+
+		/**
+		 * Records an event scheduled by this partition during the window. Local
+		 * events are inserted right away, the others after the window.
+		 */
+		protected void schedule(Event event, boolean now) {
+			final byte kind;
+			if (partitionOf(event) == index) {
+				lookahead = Math.min(lookahead,
+						((PartitionedEntity) event.getSimEntity()).getLookahead(event.getTag()));
+				if (now) {
+					lane.addLast(event);
+					kind = LOCAL_NOW;
+				} else {
+					event.setSerial(provisionalSerial++);
+					queue.offer(event);
+					kind = LOCAL;
+				}
+			} else {
+				if (now || event.getTime() < windowTime
+						|| (event.getTime() == windowTime && windowSerial == Long.MAX_VALUE))
+					throw new IllegalStateException(String.format(
+							"%s - Lookahead violation: %s scheduled an event (tag %d) for %s at %.4f, before the end of the window %.4f.",
+							ConservativePureEdgeSim.class.getSimpleName(),
+							processed[processedCount - 1].getSimEntity().getClass().getSimpleName(), event.getTag(),
+							event.getSimEntity().getClass().getSimpleName(), event.getTime(), windowTime));
+				kind = REMOTE;
+			}
+
+			if (scheduledCount == scheduled.length) {
+				scheduled = Arrays.copyOf(scheduled, scheduledCount << 1);
+				kinds = Arrays.copyOf(kinds, scheduledCount << 1);
+			}
+			scheduled[scheduledCount] = event;
+			kinds[scheduledCount++] = kind;
+		}
+
+		/**
+		 * Gets the first event of the queue that has not been cancelled.
+		 *
+		 * @param recycle whether the dropped events can be recycled, i.e., if called
+		 *                by the main thread.
+		 */
+		protected Event firstPendingEvent(boolean recycle) {
+			while (!queue.isEmpty()) {
+				final Event first = queue.first();
+				if (!first.isCancelled())
+					return first;
+				queue.pollFirst();
+				if (recycle)
+					discard(first);
+			}
+			return null;
+		}
+
+		protected void endWindow() {
+			Arrays.fill(processed, 0, processedCount, null);
+			Arrays.fill(scheduled, 0, scheduledCount, null);
+			processedCount = 0;
+			scheduledCount = 0;
+		}
+	}
+
+}
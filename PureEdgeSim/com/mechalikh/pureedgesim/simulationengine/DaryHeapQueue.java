@@ -0,0 +1,258 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * An array-backed d-ary min-heap implementation of the {@link Queue}
+ * interface. Elements are ordered using their natural ordering, which for
+ * {@link Event events} is the (time, serial) order, exactly as in the
+ * {@link FutureQueue}. Serials are assigned the same way, so both queues give
+ * the same processing order.
+ * <p>
+ * Compared to the {@link java.util.TreeSet TreeSet} used by the
+ * {@link FutureQueue}, this queue does not allocate a node per element and
+ * keeps the elements in a contiguous array, with a branching factor of 4 by
+ * default, which makes it more cache friendly when millions of events are
+ * pending. Both {@link #add(QueueElement)} and {@link #pollFirst()} are
+ * O(log<sub>d</sub> n), while {@link #first()} is O(1).
+ * <p>
+ * The {@link #iterator()} and {@link #stream()} methods return the elements in
+ * heap order, not in sorted order.
+ *
+ * @param <T> the type of the queue elements
+ *
+ * @see FutureQueue
+ * @see PureEdgeSim#createEventsQueue()
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#eventsQueue
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class DaryHeapQueue<T extends QueueElement & Comparable<? super T>> implements Queue<T> {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The default branching factor of the heap.
+	 */
+	public static final int DEFAULT_ARITY = 4;
+
+	protected final int arity;
+
+	protected Object[] heap;
+
+	protected int size;
+
+	protected long serial;
+
+	protected long lowestSerial;
+
+	/** @see #getMaxTsNumber() */
+	protected long maxTsNumber;
+
+	/**
+	 * Incremented on each structural modification, used to detect concurrent
+	 * modifications while iterating.
+	 */
+	protected int modCount;
+
+	/**
+	 * Creates a 4-ary heap queue.
+	 *
+	 * @see #DaryHeapQueue(int, int)
+	 */
+	public DaryHeapQueue() {
+		this(DEFAULT_ARITY, 64);
+	}
+
+	/**
+	 * Creates a d-ary heap queue.
+	 *
+	 * @param arity           the branching factor of the heap (at least 2).
+	 * @param initialCapacity the initial size of the backing array.
+	 */
+	public DaryHeapQueue(int arity, int initialCapacity) {
+		if (arity < 2)
+			throw new IllegalArgumentException(getClass().getSimpleName() + " - The arity must be >= 2.");
+		this.arity = arity;
+		this.heap = new Object[Math.max(1, initialCapacity)];
+	}
+
+	@Override
+	public void add(final T item) {
+		item.setSerial(serial++);
+		offer(item);
+		maxTsNumber = Math.max(maxTsNumber, size);
+	}
+
+	@Override
+	public void addFirst(final T item) {
+		item.setSerial(--lowestSerial);
+		offer(item);
+	}
+
+	protected void offer(final T item) {
+		if (size == heap.length)
+			heap = Arrays.copyOf(heap, heap.length << 1);
+		siftUp(size++, item);
+		modCount++;
+	}
+
+	@Override
+	public T first() throws NoSuchElementException {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return elementAt(0);
+	}
+
+	@Override
+	public T pollFirst() {
+		if (size == 0)
+			return null;
+		final T result = elementAt(0);
+		removeAt(0);
+		return result;
+	}
+
+	/**
+	 * Removes an item from the queue. This requires a linear search, use
+	 * {@link #pollFirst()} to remove the head of the queue.
+	 *
+	 * @param queueElement the element to remove
+	 * @return true if successful; false if not queueElement was removed
+	 */
+	@Override
+	public boolean remove(final T queueElement) {
+		for (int i = 0; i < size; i++) {
+			if (heap[i] == queueElement) {
+				removeAt(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected void removeAt(int index) {
+		modCount++;
+		final int last = --size;
+		final T moved = elementAt(last);
+		heap[last] = null;
+		if (index == last)
+			return;
+		siftDown(index, moved);
+		if (heap[index] == moved)
+			siftUp(index, moved);
+	}
+
+	protected void siftUp(int index, final T item) {
+		while (index > 0) {
+			final int parent = (index - 1) / arity;
+			final T parentItem = elementAt(parent);
+			if (item.compareTo(parentItem) >= 0)
+				break;
+			heap[index] = parentItem;
+			index = parent;
+		}
+		heap[index] = item;
+	}
+
+	protected void siftDown(int index, final T item) {
+		while (true) {
+			final int firstChild = index * arity + 1;
+			if (firstChild >= size)
+				break;
+			final int lastChild = Math.min(firstChild + arity, size);
+			int smallest = firstChild;
+			T smallestItem = elementAt(firstChild);
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				final T childItem = elementAt(child);
+				if (childItem.compareTo(smallestItem) < 0) {
+					smallest = child;
+					smallestItem = childItem;
+				}
+			}
+			if (item.compareTo(smallestItem) <= 0)
+				break;
+			heap[index] = smallestItem;
+			index = smallest;
+		}
+		heap[index] = item;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected T elementAt(int index) {
+		return (T) heap[index];
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int cursor;
+			private final int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < size;
+			}
+
+			@Override
+			public T next() {
+				if (expectedModCount != modCount)
+					throw new ConcurrentModificationException();
+				if (cursor >= size)
+					throw new NoSuchElementException();
+				return elementAt(cursor++);
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Stream<T> stream() {
+		return Arrays.stream(heap, 0, size).map(element -> (T) element);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the maximum number of elements that has ever been in the queue at the
+	 * same time.
+	 *
+	 * @return the maximum number of elements
+	 */
+	public long getMaxTsNumber() {
+		return maxTsNumber;
+	}
+
+}
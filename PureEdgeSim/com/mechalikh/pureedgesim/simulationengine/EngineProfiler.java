@@ -0,0 +1,384 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects statistics about the events processed by the simulation engine: the
+ * number of events and their processing time per entity class and per tag
+ * (with nanosecond histograms), the depth of the events queue, the events
+ * processed per second, and the ratio between the simulated time and the wall
+ * clock time.
+ * <p>
+ * It is only created when
+ * {@link com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#engineProfiling
+ * profiling} is enabled, otherwise the engine does not measure anything. The
+ * events processed by the worker threads of the parallel engines are not
+ * profiled.
+ *
+ * @see PureEdgeSim#getProfiler()
+ * @see com.mechalikh.pureedgesim.simulationmanager.SimLog#saveEngineStatistics(PureEdgeSim)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class EngineProfiler implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The queue depth is sampled once every this number of events.
+	 */
+	public static final int QUEUE_SAMPLING_INTERVAL = 1024;
+
+	protected final Map<Class<?>, EntityStatistics> entities = new LinkedHashMap<>();
+
+	protected long eventsCount;
+
+	/**
+	 * The wall clock times are not part of the checkpoints, they restart when the
+	 * simulation is resumed.
+	 */
+	protected transient long wallStart;
+	protected transient long wallEnd;
+	protected double simulationTime;
+	protected int maxQueueDepth;
+
+	protected double[] sampleTimes = new double[64];
+	protected double[] sampleWallTimes = new double[64];
+	protected int[] sampleDepths = new int[64];
+	protected int samplesCount;
+
+	/**
+	 * Called by the engine each time it starts processing events. Only the first
+	 * call starts the wall clock.
+	 */
+	public void start() {
+		if (wallStart != 0)
+			return;
+		wallStart = System.nanoTime();
+		wallEnd = 0;
+	}
+
+	/**
+	 * Called by the engine when the simulation ends.
+	 *
+	 * @param simulationTime the simulation time at the end.
+	 */
+	public void stop(double simulationTime) {
+		this.simulationTime = simulationTime;
+		wallEnd = System.nanoTime();
+	}
+
+	/**
+	 * Records a processed event.
+	 *
+	 * @param event      the event.
+	 * @param nanos      the time spent processing it, in nanoseconds.
+	 * @param queueDepth the number of pending events after processing it.
+	 */
+	public void record(Event event, long nanos, int queueDepth) {
+		EntityStatistics statistics = entities.get(event.getSimEntity().getClass());
+		if (statistics == null) {
+			statistics = new EntityStatistics();
+			entities.put(event.getSimEntity().getClass(), statistics);
+		}
+		statistics.record(event.getTag(), nanos);
+
+		simulationTime = event.getTime();
+		maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+		if (eventsCount++ % QUEUE_SAMPLING_INTERVAL == 0) {
+			if (samplesCount == sampleDepths.length) {
+				sampleTimes = Arrays.copyOf(sampleTimes, samplesCount << 1);
+				sampleWallTimes = Arrays.copyOf(sampleWallTimes, samplesCount << 1);
+				sampleDepths = Arrays.copyOf(sampleDepths, samplesCount << 1);
+			}
+			sampleTimes[samplesCount] = simulationTime;
+			sampleWallTimes[samplesCount] = getWallTimeSeconds();
+			sampleDepths[samplesCount++] = queueDepth;
+		}
+	}
+
+	/**
+	 * Gets the number of profiled events.
+	 *
+	 * @return the number of events
+	 */
+	public long getEventsCount() {
+		return eventsCount;
+	}
+
+	/**
+	 * Gets the wall clock time since the simulation started, or its duration
+	 * once it has ended.
+	 *
+	 * @return the wall clock time in seconds
+	 */
+	public double getWallTimeSeconds() {
+		return ((wallEnd == 0 ? System.nanoTime() : wallEnd) - wallStart) / 1e9;
+	}
+
+	/**
+	 * Gets the simulation time of the last profiled event.
+	 *
+	 * @return the simulation time in seconds
+	 */
+	public double getSimulationTime() {
+		return simulationTime;
+	}
+
+	/**
+	 * Gets the number of events processed per second of wall clock time.
+	 *
+	 * @return the number of events per second
+	 */
+	public double getEventsPerSecond() {
+		final double wallTime = getWallTimeSeconds();
+		return wallTime > 0 ? eventsCount / wallTime : 0;
+	}
+
+	/**
+	 * Gets the ratio between the simulated time and the wall clock time, e.g., 10
+	 * means that the simulation runs 10 times faster than real time.
+	 *
+	 * @return the simulated time to wall clock time ratio
+	 */
+	public double getSimulatedToWallTimeRatio() {
+		final double wallTime = getWallTimeSeconds();
+		return wallTime > 0 ? simulationTime / wallTime : 0;
+	}
+
+	/**
+	 * Gets the maximum number of pending events seen after processing an event.
+	 *
+	 * @return the maximum queue depth
+	 */
+	public int getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+
+	/**
+	 * Gets the statistics of each entity class, in the order they were first
+	 * seen.
+	 *
+	 * @return the statistics per entity class
+	 */
+	public Map<Class<?>, EntityStatistics> getEntityStatistics() {
+		return Collections.unmodifiableMap(entities);
+	}
+
+	/**
+	 * Gets the number of queue depth samples.
+	 *
+	 * @return the number of samples
+	 * @see #QUEUE_SAMPLING_INTERVAL
+	 */
+	public int getQueueDepthSamplesCount() {
+		return samplesCount;
+	}
+
+	/**
+	 * Gets a queue depth sample.
+	 *
+	 * @param index the sample index.
+	 * @return the number of pending events
+	 */
+	public int getQueueDepthSample(int index) {
+		return sampleDepths[index];
+	}
+
+	/**
+	 * Gets the simulation time of a queue depth sample.
+	 *
+	 * @param index the sample index.
+	 * @return the simulation time in seconds
+	 */
+	public double getQueueDepthSampleTime(int index) {
+		return sampleTimes[index];
+	}
+
+	/**
+	 * Gets the wall clock time of a queue depth sample, since the simulation
+	 * started.
+	 *
+	 * @param index the sample index.
+	 * @return the wall clock time in seconds
+	 */
+	public double getQueueDepthSampleWallTime(int index) {
+		return sampleWallTimes[index];
+	}
+
+	/**
+	 * Returns the statistics as CSV lines: "Metric,Entity,Tag,Value", each line
+	 * starting with the given prefix.
+	 *
+	 * @param prefix the first columns of each line, e.g., the scenario.
+	 * @return the CSV lines
+	 */
+	public List<String> getStatisticsLines(String prefix) {
+		final List<String> lines = new ArrayList<>();
+		lines.add(prefix + "Events,,," + eventsCount);
+		lines.add(prefix + "Wall time (s),,," + getWallTimeSeconds());
+		lines.add(prefix + "Simulation time (s),,," + simulationTime);
+		lines.add(prefix + "Events per second,,," + getEventsPerSecond());
+		lines.add(prefix + "Simulated to wall time ratio,,," + getSimulatedToWallTimeRatio());
+		lines.add(prefix + "Max queue depth,,," + maxQueueDepth);
+		entities.forEach((entityClass, statistics) -> {
+			final String entity = entityClass.getSimpleName();
+			statistics.all.addLines(lines, prefix, entity, "");
+			statistics.tags.forEach((tag, histogram) -> histogram.addLines(lines, prefix, entity, tag.toString()));
+		});
+		return lines;
+	}
+
+	/**
+	 * Returns the queue depth samples as CSV lines: "Simulation time (s),Wall
+	 * time (s),Queue depth", each line starting with the given prefix.
+	 *
+	 * @param prefix the first columns of each line, e.g., the scenario.
+	 * @return the CSV lines
+	 */
+	public List<String> getQueueDepthLines(String prefix) {
+		final List<String> lines = new ArrayList<>(samplesCount);
+		for (int i = 0; i < samplesCount; i++)
+			lines.add(prefix + sampleTimes[i] + "," + sampleWallTimes[i] + "," + sampleDepths[i]);
+		return lines;
+	}
+
+	/**
+	 * The statistics of an entity class, for all its events and per tag.
+	 */
+	public static class EntityStatistics implements Serializable {
+		private static final long serialVersionUID = 1L;
+		protected final Histogram all = new Histogram();
+		protected final Map<Integer, Histogram> tags = new TreeMap<>();
+
+		protected void record(int tag, long nanos) {
+			all.record(nanos);
+			Histogram histogram = tags.get(tag);
+			if (histogram == null) {
+				histogram = new Histogram();
+				tags.put(tag, histogram);
+			}
+			histogram.record(nanos);
+		}
+
+		/**
+		 * Gets the statistics of all the events of this entity class.
+		 *
+		 * @return the histogram
+		 */
+		public Histogram getAll() {
+			return all;
+		}
+
+		/**
+		 * Gets the statistics of the events of this entity class, per tag.
+		 *
+		 * @return the histograms per tag
+		 */
+		public Map<Integer, Histogram> getTags() {
+			return Collections.unmodifiableMap(tags);
+		}
+	}
+
+	/**
+	 * A histogram of processing times, with one bucket per power of two
+	 * nanoseconds.
+	 */
+	public static class Histogram implements Serializable {
+		private static final long serialVersionUID = 1L;
+		protected final long[] buckets = new long[64];
+		protected long count;
+		protected long totalNanos;
+		protected long maxNanos;
+
+		protected void record(long nanos) {
+			buckets[64 - Long.numberOfLeadingZeros(Math.max(0, nanos))]++;
+			count++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		public double getMeanNanos() {
+			return count == 0 ? 0 : (double) totalNanos / count;
+		}
+
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+
+		/**
+		 * Gets the number of events whose processing time is between
+		 * 2<sup>index-1</sup> and 2<sup>index</sup>-1 nanoseconds.
+		 *
+		 * @param index the bucket index, from 0 to 63.
+		 * @return the number of events
+		 */
+		public long getBucket(int index) {
+			return buckets[index];
+		}
+
+		/**
+		 * Gets an upper bound of the given percentile of the processing time.
+		 *
+		 * @param percentile the percentile, between 0 and 100.
+		 * @return the upper bound of the bucket containing the percentile, in
+		 *         nanoseconds
+		 */
+		public long getPercentileNanos(double percentile) {
+			final long rank = (long) Math.ceil(count * percentile / 100);
+			long seen = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= rank && seen > 0)
+					return Math.min(maxNanos, (1L << i) - 1);
+			}
+			return maxNanos;
+		}
+
+		protected void addLines(List<String> lines, String prefix, String entity, String tag) {
+			final String columns = "," + entity + "," + tag + ",";
+			lines.add(prefix + "Events" + columns + count);
+			lines.add(prefix + "Total time (ns)" + columns + totalNanos);
+			lines.add(prefix + "Mean time (ns)" + columns + getMeanNanos());
+			lines.add(prefix + "P50 time (ns)" + columns + getPercentileNanos(50));
+			lines.add(prefix + "P99 time (ns)" + columns + getPercentileNanos(99));
+			lines.add(prefix + "Max time (ns)" + columns + maxNanos);
+		}
+	}
+
+}
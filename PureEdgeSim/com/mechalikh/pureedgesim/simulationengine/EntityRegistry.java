@@ -0,0 +1,210 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The registry of the simulation entities of an engine.
+ * <p>
+ * Each entity gets two identifiers when it is registered:
+ * <ul>
+ * <li>its {@link SimEntity#getId() id}, the number of entities of its class
+ * (including subclasses) registered before it, computed from per-class
+ * counters in O(number of classes) instead of going through all the
+ * entities,</li>
+ * <li>its {@link SimEntity#getGlobalId() global id}, its index in this
+ * registry, which gives an O(1) lookup with {@link #get(int)}.</li>
+ * </ul>
+ * Typed views, returned by {@link #getEntities(Class)}, are kept up to date as
+ * entities are registered and deregistered. Deregistered entities keep their
+ * identifiers, no longer receive events, and are only notified of the end of
+ * the simulation.
+ *
+ * @see PureEdgeSim#getEntityRegistry()
+ * @see PureEdgeSim#removeEntity(SimEntity)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class EntityRegistry implements Iterable<SimEntity>, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * All the entities ever registered, indexed by global id.
+	 */
+	protected final List<SimEntity> entities = new ArrayList<>();
+
+	/**
+	 * The number of entities registered per concrete class.
+	 */
+	protected final Map<Class<?>, Integer> classCounts = new LinkedHashMap<>();
+
+	/**
+	 * The typed views that have been requested so far.
+	 */
+	protected final Map<Class<?>, List<SimEntity>> views = new HashMap<>();
+
+	protected int size;
+
+	/**
+	 * Registers an entity.
+	 *
+	 * @param entity the entity to register.
+	 * @return its id, i.e., the number of entities of its class (or subclasses)
+	 *         registered before it
+	 */
+	public int register(SimEntity entity) {
+		final Class<?> entityClass = entity.getClass();
+		int id = 0;
+		for (Map.Entry<Class<?>, Integer> count : classCounts.entrySet()) {
+			if (entityClass.isAssignableFrom(count.getKey()))
+				id += count.getValue();
+		}
+		classCounts.merge(entityClass, 1, Integer::sum);
+
+		entity.globalId = entities.size();
+		entity.deregistered = false;
+		entities.add(entity);
+		size++;
+		for (Map.Entry<Class<?>, List<SimEntity>> view : views.entrySet()) {
+			if (view.getKey().isInstance(entity))
+				view.getValue().add(entity);
+		}
+		return id;
+	}
+
+	/**
+	 * Deregisters an entity. Its identifiers are not reused.
+	 *
+	 * @param entity the entity to deregister.
+	 * @return false if it was not registered
+	 */
+	public boolean deregister(SimEntity entity) {
+		if (get(entity.getGlobalId()) != entity)
+			return false;
+		entity.deregistered = true;
+		size--;
+		for (Map.Entry<Class<?>, List<SimEntity>> view : views.entrySet()) {
+			if (view.getKey().isInstance(entity))
+				view.getValue().remove(entity);
+		}
+		return true;
+	}
+
+	/**
+	 * Gets a registered entity by its global id, in O(1).
+	 *
+	 * @param globalId the global id of the entity.
+	 * @return the entity, or null if there is none or if it has been deregistered
+	 */
+	public SimEntity get(int globalId) {
+		if (globalId < 0 || globalId >= entities.size())
+			return null;
+		final SimEntity entity = entities.get(globalId);
+		return entity.deregistered ? null : entity;
+	}
+
+	/**
+	 * Returns the registered entities of the given type, in the order of their
+	 * registration. The returned list is a read-only view, updated as entities are
+	 * registered and deregistered. The first call for a type goes through all the
+	 * entities, the next ones cost O(1).
+	 *
+	 * @param <T>  the type of the entities.
+	 * @param type the class of the entities, e.g., a
+	 *             {@link com.mechalikh.pureedgesim.network.NetworkLink
+	 *             NetworkLink}.
+	 * @return the entities of the given type
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> getEntities(Class<T> type) {
+		List<SimEntity> view = views.get(type);
+		if (view == null) {
+			view = new ArrayList<>();
+			for (SimEntity entity : entities) {
+				if (!entity.deregistered && type.isInstance(entity))
+					view.add(entity);
+			}
+			views.put(type, view);
+		}
+		return (List<T>) Collections.unmodifiableList(view);
+	}
+
+	/**
+	 * Gets the number of registered entities.
+	 *
+	 * @return the number of entities
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an iterator over the registered entities, in the order of their
+	 * registration.
+	 */
+	@Override
+	public Iterator<SimEntity> iterator() {
+		return new Iterator<SimEntity>() {
+			private int cursor = next(0);
+
+			private int next(int index) {
+				while (index < entities.size() && entities.get(index).deregistered)
+					index++;
+				return index;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return cursor < entities.size();
+			}
+
+			@Override
+			public SimEntity next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				final SimEntity entity = entities.get(cursor);
+				cursor = next(cursor + 1);
+				return entity;
+			}
+		};
+	}
+
+	/**
+	 * Removes all the entities.
+	 */
+	public void clear() {
+		entities.clear();
+		classCounts.clear();
+		views.clear();
+		size = 0;
+	}
+
+}
@@ -3,25 +3,110 @@ package com.mechalikh.pureedgesim.simulationengine;
 import java.util.Objects;
 
 public class Event implements Comparable<Event>, QueueElement {
+	private static final long serialVersionUID = 1L;
+
 	double time;
 	protected SimEntity simEntity;
 	protected int tag;
 	protected Object data;
 	protected long serial;
 
-	public Event(SimEntity simEntity, Double time, int tag) {
+	/**
+	 * Whether this event must not be recycled when pooled events are enabled.
+	 * 
+	 * @see #retain()
+	 */
+	protected boolean retained;
+
+	/**
+	 * Whether this event has been cancelled, in which case it will be skipped.
+	 * 
+	 * @see PureEdgeSim#cancel(Event)
+	 */
+	protected boolean cancelled;
+
+	/**
+	 * The slot of this event in a {@link PrimitiveEventQueue}, -1 if it is not
+	 * pending in such a queue.
+	 * 
+	 * @see PrimitiveEventQueue#cancel(Event)
+	 */
+	int slot = -1;
+
+	public Event(SimEntity simEntity, double time, int tag) {
 		this.simEntity = simEntity;
 		this.time = time;
 		this.tag = tag;
 	}
 
-	public Event(SimEntity simEntity, Double time, int tag, Object data) {
+	public Event(SimEntity simEntity, double time, int tag, Object data) {
 		this.simEntity = simEntity;
 		this.time = time;
 		this.tag = tag;
 		this.data = data;
 	}
 
+	/**
+	 * Reinitializes a recycled event.
+	 * 
+	 * @see PureEdgeSim#newEvent(SimEntity, double, int, Object)
+	 */
+	void init(SimEntity simEntity, double time, int tag, Object data) {
+		this.simEntity = simEntity;
+		this.time = time;
+		this.tag = tag;
+		this.data = data;
+		this.retained = false;
+		this.cancelled = false;
+		this.slot = -1;
+	}
+
+	/**
+	 * Releases the references held by this event before putting it back in the
+	 * pool.
+	 * 
+	 * @see PureEdgeSim#recycle(Event)
+	 */
+	void clear() {
+		this.simEntity = null;
+		this.data = null;
+	}
+
+	/**
+	 * When {@link com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#pooledEvents
+	 * pooled events} are enabled, the engine reuses each event once it has been
+	 * processed. Entities that keep a reference to an event after it has been
+	 * processed (e.g., in a list or a field) must call this method, to prevent it
+	 * from being reused. It has no effect when pooling is disabled.
+	 * 
+	 * @return this event
+	 * @see PureEdgeSim#recycle(Event)
+	 */
+	public Event retain() {
+		this.retained = true;
+		return this;
+	}
+
+	/**
+	 * Returns whether this event has been cancelled.
+	 * 
+	 * @return true if the event will not be processed
+	 * @see PureEdgeSim#cancel(Event)
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Returns whether this event has been retained.
+	 * 
+	 * @return true if the event will not be recycled
+	 * @see #retain()
+	 */
+	public boolean isRetained() {
+		return retained;
+	}
+
 	public int getTag() {
 		return tag;
 	}
@@ -44,20 +129,16 @@ public class Event implements Comparable<Event>, QueueElement {
 
 	@Override
 	public int compareTo(final Event that) {
-		if (that.equals(null)) {
-			return 1;
-		}
-
-		if (this.equals(that)) {
+		if (this == that) {
 			return 0;
 		}
 
-		int res = Double.compare(time, that.getTime());
+		int res = Double.compare(time, that.time);
 		if (res != 0) {
 			return res;
 		}
 
-		return Long.compare(serial, that.getSerial());
+		return Long.compare(serial, that.serial);
 	}
 
 	@Override
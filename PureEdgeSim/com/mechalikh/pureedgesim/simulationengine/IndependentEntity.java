@@ -0,0 +1,52 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+/**
+ * Marks a simulation entity whose events are free of cross-entity side
+ * effects: processing them only reads and updates the state of this entity.
+ * The {@link BatchPureEdgeSim batch engine} processes such events in parallel
+ * when they happen at the same time as the events of other entities.
+ * <p>
+ * Independent events may schedule events to any entity, but events scheduled
+ * with {@link SimEntity#scheduleNow(SimEntity, int) scheduleNow()} must be
+ * independent events of this entity. The sequential engine ignores this
+ * interface.
+ *
+ * @see BatchPureEdgeSim
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public interface IndependentEntity {
+
+	/**
+	 * Returns whether the events having the given tag are free of cross-entity
+	 * side effects. By default, all the events of this entity are.
+	 *
+	 * @param tag the event tag
+	 * @return true if the events can be processed in parallel
+	 */
+	default boolean isIndependent(int tag) {
+		return true;
+	}
+
+}
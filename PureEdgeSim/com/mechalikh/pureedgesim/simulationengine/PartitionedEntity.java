@@ -0,0 +1,67 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+/**
+ * A simulation entity that belongs to a logical process (a partition) of the
+ * {@link ConservativePureEdgeSim conservative parallel engine}. Its events can
+ * be processed by the worker thread of its partition, concurrently with the
+ * events of the other partitions, as long as they are within the lookahead
+ * window.
+ * <p>
+ * The sequential engine ignores this interface.
+ *
+ * @see ConservativePureEdgeSim
+ * @see com.mechalikh.pureedgesim.datacentersmanager.DataCentersManager#assignPartitions()
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public interface PartitionedEntity {
+
+	/**
+	 * Gets the partition (logical process) of this entity. It must not change once
+	 * the simulation has started.
+	 *
+	 * @return the partition index, from 0 to the number of partitions - 1
+	 */
+	int getPartition();
+
+	/**
+	 * Returns the lookahead of the events having the given tag, i.e., the minimum
+	 * delay of any event scheduled to, or any state read from or written to,
+	 * another entity when this entity processes such an event.
+	 * <ul>
+	 * <li>{@link Double#POSITIVE_INFINITY} means that processing the event only
+	 * involves this entity, it can be processed in parallel.</li>
+	 * <li>A positive value means that the other entities are only involved after
+	 * that delay, e.g., the latency of a network link.</li>
+	 * <li>0 means that the event must be processed sequentially.</li>
+	 * </ul>
+	 * The lookahead is checked when the event is scheduled. When it decreases
+	 * afterwards, {@link PureEdgeSim#updateLocality(SimEntity)} must be called.
+	 *
+	 * @param tag the event tag
+	 * @return the lookahead in seconds
+	 */
+	double getLookahead(int tag);
+
+}
@@ -0,0 +1,399 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A {@link Queue} of events that does not keep the {@link Event} objects: the
+ * pending events are stored in parallel primitive arrays, and the events are
+ * only created again when they reach the head of the queue, to be processed.
+ * <p>
+ * Each pending event takes a slot in the arrays of the entity
+ * {@link SimEntity#getGlobalId() global ids}, tags, data and serials, and an
+ * entry in a 4-ary min-heap made of three arrays: the times, the serials, and
+ * the slots. This is about 40 bytes per pending event, instead of an event
+ * object and a tree node or a reference, and the heap compares the times of
+ * contiguous entries instead of following a reference per comparison. The
+ * events are processed in the same (time, serial) order as with the other
+ * queues.
+ * <p>
+ * The event returned by the schedule methods is only a handle: it can be used to
+ * {@link PureEdgeSim#cancel(Event) cancel} the event, but the pending event is
+ * a copy of it. The events returned by {@link #iterator()} and
+ * {@link #stream()} are copies too, in heap order. The event returned by
+ * {@link #first()} is created once, and returned by {@link #pollFirst()}. When
+ * {@link com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#pooledEvents
+ * pooled events} are enabled, the events created for the head of the queue
+ * come from the pool and go back to it once processed, while the handles are
+ * always allocated, as the queue never gives them back. Without the pool, each
+ * event is thus allocated twice.
+ *
+ * @see PureEdgeSim#createEventsQueue()
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#eventsQueue
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class PrimitiveEventQueue implements Queue<Event> {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The branching factor of the heap.
+	 */
+	public static final int ARITY = 4;
+
+	/**
+	 * The serial of a free slot, never given to an event.
+	 */
+	protected static final long FREE = Long.MAX_VALUE;
+
+	/**
+	 * The engine, used to find the entities and to create the events.
+	 */
+	protected final PureEdgeSim simulation;
+
+	/**
+	 * The heap, ordered by time then serial: the time, the serial and the slot of
+	 * each pending event.
+	 */
+	protected double[] heapTimes;
+	protected long[] heapSerials;
+	protected int[] heapSlots;
+
+	protected int size;
+
+	/**
+	 * The attributes of the pending events, by slot.
+	 */
+	protected int[] entityIds;
+	protected int[] tags;
+	protected Object[] data;
+	protected long[] slotSerials;
+	protected boolean[] cancelled;
+
+	/**
+	 * The number of slots that have been used so far.
+	 */
+	protected int slotsCount;
+
+	/**
+	 * The slots that have been freed, to be reused.
+	 */
+	protected int[] freeSlots;
+
+	protected int freeSlotsCount;
+
+	protected long serial;
+
+	protected long lowestSerial;
+
+	/** @see #getMaxTsNumber() */
+	protected long maxTsNumber;
+
+	/**
+	 * Incremented on each structural modification, used to detect concurrent
+	 * modifications while iterating.
+	 */
+	protected int modCount;
+
+	/**
+	 * The event created for the head of the queue, null until {@link #first()} is
+	 * called.
+	 */
+	protected transient Event head;
+
+	/**
+	 * Creates a queue with room for 64 events.
+	 *
+	 * @param simulation the engine whose events are queued.
+	 */
+	public PrimitiveEventQueue(PureEdgeSim simulation) {
+		this(simulation, 64);
+	}
+
+	/**
+	 * Creates a queue.
+	 *
+	 * @param simulation      the engine whose events are queued.
+	 * @param initialCapacity the initial number of events the arrays can hold.
+	 */
+	public PrimitiveEventQueue(PureEdgeSim simulation, int initialCapacity) {
+		this.simulation = simulation;
+		final int capacity = Math.max(1, initialCapacity);
+		heapTimes = new double[capacity];
+		heapSerials = new long[capacity];
+		heapSlots = new int[capacity];
+		entityIds = new int[capacity];
+		tags = new int[capacity];
+		data = new Object[capacity];
+		slotSerials = new long[capacity];
+		cancelled = new boolean[capacity];
+		freeSlots = new int[capacity];
+	}
+
+	@Override
+	public void add(final Event event) {
+		event.setSerial(serial++);
+		offer(event);
+		maxTsNumber = Math.max(maxTsNumber, size);
+	}
+
+	@Override
+	public void addFirst(final Event event) {
+		event.setSerial(--lowestSerial);
+		offer(event);
+	}
+
+	protected void offer(final Event event) {
+		final int globalId = event.getSimEntity().getGlobalId();
+		if (globalId < 0)
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ " - The events can only be scheduled to entities registered in the simulation.");
+		if (size == heapTimes.length)
+			grow();
+
+		final int slot = freeSlotsCount > 0 ? freeSlots[--freeSlotsCount] : slotsCount++;
+		entityIds[slot] = globalId;
+		tags[slot] = event.getTag();
+		data[slot] = event.getData();
+		slotSerials[slot] = event.getSerial();
+		cancelled[slot] = event.isCancelled();
+		event.slot = slot;
+
+		siftUp(size++, event.getTime(), event.getSerial(), slot);
+		if (heapSlots[0] == slot)
+			head = null;
+		modCount++;
+	}
+
+	protected void grow() {
+		final int capacity = heapTimes.length << 1;
+		heapTimes = Arrays.copyOf(heapTimes, capacity);
+		heapSerials = Arrays.copyOf(heapSerials, capacity);
+		heapSlots = Arrays.copyOf(heapSlots, capacity);
+		entityIds = Arrays.copyOf(entityIds, capacity);
+		tags = Arrays.copyOf(tags, capacity);
+		data = Arrays.copyOf(data, capacity);
+		slotSerials = Arrays.copyOf(slotSerials, capacity);
+		cancelled = Arrays.copyOf(cancelled, capacity);
+		freeSlots = Arrays.copyOf(freeSlots, capacity);
+	}
+
+	@Override
+	public Event first() throws NoSuchElementException {
+		if (size == 0)
+			throw new NoSuchElementException();
+		if (head == null) {
+			final int slot = heapSlots[0];
+			head = simulation.newEvent(simulation.entities.entities.get(entityIds[slot]), heapTimes[0], tags[slot],
+					data[slot]);
+			head.setSerial(heapSerials[0]);
+			head.cancelled = cancelled[slot];
+			head.slot = slot;
+		}
+		return head;
+	}
+
+	@Override
+	public Event pollFirst() {
+		if (size == 0)
+			return null;
+		final Event result = first();
+		removeAt(0);
+		result.slot = -1;
+		return result;
+	}
+
+	/**
+	 * Cancels a pending event. Nothing is done if the event is not in the queue,
+	 * e.g., if it has already been processed.
+	 *
+	 * @param event the event, as returned by the schedule methods.
+	 * @see PureEdgeSim#cancel(Event)
+	 */
+	public void cancel(final Event event) {
+		final int slot = event.slot;
+		if (slot < 0 || slot >= slotsCount || slotSerials[slot] != event.getSerial())
+			return;
+		cancelled[slot] = true;
+		if (head != null && head.slot == slot)
+			head.cancelled = true;
+	}
+
+	/**
+	 * Removes an event from the queue. This requires a linear search, use
+	 * {@link #pollFirst()} to remove the head of the queue.
+	 *
+	 * @param event the event to remove
+	 * @return true if successful; false if not event was removed
+	 */
+	@Override
+	public boolean remove(final Event event) {
+		final int slot = event.slot;
+		if (slot < 0 || slot >= slotsCount || slotSerials[slot] != event.getSerial())
+			return false;
+		for (int i = 0; i < size; i++) {
+			if (heapSlots[i] == slot) {
+				removeAt(i);
+				event.slot = -1;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected void removeAt(final int index) {
+		modCount++;
+		if (index == 0)
+			head = null;
+
+		final int slot = heapSlots[index];
+		data[slot] = null;
+		slotSerials[slot] = FREE;
+		freeSlots[freeSlotsCount++] = slot;
+
+		final int last = --size;
+		if (index == last)
+			return;
+		final double time = heapTimes[last];
+		final long lastSerial = heapSerials[last];
+		final int lastSlot = heapSlots[last];
+		siftDown(index, time, lastSerial, lastSlot);
+		if (heapSlots[index] == lastSlot)
+			siftUp(index, time, lastSerial, lastSlot);
+	}
+
+	protected void siftUp(int index, final double time, final long serial, final int slot) {
+		while (index > 0) {
+			final int parent = (index - 1) / ARITY;
+			if (!isBefore(time, serial, heapTimes[parent], heapSerials[parent]))
+				break;
+			move(parent, index);
+			index = parent;
+		}
+		set(index, time, serial, slot);
+	}
+
+	protected void siftDown(int index, final double time, final long serial, final int slot) {
+		while (true) {
+			final int firstChild = index * ARITY + 1;
+			if (firstChild >= size)
+				break;
+			final int lastChild = Math.min(firstChild + ARITY, size);
+			int smallest = firstChild;
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				if (isBefore(heapTimes[child], heapSerials[child], heapTimes[smallest], heapSerials[smallest]))
+					smallest = child;
+			}
+			if (!isBefore(heapTimes[smallest], heapSerials[smallest], time, serial))
+				break;
+			move(smallest, index);
+			index = smallest;
+		}
+		set(index, time, serial, slot);
+	}
+
+	protected static boolean isBefore(double time, long serial, double otherTime, long otherSerial) {
+		return time < otherTime || (time == otherTime && serial < otherSerial);
+	}
+
+	protected void move(final int from, final int to) {
+		heapTimes[to] = heapTimes[from];
+		heapSerials[to] = heapSerials[from];
+		heapSlots[to] = heapSlots[from];
+	}
+
+	protected void set(final int index, final double time, final long serial, final int slot) {
+		heapTimes[index] = time;
+		heapSerials[index] = serial;
+		heapSlots[index] = slot;
+	}
+
+	/**
+	 * Creates a copy of the pending event at the given position of the heap.
+	 *
+	 * @param index the position in the heap.
+	 * @return the event
+	 */
+	protected Event eventAt(final int index) {
+		final int slot = heapSlots[index];
+		final Event event = new Event(simulation.entities.entities.get(entityIds[slot]), heapTimes[index], tags[slot],
+				data[slot]);
+		event.setSerial(heapSerials[index]);
+		event.cancelled = cancelled[slot];
+		event.slot = slot;
+		return event;
+	}
+
+	@Override
+	public Iterator<Event> iterator() {
+		return new Iterator<Event>() {
+			private int cursor;
+			private final int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < size;
+			}
+
+			@Override
+			public Event next() {
+				if (expectedModCount != modCount)
+					throw new ConcurrentModificationException();
+				if (cursor >= size)
+					throw new NoSuchElementException();
+				return eventAt(cursor++);
+			}
+		};
+	}
+
+	@Override
+	public Stream<Event> stream() {
+		return IntStream.range(0, size).mapToObj(this::eventAt);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the maximum number of elements that has ever been in the queue at the
+	 * same time.
+	 *
+	 * @return the maximum number of elements
+	 */
+	public long getMaxTsNumber() {
+		return maxTsNumber;
+	}
+
+}
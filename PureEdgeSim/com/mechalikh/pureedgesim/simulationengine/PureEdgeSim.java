@@ -20,9 +20,15 @@
  **/
 package com.mechalikh.pureedgesim.simulationengine;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.DefaultSimulationManager;
 
 /**
@@ -43,6 +49,25 @@ import com.mechalikh.pureedgesim.simulationmanager.DefaultSimulationManager;
  * simulation entities of the start of the simulation in order to schedule their
  * first event. This is guaranteed by the {@link SimEntity#startInternal()
  * startInternal()} method.
+ * <p>
+ * Events are processed in a deterministic order:
+ * <ol>
+ * <li>Events scheduled with no delay, using
+ * {@link SimEntity#scheduleNow(SimEntity, int) scheduleNow()}, are put in a
+ * FIFO lane and are processed in the order they were scheduled, right after
+ * the event that scheduled them and before any other event, including the
+ * remaining events of the same instant. The lane is always empty before the
+ * clock advances.</li>
+ * <li>The other events are processed in the order of their time, and events
+ * having the same time are processed in the order they were scheduled (i.e.,
+ * by serial number).</li>
+ * </ol>
+ * Cancelled events are not removed from the queue, they are marked as
+ * cancelled and skipped when they reach its head.
+ * <p>
+ * The engine, and everything it references (the entities, the pending events
+ * and the objects they carry), can be saved to a {@link Checkpoint} between two
+ * instants of the simulation, and {@link #resume() resumed} later.
  * 
  * @see com.mechalikh.pureedgesim.simulationengine.PureEdgeSim#start()
  * @see com.mechalikh.pureedgesim.simulationmanager.SimulationThread#startSimulation()
@@ -53,11 +78,137 @@ import com.mechalikh.pureedgesim.simulationmanager.DefaultSimulationManager;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 5.0
  */
-public class PureEdgeSim {
-	List<SimEntity> entitiesList = new ArrayList<>();
+public class PureEdgeSim implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	protected final EntityRegistry entities = new EntityRegistry();
 	protected double time;
 	protected boolean isRunning = true;
-	protected FutureQueue<Event> events;
+	protected Queue<Event> events;
+
+	/**
+	 * The FIFO lane of the events that happen at the current time.
+	 * 
+	 * @see #insertFirst(Event)
+	 * @see #processNowEvents()
+	 */
+	protected final ArrayDeque<Event> nowEvents = new ArrayDeque<>();
+
+	/**
+	 * The serial of the next event added to the FIFO lane. These serials are
+	 * increasing and lower than those of the events queue.
+	 */
+	protected long nowSerial = Long.MIN_VALUE;
+
+	/**
+	 * Whether processed events are recycled.
+	 * 
+	 * @see SimulationParameters#pooledEvents
+	 */
+	protected final boolean pooledEvents = SimulationParameters.pooledEvents;
+
+	/**
+	 * The processed events that can be reused.
+	 * 
+	 * @see #newEvent(SimEntity, double, int, Object)
+	 * @see #recycle(Event)
+	 */
+	protected final ArrayDeque<Event> eventsPool = new ArrayDeque<>();
+
+	/**
+	 * The number of partitions (logical processes) the entities are divided into.
+	 * 
+	 * @see #setPartitions(int, double)
+	 */
+	protected int partitionsCount = 1;
+
+	/**
+	 * The minimum latency of the network links between two partitions.
+	 * 
+	 * @see #setPartitions(int, double)
+	 */
+	protected double networkLookahead = Double.POSITIVE_INFINITY;
+
+	/**
+	 * The profiler of this engine, null when
+	 * {@link SimulationParameters#engineProfiling profiling} is disabled.
+	 * 
+	 * @see #getProfiler()
+	 */
+	protected final EngineProfiler profiler = SimulationParameters.engineProfiling ? new EngineProfiler() : null;
+
+	/**
+	 * The interval between two checkpoints, in seconds of simulation time, 0 when
+	 * checkpoints are disabled.
+	 * 
+	 * @see #enableCheckpoints(double, String)
+	 */
+	protected double checkpointInterval;
+
+	/**
+	 * The simulation time after which the next checkpoint is saved.
+	 */
+	protected double nextCheckpointTime = Double.POSITIVE_INFINITY;
+
+	/**
+	 * The path and name prefix of the checkpoint files.
+	 */
+	protected String checkpointPrefix;
+
+	/**
+	 * Records the processed events, null when tracing is disabled. The trace file
+	 * is not part of the checkpoints.
+	 * 
+	 * @see #enableTrace(File, int)
+	 */
+	protected transient TraceRecorder traceRecorder;
+
+	/**
+	 * Whether the entities have been notified of the start of the simulation.
+	 * 
+	 * @see #initialize()
+	 */
+	protected boolean started;
+
+	/**
+	 * Whether the entities have been notified of the end of the simulation.
+	 * 
+	 * @see #finish()
+	 */
+	protected boolean finished;
+
+	/**
+	 * Set, possibly by another thread, to stop processing events.
+	 * 
+	 * @see #pause()
+	 */
+	protected volatile boolean paused;
+
+	/**
+	 * Whether events are being processed by {@link #runUntil(double)} or
+	 * {@link #step(int)}. Checkpoints are saved while processing, so this is not
+	 * part of them.
+	 */
+	private transient boolean processing;
+
+	/**
+	 * The shared periodic timers service, null when the
+	 * {@link SimulationParameters#timingWheel timing wheel} is disabled.
+	 * 
+	 * @see #getTimingWheel()
+	 */
+	protected final TimingWheel timingWheel;
+
+	/**
+	 * The random numbers service, seeded with the
+	 * {@link SimulationParameters#randomSeed random seed}, or randomly when it is
+	 * not set.
+	 * 
+	 * @see #getRandomStreams()
+	 */
+	protected final RandomStreams randomStreams = new RandomStreams(
+			SimulationParameters.randomSeed != null ? SimulationParameters.randomSeed
+					: ThreadLocalRandom.current().nextLong());
 
 	/**
 	 * Gets the current simulation time in seconds.
@@ -78,7 +229,35 @@ public class PureEdgeSim {
 	 * @see #start()
 	 */
 	public PureEdgeSim() {
-		events = new FutureQueue<>();
+		events = createEventsQueue();
+		timingWheel = SimulationParameters.timingWheel ? new TimingWheel(this, SimulationParameters.updateInterval)
+				: null;
+	}
+
+	/**
+	 * Creates the future events queue according to the
+	 * {@link SimulationParameters#eventsQueue events_queue} parameter: a
+	 * {@link DaryHeapQueue} for "HEAP" (default), a {@link CalendarQueue} for
+	 * "CALENDAR", a {@link PrimitiveEventQueue} for "PRIMITIVE", or a
+	 * {@link FutureQueue} for "TREE". All of them give the same (time, serial)
+	 * ordering. Override this method to use a custom implementation of the
+	 * {@link Queue} interface.
+	 * 
+	 * @return the events queue.
+	 * 
+	 * @see DaryHeapQueue
+	 * @see CalendarQueue
+	 * @see PrimitiveEventQueue
+	 * @see FutureQueue
+	 */
+	protected Queue<Event> createEventsQueue() {
+		if ("TREE".equals(SimulationParameters.eventsQueue))
+			return new FutureQueue<>();
+		if ("PRIMITIVE".equals(SimulationParameters.eventsQueue))
+			return new PrimitiveEventQueue(this);
+		if ("CALENDAR".equals(SimulationParameters.eventsQueue))
+			return new CalendarQueue<>(CalendarQueue.MIN_BUCKETS, SimulationParameters.updateInterval);
+		return new DaryHeapQueue<>();
 	}
 
 	/**
@@ -92,6 +271,9 @@ public class PureEdgeSim {
 	 * simulation will stop either if the event queue is empty, or when the user
 	 * terminates it by calling the {@link PureEdgeSim#terminate() terminate()}
 	 * method.
+	 * <p>
+	 * To advance the simulation step by step instead, e.g., from an optimization
+	 * loop, see {@link #runUntil(double)} and {@link #step(int)}.
 	 * 
 	 * @see com.mechalikh.pureedgesim.simulationmanager.Simulation#launchSimulation()
 	 * @see com.mechalikh.pureedgesim.simulationmanager.SimulationThread#startSimulation()
@@ -100,18 +282,282 @@ public class PureEdgeSim {
 	 * @see #terminate()
 	 */
 	public void start() {
+		initialize();
+		run();
+	}
+
+	/**
+	 * Resumes the simulation until its end, after it has been {@link #pause()
+	 * paused}, or once loaded from a {@link Checkpoint}. Unlike {@link #start()},
+	 * the entities are not notified of the start of the simulation again: the
+	 * events are processed from where the simulation stopped.
+	 * 
+	 * @see Checkpoint#load(File)
+	 * @see com.mechalikh.pureedgesim.simulationmanager.Simulation#launchSimulation(String)
+	 */
+	public void resume() {
+		run();
+	}
+
+	/**
+	 * Processes the events until the end of the simulation, saving checkpoints
+	 * along the way if they are enabled, then {@link #finish() finishes} it,
+	 * unless it has been paused.
+	 * 
+	 * @see #start()
+	 * @see #resume()
+	 */
+	protected void run() {
+		runUntil(Double.MAX_VALUE);
+		if (!paused)
+			finish();
+	}
+
+	/**
+	 * Notifies all the simulation entities that the simulation has started, so
+	 * that they schedule their first events. It is called by {@link #start()},
+	 * {@link #runUntil(double)} and {@link #step(int)}, and only has an effect the
+	 * first time.
+	 * 
+	 * @see SimEntity#startInternal()
+	 * @see #finish()
+	 */
+	public synchronized void initialize() {
+		if (started)
+			return;
+		started = true;
+
 		// Notify all entities that the simulation has started.
-		entitiesList.forEach(SimEntity::startInternal);
+		entities.forEach(SimEntity::startInternal);
+	}
+
+	/**
+	 * Ends the simulation: notifies all the entities, including the removed ones,
+	 * of the end of the simulation, then clears the registry. It is called by
+	 * {@link #start()} and {@link #resume()} when the simulation is over, but must
+	 * be called by the driver when the simulation is advanced with
+	 * {@link #runUntil(double)} or {@link #step(int)}. Only the first call has an
+	 * effect.
+	 * 
+	 * @see SimEntity#onSimulationEnd()
+	 * @see #initialize()
+	 */
+	public synchronized void finish() {
+		checkNotProcessing();
+		if (finished)
+			return;
+		finished = true;
+
+		if (profiler != null)
+			profiler.stop(time);
+
+		if (traceRecorder != null) {
+			try {
+				traceRecorder.close(entities.entities);
+			} catch (IOException e) {
+				throw new IllegalStateException(getClass().getSimpleName() + " - Unable to save the trace "
+						+ traceRecorder.getFile().getPath() + ".", e);
+			}
+		}
 
-		while (runClockTickAndProcessFutureEvents(Double.MAX_VALUE) && isRunning) {
-			// All the processing happens inside the method called above
+		// Iteration finished, notify all entities (including the removed ones) and
+		// clear their list
+		entities.entities.forEach(SimEntity::onSimulationEnd);
+		entities.clear();
+	}
+
+	/**
+	 * Processes all the events happening up to the given time (included), then
+	 * sets the clock to that time, so the driver can inspect the entities or
+	 * schedule new events before continuing. The simulation is
+	 * {@link #initialize() initialized} first if needed. It stops earlier if the
+	 * simulation is {@link #terminate() terminated} or {@link #pause() paused}, in
+	 * which case the current instant is processed entirely. Checkpoints are saved
+	 * along the way if they are enabled.
+	 * <p>
+	 * This method can be called repeatedly, from any thread, but not by the
+	 * entities while they process events.
+	 * 
+	 * @param until the simulation time to reach, in seconds.
+	 * @return true if the simulation can continue, false if it has been
+	 *         terminated or if there are no more events
+	 * @see #step(int)
+	 * @see #finish()
+	 */
+	public synchronized boolean runUntil(final double until) {
+		enter();
+		try {
+			while (!paused && isRunning && runClockTickAndProcessFutureEvents(until)) {
+				// The events are processed by the method called above, between two instants
+				if (time >= nextCheckpointTime)
+					saveCheckpoint();
+			}
+			// Reached the requested time, with no event before it
+			if (!paused && isRunning && until > time && until < Double.MAX_VALUE)
+				time = until;
+		} finally {
+			exit();
 		}
+		return isRunning && hasPendingEvents();
+	}
+
+	/**
+	 * Processes the given number of events, one by one, in the same order as the
+	 * other methods. The simulation is {@link #initialize() initialized} first if
+	 * needed. It stops earlier if there are no more events, if the simulation is
+	 * {@link #pause() paused}, or once the instant in which it has been
+	 * {@link #terminate() terminated} has been processed. No checkpoint is saved.
+	 * <p>
+	 * This method can be called repeatedly, from any thread, but not by the
+	 * entities while they process events.
+	 * 
+	 * @param count the maximum number of events to process.
+	 * @return the number of processed events, lower than {@code count} if the
+	 *         simulation has stopped
+	 * @see #runUntil(double)
+	 * @see #finish()
+	 */
+	public synchronized int step(final int count) {
+		enter();
+		int processed = 0;
+		try {
+			while (processed < count && !paused && processNextEvent(isRunning ? Double.MAX_VALUE : time))
+				processed++;
+		} finally {
+			exit();
+		}
+		return processed;
+	}
+
+	/**
+	 * Pauses the simulation: {@link #runUntil(double)}, {@link #start()} and
+	 * {@link #resume()} return once the current instant has been processed, and
+	 * {@link #step(int)} after the current event. It can be called from any thread,
+	 * or by an entity. The simulation continues on the next call of one of these
+	 * methods.
+	 * 
+	 * @see #isPaused()
+	 */
+	public void pause() {
+		paused = true;
+	}
+
+	/**
+	 * Returns whether the simulation has been paused and not continued yet.
+	 * 
+	 * @return true if the simulation is paused
+	 * @see #pause()
+	 */
+	public boolean isPaused() {
+		return paused;
+	}
+
+	/**
+	 * Returns whether the simulation has been {@link #finish() finished}, in which
+	 * case it cannot be continued.
+	 * 
+	 * @return true if the simulation has finished
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * Called before processing events from one of the public methods.
+	 */
+	private void enter() {
+		checkNotProcessing();
+		if (finished)
+			throw new IllegalStateException(getClass().getSimpleName() + " - The simulation has already finished.");
+		initialize();
+		processing = true;
+		paused = false;
+		if (profiler != null)
+			profiler.start();
+	}
+
+	private void exit() {
+		processing = false;
+	}
 
-		// Iteration finished, notify all entities and clear their list
-		entitiesList.forEach(SimEntity::onSimulationEnd);
-		entitiesList.clear();
+	private void checkNotProcessing() {
+		if (processing)
+			throw new IllegalStateException(
+					getClass().getSimpleName() + " - The simulation cannot be advanced or finished while processing an event.");
 	}
- 
+
+	/**
+	 * Returns whether there are events left to process.
+	 * 
+	 * @return true if there is a pending event
+	 */
+	protected boolean hasPendingEvents() {
+		return !nowEvents.isEmpty() || firstPendingEvent() != null;
+	}
+
+	/**
+	 * Saves a checkpoint every given interval of simulation time, to files named
+	 * after the given prefix and the simulation time of the checkpoint. A
+	 * checkpoint is saved as soon as all the events of the instant that reaches
+	 * the interval have been processed.
+	 * 
+	 * @param interval   the interval in seconds, 0 to disable the checkpoints.
+	 * @param filePrefix the path and name prefix of the checkpoint files.
+	 * @see SimulationParameters#checkpointInterval
+	 * @see Checkpoint
+	 */
+	public void enableCheckpoints(double interval, String filePrefix) {
+		if (interval < 0)
+			throw new IllegalArgumentException(getClass().getSimpleName() + " - The checkpoint interval must be >= 0.");
+		this.checkpointInterval = interval;
+		this.checkpointPrefix = filePrefix;
+		this.nextCheckpointTime = interval > 0 ? (Math.floor(time / interval) + 1) * interval
+				: Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Records the events processed from now on in a binary trace file.
+	 * 
+	 * @param file     the trace file, it is replaced if it exists.
+	 * @param capacity the number of events kept in the trace, the oldest ones are
+	 *                 overwritten once it is full.
+	 * @throws IOException if the file cannot be created
+	 * @see SimulationParameters#traceEvents
+	 * @see TraceRecorder
+	 */
+	public void enableTrace(File file, int capacity) throws IOException {
+		if (traceRecorder != null)
+			traceRecorder.close();
+		traceRecorder = new TraceRecorder(file, capacity);
+	}
+
+	/**
+	 * Gets the recorder of the processed events.
+	 * 
+	 * @return the trace recorder, or null if tracing is disabled
+	 */
+	public TraceRecorder getTraceRecorder() {
+		return traceRecorder;
+	}
+
+	/**
+	 * Saves a checkpoint of the simulation at the current time, and computes the
+	 * time of the next one.
+	 * 
+	 * @see #enableCheckpoints(double, String)
+	 */
+	protected void saveCheckpoint() {
+		// Updated before saving, so that a resumed simulation saves the next one
+		nextCheckpointTime = (Math.floor(time / checkpointInterval) + 1) * checkpointInterval;
+		final File file = new File(checkpointPrefix + "_checkpoint_" + (long) time + Checkpoint.EXTENSION);
+		try {
+			Checkpoint.save(this, file);
+		} catch (IOException e) {
+			throw new IllegalStateException(
+					getClass().getSimpleName() + " - Unable to save the checkpoint " + file.getPath() + ".", e);
+		}
+	}
+
 	/**
 	 * Processes future events as long as the simulation end time has not reached.
 	 * 
@@ -123,14 +569,15 @@ public class PureEdgeSim {
 	 * @see #processFutureEventsHappeningAtSameTimeOfTheFirstOne(Event)
 	 */
 	protected boolean runClockTickAndProcessFutureEvents(final double until) {
+		processNowEvents();
 
-		if (getEventsQueue().isEmpty()) {
+		final Event first = firstPendingEvent();
+		if (first == null) {
 			return false;
 		}
 
-		final Event first = events.first();
 		if (first.getTime() <= until) {
-			processFutureEventsHappeningAtSameTimeOfTheFirstOne(first);
+			processFutureEventsHappeningAtSameTimeOfTheFirstOne(events.pollFirst());
 			return true;
 		}
 
@@ -139,24 +586,108 @@ public class PureEdgeSim {
 
 	/**
 	 * Processes events happening at the same time as the first event in the queue,
-	 * and updates the simulation time.
+	 * and updates the simulation time. Each event is removed from the queue before
+	 * being processed, and the events it schedules for the current time are
+	 * processed right after it.
 	 * 
 	 * @param firstEvent the first event in the queue at this instant of the
-	 *                   simulation.
+	 *                   simulation, already removed from the queue.
 	 * @see #start()
 	 * @see #runClockTickAndProcessFutureEvents(double)
 	 * @see #processEvent(Event)
 	 */
 	protected void processFutureEventsHappeningAtSameTimeOfTheFirstOne(final Event firstEvent) {
+		final double firstEventTime = firstEvent.getTime();
 		processEvent(firstEvent);
-		getEventsQueue().remove(firstEvent);
-
-		while (!getEventsQueue().isEmpty()) {
-			final Event evt = getEventsQueue().first();
-			if (evt.getTime() != firstEvent.getTime())
-				break;
-			processEvent(evt);
-			events.remove(evt);
+		processNowEvents();
+
+		Event next;
+		while ((next = firstPendingEvent()) != null && next.getTime() == firstEventTime) {
+			processEvent(events.pollFirst());
+			processNowEvents();
+		}
+	}
+
+	/**
+	 * Processes the next event: the first one of the FIFO lane if any, otherwise
+	 * the first one of the queue, provided it happens before the given time.
+	 * 
+	 * @param until the time after which no event is processed.
+	 * @return false if there is no event to process before that time
+	 * @see #step(int)
+	 */
+	protected boolean processNextEvent(final double until) {
+		if (processNextNowEvent())
+			return true;
+
+		final Event first = firstPendingEvent();
+		if (first == null || first.getTime() > until)
+			return false;
+		processEvent(events.pollFirst());
+		return true;
+	}
+
+	/**
+	 * Processes the first event of the FIFO lane that has not been cancelled, if
+	 * any.
+	 * 
+	 * @return false if the lane is empty
+	 */
+	protected boolean processNextNowEvent() {
+		Event event;
+		while ((event = nowEvents.pollFirst()) != null) {
+			if (!event.isCancelled()) {
+				processEvent(event);
+				return true;
+			}
+			discard(event);
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the first event of the queue that has not been cancelled. The cancelled
+	 * events found at the head of the queue are discarded.
+	 * 
+	 * @return the first pending event, or null if there is none
+	 * @see #cancel(Event)
+	 */
+	protected Event firstPendingEvent() {
+		while (!events.isEmpty()) {
+			final Event first = events.first();
+			if (!first.isCancelled())
+				return first;
+			discard(events.pollFirst());
+		}
+		return null;
+	}
+
+	/**
+	 * Drops a cancelled event that has been removed from the queue, without
+	 * processing it nor updating the simulation time.
+	 * 
+	 * @param event the cancelled event
+	 * @see #cancel(Event)
+	 */
+	protected void discard(Event event) {
+		if (pooledEvents)
+			recycle(event);
+	}
+
+	/**
+	 * Processes the events of the FIFO lane, in the order they were added,
+	 * including those added while the lane is being processed.
+	 * 
+	 * @see #insertFirst(Event)
+	 * @see #processFutureEventsHappeningAtSameTimeOfTheFirstOne(Event)
+	 */
+	protected void processNowEvents() {
+		Event event;
+		while ((event = nowEvents.pollFirst()) != null) {
+			if (event.isCancelled())
+				discard(event);
+			else
+				processEvent(event);
 		}
 	}
 
@@ -175,16 +706,81 @@ public class PureEdgeSim {
 		}
 
 		time = event.getTime();
-		event.getSimEntity().processEvent(event);
+		if (traceRecorder != null)
+			traceRecorder.record(event);
+		if (profiler == null) {
+			event.getSimEntity().processEvent(event);
+		} else {
+			final long start = System.nanoTime();
+			event.getSimEntity().processEvent(event);
+			profiler.record(event, System.nanoTime() - start, events.size() + nowEvents.size());
+		}
+
+		if (pooledEvents)
+			recycle(event);
+	}
 
+	/**
+	 * Creates a new event, or reuses a processed one when
+	 * {@link SimulationParameters#pooledEvents pooled events} are enabled.
+	 * 
+	 * @param simEntity the entity that will process the event.
+	 * @param time      the time of the event.
+	 * @param tag       the tag of the event.
+	 * @param data      the data of the event.
+	 * @return the event
+	 * @see #recycle(Event)
+	 * @see SimEntity#schedule(SimEntity, double, int, Object)
+	 */
+	Event newEvent(SimEntity simEntity, double time, int tag, Object data) {
+		final Event event = eventsPool.pollLast();
+		if (event == null)
+			return new Event(simEntity, time, tag, data);
+		event.init(simEntity, time, tag, data);
+		return event;
+	}
+
+	/**
+	 * Creates an event to be added to the events queue. A
+	 * {@link PrimitiveEventQueue} only keeps a copy of the event, which is then
+	 * never processed nor recycled: it is allocated rather than taken from the
+	 * pool, which would otherwise be drained by these events.
+	 * 
+	 * @param simEntity the entity that will process the event.
+	 * @param time      the time of the event.
+	 * @param tag       the tag of the event.
+	 * @param data      the data of the event.
+	 * @return the event
+	 * @see #newEvent(SimEntity, double, int, Object)
+	 * @see #insert(Event)
+	 */
+	Event newQueuedEvent(SimEntity simEntity, double time, int tag, Object data) {
+		if (events instanceof PrimitiveEventQueue)
+			return new Event(simEntity, time, tag, data);
+		return newEvent(simEntity, time, tag, data);
+	}
+
+	/**
+	 * Puts a processed event back in the pool, unless it has been
+	 * {@link Event#retain() retained} by the entity that processed it.
+	 * 
+	 * @param event the processed event.
+	 * @see #newEvent(SimEntity, double, int, Object)
+	 * @see Event#retain()
+	 */
+	protected void recycle(Event event) {
+		if (event.isRetained())
+			return;
+		event.clear();
+		eventsPool.addLast(event);
 	}
 
 	/**
 	 * Adds an event to the queue
 	 * 
 	 * @param event the new event.
-	 * @see SimEntity#schedule(SimEntity, Double, int)
-	 * @see SimEntity#schedule(SimEntity, Double, int, Object)
+	 * @see SimEntity#schedule(SimEntity, double, int)
+	 * @see SimEntity#schedule(SimEntity, double, int, Object)
 	 * @see SimEntity#startInternal()
 	 * @see FutureQueue
 	 * @see #start()
@@ -196,26 +792,116 @@ public class PureEdgeSim {
 	}
 
 	/**
-	 * Adds an event to the head of the queue
+	 * Adds an event that happens at the current time to the FIFO lane. It will be
+	 * processed before any event of the queue, but after the events already in the
+	 * lane. This costs O(1), as the lane is a simple deque.
 	 * 
-	 * @param event the new event.
-	 * @see SimEntity#schedule(SimEntity, Double, int)
-	 * @see SimEntity#schedule(SimEntity, Double, int, Object)
-	 * @see SimEntity#startInternal()
-	 * @see FutureQueue
+	 * @param event the new event, its time must be the current simulation time.
+	 * @see SimEntity#scheduleNow(SimEntity, int)
+	 * @see SimEntity#scheduleNow(SimEntity, int, Object)
+	 * @see #processNowEvents()
 	 * @see #start()
 	 * @see #runClockTickAndProcessFutureEvents(double)
 	 * @see #processFutureEventsHappeningAtSameTimeOfTheFirstOne(Event)
 	 */
 	public void insertFirst(Event event) {
-		getEventsQueue().addFirst(event);
+		event.setSerial(nowSerial++);
+		nowEvents.addLast(event);
+	}
+
+	/**
+	 * Cancels a scheduled event. The event is not removed from the queue right
+	 * away, it is marked as cancelled (a tombstone) and dropped when it reaches the
+	 * head of the queue, which works with any {@link Queue} implementation and
+	 * costs O(1). Cancelling an event that has already been processed has no
+	 * effect, but when {@link SimulationParameters#pooledEvents pooled events} are
+	 * enabled, the reference must have been {@link Event#retain() retained}, as
+	 * processed events are reused.
+	 * 
+	 * @param event the event to cancel.
+	 * @see SimEntity#cancel(Event)
+	 * @see #cancelAll(Predicate)
+	 */
+	public void cancel(Event event) {
+		event.cancelled = true;
+		// A primitive queue keeps a copy of the pending event
+		if (event.slot >= 0 && events instanceof PrimitiveEventQueue)
+			((PrimitiveEventQueue) events).cancel(event);
+	}
+
+	/**
+	 * Cancels all the pending events that match the given predicate. This requires
+	 * going through all the pending events.
+	 * 
+	 * @param predicate the condition of the events to cancel.
+	 * @return the number of cancelled events
+	 * @see #cancel(Event)
+	 * @see SimEntity#cancelAll(SimEntity, int)
+	 * @see SimEntity#cancelAll(SimEntity)
+	 */
+	public int cancelAll(Predicate<Event> predicate) {
+		int count = cancelMatching(events.iterator(), predicate);
+		count += cancelMatching(nowEvents.iterator(), predicate);
+		return count;
+	}
+
+	private int cancelMatching(Iterator<Event> iterator, Predicate<Event> predicate) {
+		int count = 0;
+		while (iterator.hasNext()) {
+			final Event event = iterator.next();
+			if (!event.isCancelled() && predicate.test(event)) {
+				cancel(event);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Sets the number of partitions the {@link PartitionedEntity partitioned
+	 * entities} are divided into, and the minimum latency of the network links
+	 * connecting two different partitions. The sequential engine only keeps these
+	 * values, they are used by the {@link ConservativePureEdgeSim conservative
+	 * parallel engine}.
+	 * 
+	 * @param partitionsCount  the number of partitions.
+	 * @param networkLookahead the minimum latency between two partitions.
+	 * @see com.mechalikh.pureedgesim.datacentersmanager.DataCentersManager#assignPartitions()
+	 */
+	public void setPartitions(int partitionsCount, double networkLookahead) {
+		this.partitionsCount = partitionsCount;
+		this.networkLookahead = networkLookahead;
+	}
+
+	/**
+	 * Gets the minimum latency of the network links connecting two different
+	 * partitions. Partitioned entities whose interactions with the other
+	 * partitions only go through the network can use it as lookahead.
+	 * 
+	 * @return the network lookahead in seconds
+	 * @see PartitionedEntity#getLookahead(int)
+	 */
+	public double getNetworkLookahead() {
+		return networkLookahead;
 	}
 
 	/**
-	 * Adds a simulation entity to the entities list. The simulation entities are
-	 * added to this list before starting the simulation. When the simulation is
-	 * started it notifies all of them of the beginning of the simulation in order
-	 * to schedule their first events.
+	 * Notifies the engine that the {@link PartitionedEntity#getLookahead(int)
+	 * lookahead} of the given entity has decreased, so that its pending events
+	 * are no longer processed in parallel. Does nothing in the sequential engine.
+	 * 
+	 * @param entity the entity
+	 * @see ConservativePureEdgeSim#updateLocality(SimEntity)
+	 */
+	public void updateLocality(SimEntity entity) {
+		// Nothing to do, all events are processed sequentially.
+	}
+
+	/**
+	 * Adds a simulation entity to the entities registry, and sets its id. The
+	 * simulation entities are added to the registry before starting the
+	 * simulation. When the simulation is started it notifies all of them of the
+	 * beginning of the simulation in order to schedule their first events.
 	 * 
 	 * @param simEntity the new simulation entity.
 	 * 
@@ -225,7 +911,31 @@ public class PureEdgeSim {
 	 * @see SimEntity#startInternal()
 	 */
 	public void addEntity(SimEntity simEntity) {
-		entitiesList.add(simEntity);
+		simEntity.setId(entities.register(simEntity));
+	}
+
+	/**
+	 * Removes an entity from the simulation: its pending events are cancelled,
+	 * the events scheduled to it afterwards are dropped, and it is no longer
+	 * returned by the {@link #getEntityRegistry() registry}. It keeps its ids and
+	 * is still notified of the end of the simulation.
+	 * 
+	 * @param simEntity the entity to remove.
+	 * @see EntityRegistry#deregister(SimEntity)
+	 */
+	public void removeEntity(SimEntity simEntity) {
+		if (entities.deregister(simEntity))
+			cancelAll(e -> e.getSimEntity() == simEntity);
+	}
+
+	/**
+	 * Gets the registry of the simulation entities, to look them up by global id
+	 * or iterate over those of a given type.
+	 * 
+	 * @return the entity registry
+	 */
+	public EntityRegistry getEntityRegistry() {
+		return entities;
 	}
 
 	/**
@@ -251,11 +961,45 @@ public class PureEdgeSim {
 	}
 
 	/**
-	 * Gets the list of generated events.
+	 * Gets the profiler of this engine, which collects statistics about the
+	 * processed events.
+	 * 
+	 * @return the profiler, or null if
+	 *         {@link SimulationParameters#engineProfiling profiling} is disabled
+	 */
+	public EngineProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Gets the shared service to which the entities can subscribe for periodic
+	 * events, instead of rescheduling themselves.
+	 * 
+	 * @return the timing wheel, or null if the
+	 *         {@link SimulationParameters#timingWheel timing wheel} is disabled
+	 */
+	public TimingWheel getTimingWheel() {
+		return timingWheel;
+	}
+
+	/**
+	 * Gets the service from which the entities get their random number
+	 * generators.
+	 * 
+	 * @return the random streams
+	 */
+	public RandomStreams getRandomStreams() {
+		return randomStreams;
+	}
+
+	/**
+	 * Gets the list of generated events. The events of the FIFO lane are not
+	 * included.
 	 * 
 	 * @return events queue
+	 * @see #insertFirst(Event)
 	 */
-	public FutureQueue<Event> getEventsQueue() {
+	public Queue<Event> getEventsQueue() {
 		return events;
 	}
 
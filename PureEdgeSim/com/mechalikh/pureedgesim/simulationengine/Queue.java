@@ -6,6 +6,7 @@
  */
 package com.mechalikh.pureedgesim.simulationengine;
 
+import java.io.Serializable;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.stream.Stream;
@@ -18,7 +19,7 @@ import java.util.stream.Stream;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 5.0
  */
-public interface Queue<T> {
+public interface Queue<T> extends Serializable {
     /**
      * Adds a new queue element to the queue. Adding a new element to the queue preserves the temporal order of
      * the elements in the queue.
@@ -27,6 +28,22 @@ public interface Queue<T> {
      */
     void add(T queueElement);
 
+    /**
+     * Adds a new queue element to the head of the queue, i.e., before the elements
+     * having the same time.
+     *
+     * @param queueElement The queueElement to be put in the queue.
+     */
+    void addFirst(T queueElement);
+
+    /**
+     * Removes an element from the queue.
+     *
+     * @param queueElement the element to remove
+     * @return true if the element was removed, false if it was not in the queue
+     */
+    boolean remove(T queueElement);
+
     /**
      * Returns an iterator to the elements into the queue.
      *
@@ -62,4 +79,11 @@ public interface Queue<T> {
      * @throws NoSuchElementException when the queue is empty
      */
     T first() throws NoSuchElementException;
+
+    /**
+     * Retrieves and removes the first element of the queue.
+     *
+     * @return the first element, or null if the queue is empty
+     */
+    T pollFirst();
 }
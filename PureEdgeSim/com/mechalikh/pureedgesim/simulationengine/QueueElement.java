@@ -1,8 +1,18 @@
 package com.mechalikh.pureedgesim.simulationengine;
 
-public interface QueueElement {
+import java.io.Serializable;
+
+public interface QueueElement extends Serializable {
 
 	long getSerial();
 
 	void setSerial(long l);
+
+	/**
+	 * Gets the time of this element, used by time-bucketed queues such as the
+	 * {@link CalendarQueue}.
+	 * 
+	 * @return the time of the element in seconds
+	 */
+	double getTime();
 }
@@ -0,0 +1,93 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+
+import java.io.Serializable;
+import java.util.random.RandomGenerator;
+
+/**
+ * A fast random number generator, based on the SplitMix64 algorithm (the one of
+ * {@link java.util.SplittableRandom}), that can be saved in the checkpoints.
+ * <p>
+ * The streams are handed out by the {@link RandomStreams random streams
+ * service} of the simulation, each entity using its own stream for each
+ * purpose, so that they do not depend on each other and the results can be
+ * reproduced from the master seed. A stream is not thread-safe, it must only
+ * be used by one entity.
+ *
+ * @see RandomStreams#getStream(String)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class RandomStream implements RandomGenerator, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The increment of the state, the odd integer closest to 2<sup>64</sup>
+	 * divided by the golden ratio.
+	 */
+	protected static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	protected long state;
+
+	/**
+	 * Creates a stream.
+	 *
+	 * @param seed the initial state.
+	 */
+	public RandomStream(long seed) {
+		this.state = seed;
+	}
+
+	@Override
+	public long nextLong() {
+		return mix64(state += GOLDEN_GAMMA);
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	/**
+	 * Creates a new stream, independent from this one, and advances this one.
+	 *
+	 * @return the new stream
+	 */
+	public RandomStream split() {
+		return new RandomStream(nextLong());
+	}
+
+	/**
+	 * The finalizer of SplitMix64, which spreads the bits of the given value.
+	 *
+	 * @param value the value to mix.
+	 * @return the mixed value
+	 */
+	public static long mix64(long value) {
+		value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+		return value ^ (value >>> 31);
+	}
+
+}
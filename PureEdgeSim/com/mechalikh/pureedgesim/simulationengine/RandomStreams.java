@@ -0,0 +1,168 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The random numbers service of a simulation. It derives independent
+ * {@link RandomStream streams} from a master seed, one per entity and per
+ * purpose, e.g., one for the mobility of each device, and one for the
+ * locations of the devices.
+ * <p>
+ * The seed of a stream only depends on the master seed, on its purpose and on
+ * its index, so the results of a simulation can be reproduced by setting the
+ * {@link com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#randomSeed
+ * random seed}, and adding streams for a purpose does not change the streams
+ * of the other purposes. Creating a stream costs a few multiplications, it
+ * never blocks waiting for entropy, and the simulations running in parallel do
+ * not share anything.
+ * <p>
+ * The numbers drawn from the streams can be {@link #record() recorded}, and
+ * {@link #replay(long, Map) replayed} by another simulation.
+ *
+ * @see PureEdgeSim#getRandomStreams()
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class RandomStreams implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	protected long seed;
+
+	/**
+	 * The number of streams handed out so far for each purpose.
+	 */
+	protected final Map<String, Long> counters = new HashMap<>();
+
+	/**
+	 * The recording streams handed out so far, by purpose and index, or null if
+	 * the draws are not recorded.
+	 * 
+	 * @see #record()
+	 */
+	protected Map<String, RecordedRandomStream> recorded;
+
+	/**
+	 * The draws replayed by the streams, by purpose and index, or null if the
+	 * draws are not replayed.
+	 * 
+	 * @see #replay(long, Map)
+	 */
+	protected Map<String, long[]> replayed;
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param seed the master seed.
+	 */
+	public RandomStreams(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Gets the next stream for the given purpose. The n-th call for a purpose
+	 * always returns the same stream, so the entities must request their streams
+	 * in a deterministic order, e.g., when they are created.
+	 *
+	 * @param purpose what the stream is used for, e.g., "mobility".
+	 * @return a new stream
+	 */
+	public RandomStream getStream(String purpose) {
+		final long index = counters.merge(purpose, 1L, Long::sum) - 1;
+		return getStream(purpose, index);
+	}
+
+	/**
+	 * Gets the stream having the given purpose and index, without changing the
+	 * streams returned by {@link #getStream(String)}.
+	 *
+	 * @param purpose what the stream is used for.
+	 * @param index   the index of the stream, e.g., the id of the entity.
+	 * @return a new stream, always starting from the same state for the same
+	 *         purpose and index
+	 */
+	public RandomStream getStream(String purpose, long index) {
+		final long base = RandomStream.mix64(seed ^ RandomStream.mix64(purpose.hashCode()));
+		final long streamSeed = RandomStream.mix64(base + (index + 1) * RandomStream.GOLDEN_GAMMA);
+		final String key = purpose + "#" + index;
+		if (replayed != null && replayed.containsKey(key))
+			return new RecordedRandomStream(streamSeed, replayed.get(key));
+		if (recorded != null) {
+			final RecordedRandomStream stream = new RecordedRandomStream(streamSeed);
+			// The same stream may be requested twice, both give the same values
+			recorded.putIfAbsent(key, stream);
+			return stream;
+		}
+		return new RandomStream(streamSeed);
+	}
+
+	/**
+	 * Records the numbers drawn from the streams handed out from now on.
+	 * 
+	 * @see #getDraws()
+	 */
+	public void record() {
+		recorded = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Gets the numbers drawn so far from the recorded streams.
+	 * 
+	 * @return the draws of each stream, by purpose and index, e.g., "mobility#3"
+	 * @see #record()
+	 */
+	public Map<String, long[]> getDraws() {
+		final Map<String, long[]> draws = new LinkedHashMap<>();
+		if (recorded != null)
+			recorded.forEach((key, stream) -> draws.put(key, stream.getDraws()));
+		return draws;
+	}
+
+	/**
+	 * Makes the streams handed out from now on replay the numbers recorded by
+	 * another simulation. The streams that were not recorded, and the recorded
+	 * ones once exhausted, are derived from the given seed.
+	 * 
+	 * @param seed  the master seed of the recorded simulation.
+	 * @param draws the recorded draws, by purpose and index.
+	 * @see #getDraws()
+	 */
+	public void replay(long seed, Map<String, long[]> draws) {
+		this.seed = seed;
+		replayed = draws;
+	}
+
+	/**
+	 * Gets the master seed.
+	 *
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+}
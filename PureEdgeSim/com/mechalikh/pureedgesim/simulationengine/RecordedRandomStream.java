@@ -0,0 +1,102 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.util.Arrays;
+
+/**
+ * A {@link RandomStream} that records the numbers it draws, or replays the
+ * numbers drawn by a previous simulation.
+ * <p>
+ * All the values of a stream are derived from {@link #nextLong()}, so only the
+ * raw 64-bit values are recorded. A replayed stream returns the recorded
+ * values, then goes on with its own generator once they are exhausted, e.g.,
+ * when a modified model draws more numbers than the recorded one.
+ *
+ * @see RandomStreams#record()
+ * @see RandomStreams#replay(long, java.util.Map)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class RecordedRandomStream extends RandomStream {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The recorded or replayed values.
+	 */
+	protected long[] draws;
+
+	/**
+	 * The number of recorded values, or the position of the next replayed one.
+	 */
+	protected int position;
+
+	/**
+	 * Whether the values are replayed rather than recorded.
+	 */
+	protected final boolean replaying;
+
+	/**
+	 * Creates a stream that records its values.
+	 *
+	 * @param seed the initial state.
+	 */
+	public RecordedRandomStream(long seed) {
+		super(seed);
+		draws = new long[16];
+		replaying = false;
+	}
+
+	/**
+	 * Creates a stream that replays recorded values.
+	 *
+	 * @param seed  the initial state, used once the recorded values are exhausted.
+	 * @param draws the recorded values.
+	 */
+	public RecordedRandomStream(long seed, long[] draws) {
+		super(seed);
+		this.draws = draws;
+		replaying = true;
+	}
+
+	@Override
+	public long nextLong() {
+		if (replaying)
+			return position < draws.length ? draws[position++] : super.nextLong();
+
+		final long value = super.nextLong();
+		if (position == draws.length)
+			draws = Arrays.copyOf(draws, position * 2);
+		draws[position++] = value;
+		return value;
+	}
+
+	/**
+	 * Gets the values drawn so far.
+	 *
+	 * @return a copy of the recorded values, or the replayed ones
+	 */
+	public long[] getDraws() {
+		return replaying ? draws : Arrays.copyOf(draws, position);
+	}
+
+}
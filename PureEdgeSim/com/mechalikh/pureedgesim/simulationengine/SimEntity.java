@@ -1,16 +1,29 @@
 package com.mechalikh.pureedgesim.simulationengine;
 
-import java.util.stream.Collectors;
+import java.io.Serializable;
+
+public abstract class SimEntity implements Serializable {
+	private static final long serialVersionUID = 1L;
 
-public abstract class SimEntity {
 	protected PureEdgeSim simulation;
 	protected int id;
 
+	/**
+	 * The index of this entity in the registry of the engine.
+	 * 
+	 * @see EntityRegistry#get(int)
+	 */
+	int globalId = -1;
+
+	/**
+	 * Whether this entity has been removed from the simulation.
+	 * 
+	 * @see PureEdgeSim#removeEntity(SimEntity)
+	 */
+	boolean deregistered;
+
 	protected SimEntity(PureEdgeSim simulation) {
 		setSimulator(simulation);
-		id = simulation.entitiesList.stream().filter(getClass()::isInstance).collect(Collectors.toList())
-				.size();
-		setId(id);
 		simulation.addEntity(this);
 	}
 
@@ -25,6 +38,28 @@ public abstract class SimEntity {
 		return id;
 	}
 
+	/**
+	 * Gets the index of this entity in the registry of the engine, unique among
+	 * all the entities.
+	 * 
+	 * @return the global id, or -1 if it has not been registered
+	 * @see EntityRegistry#get(int)
+	 */
+	public int getGlobalId() {
+		return globalId;
+	}
+
+	/**
+	 * Returns whether this entity has been removed from the simulation, in which
+	 * case the events scheduled to it are dropped.
+	 * 
+	 * @return true if the entity has been removed
+	 * @see PureEdgeSim#removeEntity(SimEntity)
+	 */
+	public boolean isDeregistered() {
+		return deregistered;
+	}
+
 	public PureEdgeSim getSimulation() {
 		return simulation;
 	}
@@ -33,36 +68,61 @@ public abstract class SimEntity {
 		this.simulation = simulator;
 	}
 
-	protected Event schedule(SimEntity simEntity, Double time, int tag) {
-		Event e = new Event(simEntity, simulation.clock() + time, tag);
-		simulation.insert(e);
-		return e;
+	protected Event schedule(SimEntity simEntity, double time, int tag) {
+		return schedule(simEntity, time, tag, null);
 	}
 
-	protected Event schedule(SimEntity simEntity, int time, int tag) {
-		Event e = new Event(simEntity, simulation.clock() + time, tag);
+	protected Event schedule(SimEntity simEntity, double time, int tag, Object data) {
+		Event e = simulation.newQueuedEvent(simEntity, simulation.clock() + time, tag, data);
+		e.cancelled = simEntity.deregistered;
 		simulation.insert(e);
 		return e;
 	}
 
-	protected Event schedule(SimEntity simEntity, Double time, int tag, Object data) {
-		Event e = new Event(simEntity, simulation.clock() + time, tag, data);
-		simulation.insert(e); 
-		return e;
-	}
-
 	protected Event scheduleNow(SimEntity simEntity, int tag) {
-		Event e = new Event(simEntity, simulation.clock(), tag);
-		simulation.insertFirst(e);
-		return e;
+		return scheduleNow(simEntity, tag, null);
 	}
 
 	protected Event scheduleNow(SimEntity simEntity, int tag, Object data) {
-		Event e = new Event(simEntity, simulation.clock(), tag, data);
+		Event e = simulation.newEvent(simEntity, simulation.clock(), tag, data);
+		e.cancelled = simEntity.deregistered;
 		simulation.insertFirst(e);
 		return e;
 	}
 
+	/**
+	 * Cancels a scheduled event, it will be skipped instead of being processed.
+	 * 
+	 * @param e the event to cancel, as returned by the schedule methods.
+	 * @see PureEdgeSim#cancel(Event)
+	 */
+	protected void cancel(Event e) {
+		simulation.cancel(e);
+	}
+
+	/**
+	 * Cancels all the pending events of the given entity having the given tag.
+	 * 
+	 * @param simEntity the entity the events are scheduled to.
+	 * @param tag       the tag of the events.
+	 * @return the number of cancelled events
+	 * @see PureEdgeSim#cancelAll(java.util.function.Predicate)
+	 */
+	protected int cancelAll(SimEntity simEntity, int tag) {
+		return simulation.cancelAll(e -> e.getSimEntity() == simEntity && e.getTag() == tag);
+	}
+
+	/**
+	 * Cancels all the pending events of the given entity.
+	 * 
+	 * @param simEntity the entity the events are scheduled to.
+	 * @return the number of cancelled events
+	 * @see PureEdgeSim#cancelAll(java.util.function.Predicate)
+	 */
+	protected int cancelAll(SimEntity simEntity) {
+		return simulation.cancelAll(e -> e.getSimEntity() == simEntity);
+	}
+
 	protected abstract void startInternal();
 
 	protected abstract void onSimulationEnd();
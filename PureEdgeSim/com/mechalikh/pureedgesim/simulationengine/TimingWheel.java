@@ -0,0 +1,406 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A shared service for the periodic events of the simulation entities, such as
+ * the status updates of the computing nodes or the progress updates of the
+ * network links.
+ * <p>
+ * Instead of keeping one pending event per entity in the events queue, the
+ * entities {@link #subscribe(SimEntity, int, double, double) subscribe} to this
+ * service with a period. The timers are kept in a hierarchical timing wheel:
+ * each level has {@value #SLOTS} slots, a slot of the first level covering one
+ * tick of {@link #getResolution() resolution} seconds, and a slot of the next
+ * levels covering all the slots of the previous one. Timers are inserted in the
+ * lowest level that can hold them, and cascaded down when the wheel reaches
+ * their slot, so subscribing, unsubscribing and firing a timer cost O(1)
+ * amortized, whatever the number of timers.
+ * <p>
+ * Only one event is pending in the engine queue: at the due time of the
+ * earliest timer. When it is processed, all the timers due at that time fire,
+ * in the order of their subscriptions: an event with the timer tag is sent to
+ * each entity for now, so the entities process their periodic events as
+ * before, and the timer is rescheduled one period later. The due times are not
+ * rounded to the resolution, which only affects the efficiency of the wheel,
+ * the timers fire exactly when the events would have been scheduled.
+ * <p>
+ * The events of the timers due at the same time are processed one after the
+ * other, in the main thread, so they are not processed in parallel by the
+ * {@link BatchPureEdgeSim batch} and {@link ConservativePureEdgeSim
+ * conservative} engines, and their order relative to the other events of the
+ * same instant may differ from the one of the self-scheduled events.
+ *
+ * @see PureEdgeSim#getTimingWheel()
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#timingWheel
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class TimingWheel extends SimEntity {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The tag of the event of the earliest timer.
+	 */
+	protected static final int FIRE = 1;
+
+	protected static final int SLOT_BITS = 6;
+
+	/**
+	 * The number of slots of each level.
+	 */
+	public static final int SLOTS = 1 << SLOT_BITS;
+
+	protected static final int SLOT_MASK = SLOTS - 1;
+
+	/**
+	 * The duration of a tick, i.e., of a slot of the first level, in seconds.
+	 */
+	protected final double resolution;
+
+	/**
+	 * The levels of the wheel, added when needed.
+	 */
+	protected final List<Level> levels = new ArrayList<>();
+
+	/**
+	 * The tick of the timers in {@link #current}.
+	 */
+	protected long currentTick;
+
+	/**
+	 * The timers due up to the end of the current tick, sorted by due time and
+	 * subscription order. Those before the cursor have already fired.
+	 */
+	protected final ArrayList<Timer> current = new ArrayList<>();
+	protected int cursor;
+
+	/**
+	 * The number of timers in the wheel, including the unsubscribed ones that
+	 * have not been dropped yet.
+	 */
+	protected int size;
+
+	protected long nextSerial;
+
+	/**
+	 * The event of the earliest timer, null if there is no timer.
+	 */
+	protected Event pendingEvent;
+
+	/**
+	 * Creates a timing wheel and registers it in the engine.
+	 *
+	 * @param simulation the simulation engine.
+	 * @param resolution the duration of a tick in seconds, ideally the shortest
+	 *                   period of the timers.
+	 */
+	public TimingWheel(PureEdgeSim simulation, double resolution) {
+		super(simulation);
+		if (!(resolution > 0))
+			throw new IllegalArgumentException(
+					getClass().getSimpleName() + " - The resolution must be greater than 0, got " + resolution + ".");
+		this.resolution = resolution;
+		this.currentTick = tickOf(simulation.clock());
+	}
+
+	/**
+	 * Subscribes an entity to periodic events.
+	 *
+	 * @param entity the entity that will process the events.
+	 * @param tag    the tag of the events.
+	 * @param period the time between two events, in seconds.
+	 * @param delay  the time until the first event, in seconds, 0 for now.
+	 * @return the timer, to {@link Timer#cancel() unsubscribe}
+	 */
+	public Timer subscribe(SimEntity entity, int tag, double period, double delay) {
+		if (!(period > 0))
+			throw new IllegalArgumentException(
+					getClass().getSimpleName() + " - The period must be greater than 0, got " + period + ".");
+		if (!(delay >= 0))
+			throw new IllegalArgumentException(
+					getClass().getSimpleName() + " - The delay must not be negative, got " + delay + ".");
+		final Timer timer = new Timer(entity, tag, period, getSimulation().clock() + delay, nextSerial++);
+		if (size == 0)
+			currentTick = tickOf(getSimulation().clock());
+		add(timer);
+		size++;
+		if (pendingEvent == null || timer.due < pendingEvent.getTime()) {
+			if (pendingEvent != null)
+				getSimulation().cancel(pendingEvent);
+			fireAt(timer.due);
+		}
+		return timer;
+	}
+
+	/**
+	 * Unsubscribes an entity, same as {@link Timer#cancel()}.
+	 *
+	 * @param timer the timer returned when subscribing.
+	 */
+	public void unsubscribe(Timer timer) {
+		timer.cancel();
+	}
+
+	@Override
+	protected void startInternal() {
+		// The timers are added by the entities.
+	}
+
+	@Override
+	protected void processEvent(Event e) {
+		if (e.getTag() != FIRE)
+			return;
+		pendingEvent = null;
+		final double now = e.getTime();
+		if (cursor == current.size()) {
+			// The timer was added to a later tick while the wheel was empty
+			current.clear();
+			cursor = 0;
+			advance();
+		}
+		Timer timer;
+		while (cursor < current.size() && (timer = current.get(cursor)).due <= now) {
+			current.set(cursor++, null);
+			if (!timer.active || timer.entity.deregistered) {
+				timer.active = false;
+				size--;
+				continue;
+			}
+			scheduleNow(timer.entity, timer.tag, timer);
+			timer.due += timer.period;
+			add(timer);
+		}
+		scheduleNext();
+	}
+
+	@Override
+	protected void onSimulationEnd() {
+		// Nothing to do.
+	}
+
+	/**
+	 * Schedules the event of the earliest active timer, dropping the unsubscribed
+	 * ones on the way.
+	 */
+	protected void scheduleNext() {
+		while (true) {
+			while (cursor < current.size() && !current.get(cursor).active) {
+				current.set(cursor++, null);
+				size--;
+			}
+			if (cursor < current.size()) {
+				fireAt(current.get(cursor).due);
+				return;
+			}
+			current.clear();
+			cursor = 0;
+			if (!advance())
+				return;
+		}
+	}
+
+	protected void fireAt(double time) {
+		pendingEvent = getSimulation().newQueuedEvent(this, time, FIRE, null);
+		getSimulation().insert(pendingEvent);
+	}
+
+	/**
+	 * Moves the wheel to the next tick having timers, and loads them in
+	 * {@link #current}.
+	 *
+	 * @return false if the wheel is empty
+	 */
+	protected boolean advance() {
+		while (size > 0) {
+			boolean found = false;
+			for (int level = 0; level < levels.size() && !found; level++) {
+				final Level wheel = levels.get(level);
+				final int shift = level * SLOT_BITS;
+				final int index = (int) (currentTick >>> shift) & SLOT_MASK;
+				final long candidates = wheel.occupied & (-2L << index);
+				if (candidates == 0)
+					continue;
+				found = true;
+				final int slot = Long.numberOfTrailingZeros(candidates);
+				final int upperShift = shift + SLOT_BITS;
+				currentTick = (upperShift >= Long.SIZE ? 0 : (currentTick >>> upperShift) << upperShift)
+						| ((long) slot << shift);
+				final ArrayList<Timer> timers = wheel.take(slot);
+				for (int i = 0; i < timers.size(); i++)
+					add(timers.get(i));
+			}
+			if (!found)
+				throw new IllegalStateException(
+						getClass().getSimpleName() + " - " + size + " timers are missing from the wheel.");
+			if (!current.isEmpty()) {
+				current.sort(null);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds a timer to the current tick if it is due by then, or to the lowest
+	 * level whose slots can hold it.
+	 *
+	 * @param timer the timer.
+	 */
+	protected void add(Timer timer) {
+		final long tick = tickOf(timer.due);
+		if (tick <= currentTick) {
+			int low = cursor;
+			int high = current.size();
+			while (low < high) {
+				final int middle = (low + high) >>> 1;
+				if (current.get(middle).compareTo(timer) < 0)
+					low = middle + 1;
+				else
+					high = middle;
+			}
+			current.add(low, timer);
+			return;
+		}
+		final int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(tick ^ currentTick)) / SLOT_BITS;
+		while (levels.size() <= level)
+			levels.add(new Level());
+		levels.get(level).add((int) (tick >>> (level * SLOT_BITS)) & SLOT_MASK, timer);
+	}
+
+	protected long tickOf(double time) {
+		return (long) Math.floor(time / resolution);
+	}
+
+	/**
+	 * Gets the duration of a tick.
+	 *
+	 * @return the resolution in seconds
+	 */
+	public double getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * Gets the number of timers, including the unsubscribed ones that have not
+	 * been dropped yet.
+	 *
+	 * @return the number of timers
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * A level of the wheel.
+	 */
+	protected static class Level implements Serializable {
+		private static final long serialVersionUID = 1L;
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		protected final ArrayList<Timer>[] slots = new ArrayList[SLOTS];
+
+		/**
+		 * One bit per non-empty slot.
+		 */
+		protected long occupied;
+
+		protected void add(int slot, Timer timer) {
+			if (slots[slot] == null)
+				slots[slot] = new ArrayList<>();
+			slots[slot].add(timer);
+			occupied |= 1L << slot;
+		}
+
+		protected ArrayList<Timer> take(int slot) {
+			final ArrayList<Timer> timers = slots[slot];
+			slots[slot] = null;
+			occupied &= ~(1L << slot);
+			return timers;
+		}
+	}
+
+	/**
+	 * The subscription of an entity to periodic events. It is passed as the data
+	 * of the events.
+	 */
+	public static class Timer implements Serializable, Comparable<Timer> {
+		private static final long serialVersionUID = 1L;
+		protected final SimEntity entity;
+		protected final int tag;
+		protected final double period;
+		protected final long serial;
+		protected double due;
+		protected volatile boolean active = true;
+
+		protected Timer(SimEntity entity, int tag, double period, double due, long serial) {
+			this.entity = entity;
+			this.tag = tag;
+			this.period = period;
+			this.due = due;
+			this.serial = serial;
+		}
+
+		/**
+		 * Unsubscribes the entity. The timer is dropped from the wheel the next time
+		 * it is due. It can be called from any simulation thread.
+		 */
+		public void cancel() {
+			active = false;
+		}
+
+		public boolean isActive() {
+			return active;
+		}
+
+		public SimEntity getEntity() {
+			return entity;
+		}
+
+		public int getTag() {
+			return tag;
+		}
+
+		public double getPeriod() {
+			return period;
+		}
+
+		/**
+		 * Gets the time at which the timer fires next.
+		 *
+		 * @return the simulation time in seconds
+		 */
+		public double getDueTime() {
+			return due;
+		}
+
+		@Override
+		public int compareTo(Timer other) {
+			final int byTime = Double.compare(due, other.due);
+			return byTime != 0 ? byTime : Long.compare(serial, other.serial);
+		}
+	}
+
+}
@@ -0,0 +1,332 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StreamCorruptedException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Reads the traces written by the {@link TraceRecorder}, to decode, filter and
+ * summarize them offline. It can be used from the command line:
+ * 
+ * <pre>
+ * java com.mechalikh.pureedgesim.simulationengine.TraceReader trace_file [summary] [from=time] [to=time]
+ *      [entity=class name or global id] [tag=tag] [data=data id] [limit=records]
+ * </pre>
+ * 
+ * which prints the matching records as CSV lines, or a summary of them: their
+ * number and time range, and the number of events per entity class and per
+ * tag.
+ *
+ * @see TraceRecorder
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class TraceReader {
+
+	protected final MappedByteBuffer buffer;
+
+	protected final int capacity;
+
+	/**
+	 * The number of recorded events, including the overwritten ones.
+	 */
+	protected final long count;
+
+	/**
+	 * The class name of each entity, by global id.
+	 */
+	protected final List<String> entityClasses = new ArrayList<>();
+
+	/**
+	 * Opens a trace.
+	 *
+	 * @param file the trace file.
+	 * @throws IOException if the file cannot be read, or if it is not a trace of
+	 *                     this version
+	 */
+	public TraceReader(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() < TraceRecorder.HEADER_SIZE)
+				throw new StreamCorruptedException(
+						getClass().getSimpleName() + " - " + file.getPath() + " is not a trace file.");
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.getInt(0) != TraceRecorder.MAGIC)
+			throw new StreamCorruptedException(
+					getClass().getSimpleName() + " - " + file.getPath() + " is not a trace file.");
+		if (buffer.getInt(4) != TraceRecorder.VERSION || buffer.getInt(8) != TraceRecorder.RECORD_SIZE)
+			throw new StreamCorruptedException(getClass().getSimpleName() + " - Unsupported trace version "
+					+ buffer.getInt(4) + " in " + file.getPath() + ".");
+		capacity = buffer.getInt(12);
+		count = buffer.getLong(TraceRecorder.COUNT_OFFSET);
+
+		final File entitiesFile = TraceRecorder.getEntitiesFile(file);
+		if (entitiesFile.exists()) {
+			try (BufferedReader reader = new BufferedReader(new FileReader(entitiesFile))) {
+				reader.readLine(); // Header
+				String line;
+				while ((line = reader.readLine()) != null) {
+					final String[] columns = line.split(",");
+					final int globalId = Integer.parseInt(columns[0]);
+					while (entityClasses.size() <= globalId)
+						entityClasses.add(null);
+					entityClasses.set(globalId, columns[1]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of records available in the trace.
+	 *
+	 * @return the number of records
+	 */
+	public int size() {
+		return (int) Math.min(count, capacity);
+	}
+
+	/**
+	 * Gets the number of recorded events, including the ones that have been
+	 * overwritten as the trace was full.
+	 *
+	 * @return the number of recorded events
+	 */
+	public long getRecordedCount() {
+		return count;
+	}
+
+	/**
+	 * Returns whether the oldest records have been overwritten.
+	 *
+	 * @return true if the trace does not start at the beginning of the simulation
+	 */
+	public boolean isWrapped() {
+		return count > capacity;
+	}
+
+	/**
+	 * Gets a record.
+	 *
+	 * @param index the index of the record, from 0 for the oldest available one to
+	 *              {@link #size()} - 1.
+	 * @return the record
+	 */
+	public Record get(int index) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException(index);
+		final int slot = (int) ((count - size() + index) % capacity);
+		final int offset = TraceRecorder.HEADER_SIZE + slot * TraceRecorder.RECORD_SIZE;
+		return new Record(buffer.getDouble(offset), buffer.getLong(offset + 8), buffer.getInt(offset + 16),
+				buffer.getInt(offset + 20), buffer.getLong(offset + 24));
+	}
+
+	/**
+	 * Goes through the records in the order in which the events were processed.
+	 *
+	 * @param filter the condition of the records to go through.
+	 * @param action what to do with each matching record.
+	 */
+	public void forEach(Predicate<Record> filter, Consumer<Record> action) {
+		for (int i = 0; i < size(); i++) {
+			final Record record = get(i);
+			if (filter.test(record))
+				action.accept(record);
+		}
+	}
+
+	/**
+	 * Gets the class of an entity.
+	 *
+	 * @param globalId the global id of the entity.
+	 * @return its class name, or null if the trace has no entities file
+	 */
+	public String getEntityClass(int globalId) {
+		return globalId >= 0 && globalId < entityClasses.size() ? entityClasses.get(globalId) : null;
+	}
+
+	/**
+	 * Gets a short name of an entity, e.g., "DefaultComputingNode#12".
+	 *
+	 * @param globalId the global id of the entity.
+	 * @return the simple name of its class followed by its global id
+	 */
+	public String getEntityName(int globalId) {
+		final String entityClass = getEntityClass(globalId);
+		return (entityClass == null ? "Entity" : entityClass.substring(entityClass.lastIndexOf('.') + 1)) + "#"
+				+ globalId;
+	}
+
+	/**
+	 * Prints a summary of the matching records: their number, their time range,
+	 * and the number of events per entity class and per tag.
+	 *
+	 * @param filter the condition of the records to summarize.
+	 * @param out    where to print the summary.
+	 */
+	public void summarize(Predicate<Record> filter, PrintStream out) {
+		final Map<String, Map<Integer, long[]>> counts = new TreeMap<>();
+		final double[] range = { Double.NaN, Double.NaN };
+		final long[] total = new long[1];
+		forEach(filter, record -> {
+			if (total[0]++ == 0)
+				range[0] = record.getTime();
+			range[1] = record.getTime();
+			final String entity = getEntityName(record.getEntity()).replaceAll("#\\d+$", "");
+			counts.computeIfAbsent(entity, key -> new TreeMap<>()).computeIfAbsent(record.getTag(),
+					key -> new long[1])[0]++;
+		});
+		out.println("Recorded events," + count);
+		out.println("Available records," + size() + (isWrapped() ? " (the oldest ones were overwritten)" : ""));
+		out.println("Matching records," + total[0]);
+		out.println("From (s)," + range[0]);
+		out.println("To (s)," + range[1]);
+		out.println("Entity,Tag,Events");
+		counts.forEach((entity, tags) -> tags.forEach((tag, events) -> out.println(entity + "," + tag + "," + events[0])));
+	}
+
+	/**
+	 * Decodes a trace from the command line.
+	 *
+	 * @param args the trace file, followed by the options.
+	 * @throws IOException if the trace cannot be read
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: TraceReader trace_file [summary] [from=time] [to=time]"
+					+ " [entity=class name or global id] [tag=tag] [data=data id] [limit=records]");
+			return;
+		}
+		final TraceReader reader = new TraceReader(new File(args[0]));
+		Predicate<Record> filter = record -> true;
+		boolean summary = false;
+		long limit = Long.MAX_VALUE;
+		for (int i = 1; i < args.length; i++) {
+			final String option = args[i];
+			final String value = option.substring(option.indexOf('=') + 1);
+			if ("summary".equals(option)) {
+				summary = true;
+			} else if (option.startsWith("from=")) {
+				final double from = Double.parseDouble(value);
+				filter = filter.and(record -> record.getTime() >= from);
+			} else if (option.startsWith("to=")) {
+				final double to = Double.parseDouble(value);
+				filter = filter.and(record -> record.getTime() <= to);
+			} else if (option.startsWith("entity=")) {
+				filter = filter.and(value.matches("\\d+") ? record -> record.getEntity() == Integer.parseInt(value)
+						: record -> {
+							final String entityClass = reader.getEntityClass(record.getEntity());
+							return entityClass != null
+									&& (entityClass.equals(value) || entityClass.endsWith("." + value));
+						});
+			} else if (option.startsWith("tag=")) {
+				final int tag = Integer.parseInt(value);
+				filter = filter.and(record -> record.getTag() == tag);
+			} else if (option.startsWith("data=")) {
+				final long data = Long.parseLong(value);
+				filter = filter.and(record -> record.getDataId() == data);
+			} else if (option.startsWith("limit=")) {
+				limit = Long.parseLong(value);
+			} else {
+				throw new IllegalArgumentException(TraceReader.class.getSimpleName() + " - Unknown option " + option);
+			}
+		}
+
+		if (summary) {
+			reader.summarize(filter, System.out);
+			return;
+		}
+		final long maxRecords = limit;
+		final long[] printed = new long[1];
+		System.out.println("Time (s),Serial,Entity,Tag,Data");
+		reader.forEach(filter.and(record -> printed[0] < maxRecords), record -> {
+			printed[0]++;
+			System.out.println(record.getTime() + "," + record.getSerial() + "," + reader.getEntityName(record.getEntity())
+					+ "," + record.getTag() + "," + record.getDataId());
+		});
+	}
+
+	/**
+	 * A recorded event.
+	 */
+	public static class Record {
+		protected final double time;
+		protected final long serial;
+		protected final int entity;
+		protected final int tag;
+		protected final long dataId;
+
+		protected Record(double time, long serial, int entity, int tag, long dataId) {
+			this.time = time;
+			this.serial = serial;
+			this.entity = entity;
+			this.tag = tag;
+			this.dataId = dataId;
+		}
+
+		public double getTime() {
+			return time;
+		}
+
+		public long getSerial() {
+			return serial;
+		}
+
+		/**
+		 * Gets the global id of the entity that processed the event.
+		 *
+		 * @return the global id
+		 */
+		public int getEntity() {
+			return entity;
+		}
+
+		public int getTag() {
+			return tag;
+		}
+
+		/**
+		 * Gets the id of the data of the event.
+		 *
+		 * @return the data id
+		 * @see TraceRecorder#getDataId(Object)
+		 */
+		public long getDataId() {
+			return dataId;
+		}
+	}
+
+}
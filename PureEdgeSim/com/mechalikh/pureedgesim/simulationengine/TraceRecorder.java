@@ -0,0 +1,240 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records the events processed by the simulation engine in a binary trace, at
+ * a very low cost compared to the deep logging.
+ * <p>
+ * Each event is written as a fixed-size record of {@value #RECORD_SIZE} bytes:
+ * its time, its serial, the {@link SimEntity#getGlobalId() global id} of its
+ * entity, its tag, and the id of its data (see {@link #getDataId(Object)}).
+ * The records are written in a memory-mapped ring buffer: the file has room
+ * for a fixed number of records, and once it is full, the oldest ones are
+ * overwritten, so the trace keeps the last events of the simulation. As the
+ * file is memory-mapped, the records written before a crash of the JVM are
+ * not lost.
+ * <p>
+ * When the recorder is closed, the classes of the entities are written next to
+ * the trace, in a CSV file having the {@value #ENTITIES_EXTENSION} extension.
+ * Traces are read with the {@link TraceReader}.
+ * <p>
+ * The events processed in parallel are recorded once the parallel engines
+ * have ordered them, so the trace is the same whatever the engine.
+ *
+ * @see PureEdgeSim#enableTrace(File, int)
+ * @see TraceReader
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#traceEvents
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class TraceRecorder implements Closeable {
+
+	/**
+	 * The extension of the trace files.
+	 */
+	public static final String EXTENSION = ".trace";
+
+	/**
+	 * The extension of the file listing the entities of a trace, added to the
+	 * name of the trace file.
+	 */
+	public static final String ENTITIES_EXTENSION = ".entities.csv";
+
+	/**
+	 * The first bytes of a trace file, "PEST".
+	 */
+	static final int MAGIC = 0x50455354;
+
+	/**
+	 * The version of the trace format.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * The header: magic, version, record size, capacity, and number of recorded
+	 * events.
+	 */
+	static final int HEADER_SIZE = 32;
+
+	static final int COUNT_OFFSET = 16;
+
+	/**
+	 * The size of a record: time, serial, entity, tag and data id.
+	 */
+	public static final int RECORD_SIZE = 32;
+
+	/**
+	 * The maximum number of records of a trace.
+	 */
+	public static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+	protected final File file;
+
+	protected final FileChannel channel;
+
+	protected final MappedByteBuffer buffer;
+
+	/**
+	 * The number of records of the ring buffer.
+	 */
+	protected final int capacity;
+
+	/**
+	 * The number of recorded events since the beginning.
+	 */
+	protected long count;
+
+	/**
+	 * The position of the next record in the buffer.
+	 */
+	protected int position = HEADER_SIZE;
+
+	/**
+	 * Creates a trace file, replacing any existing one.
+	 *
+	 * @param file     the trace file.
+	 * @param capacity the maximum number of records kept in the trace.
+	 * @throws IOException if the file cannot be created
+	 */
+	public TraceRecorder(File file, int capacity) throws IOException {
+		if (capacity <= 0 || capacity > MAX_CAPACITY)
+			throw new IllegalArgumentException(getClass().getSimpleName() + " - The capacity must be between 1 and "
+					+ MAX_CAPACITY + ", got " + capacity + ".");
+		this.file = file;
+		this.capacity = capacity;
+		final File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putInt(8, RECORD_SIZE);
+		buffer.putInt(12, capacity);
+		buffer.putLong(COUNT_OFFSET, 0);
+	}
+
+	/**
+	 * Records an event. Must only be called by the main simulation thread.
+	 *
+	 * @param event the event.
+	 */
+	public void record(Event event) {
+		final ByteBuffer records = buffer;
+		int offset = position;
+		records.putDouble(offset, event.getTime());
+		records.putLong(offset + 8, event.getSerial());
+		records.putInt(offset + 16, event.getSimEntity().getGlobalId());
+		records.putInt(offset + 20, event.getTag());
+		records.putLong(offset + 24, getDataId(event.getData()));
+		records.putLong(COUNT_OFFSET, ++count);
+		offset += RECORD_SIZE;
+		position = offset == HEADER_SIZE + capacity * RECORD_SIZE ? HEADER_SIZE : offset;
+	}
+
+	/**
+	 * Returns the id recorded for the data of an event: the
+	 * {@link Traceable#getTraceId() trace id} of a {@link Traceable} object, the
+	 * global id of an entity, the value of an integer, or -1 for no data and -2
+	 * for any other data.
+	 *
+	 * @param data the data of the event.
+	 * @return the data id
+	 */
+	protected long getDataId(Object data) {
+		if (data == null)
+			return -1;
+		if (data instanceof Traceable)
+			return ((Traceable) data).getTraceId();
+		if (data instanceof SimEntity)
+			return ((SimEntity) data).getGlobalId();
+		if (data instanceof Integer || data instanceof Long)
+			return ((Number) data).longValue();
+		return -2;
+	}
+
+	/**
+	 * Writes the classes of the given entities next to the trace, and closes it.
+	 *
+	 * @param entities the entities of the simulation, including the removed ones,
+	 *                 indexed by global id.
+	 * @throws IOException if the files cannot be written
+	 */
+	public void close(Iterable<SimEntity> entities) throws IOException {
+		try (PrintWriter writer = new PrintWriter(getEntitiesFile(file))) {
+			writer.println("Global id,Class,Id");
+			for (SimEntity entity : entities)
+				writer.println(entity.getGlobalId() + "," + entity.getClass().getName() + "," + entity.getId());
+		} finally {
+			close();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!channel.isOpen())
+			return;
+		buffer.force();
+		channel.close();
+	}
+
+	/**
+	 * Gets the number of events recorded so far, including the ones that have
+	 * been overwritten.
+	 *
+	 * @return the number of events
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Gets the file listing the entities of a trace.
+	 *
+	 * @param traceFile the trace file.
+	 * @return the entities file
+	 */
+	public static File getEntitiesFile(File traceFile) {
+		return new File(traceFile.getPath() + ENTITIES_EXTENSION);
+	}
+
+}
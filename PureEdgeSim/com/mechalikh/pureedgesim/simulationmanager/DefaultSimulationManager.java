@@ -51,6 +51,7 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @since PureEdgeSim 4.2
  */
 public class DefaultSimulationManager extends SimulationManager {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Simulation progress parameters.
@@ -106,6 +107,22 @@ public class DefaultSimulationManager extends SimulationManager {
 		simulation.start();
 	}
 
+	/**
+	 * Resumes PureEdgeSim simulation engine, once loaded from a checkpoint. The
+	 * real-time charts are not part of the checkpoint, so they are created again.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.PureEdgeSim#resume()
+	 */
+	@Override
+	public void resumeSimulation() {
+		if (SimulationParameters.displayRealTimeCharts && !SimulationParameters.parallelism_enabled)
+			simulationVisualizer = new SimulationVisualizer(this);
+
+		simLog.print("%s -  %s (resumed at %.2f s)", getClass().getSimpleName(), scenario.toString(),
+				simulation.clock());
+		simulation.resume();
+	}
+
 	/**
 	 * Defines the logic to be performed by the simulation manager when the
 	 * simulation starts.
@@ -132,12 +149,19 @@ public class DefaultSimulationManager extends SimulationManager {
 		// Scheduling the end of the simulation.
 		schedule(this, SimulationParameters.simulationDuration, PRINT_LOG);
 
-		// Schedule the update of real-time charts.
-		if (SimulationParameters.displayRealTimeCharts && !SimulationParameters.parallelism_enabled)
-			scheduleNow(this, UPDATE_REAL_TIME_CHARTS);
-
-		// Show simulation progress.
-		scheduleNow(this, SHOW_PROGRESS);
+		// When replaying, skip the charts and progress updates until the seek time.
+		if (!SimulationParameters.replayInputs.isEmpty() && SimulationParameters.replaySeekTime > 0) {
+			if (SimulationParameters.displayRealTimeCharts && !SimulationParameters.parallelism_enabled)
+				schedule(this, SimulationParameters.replaySeekTime, UPDATE_REAL_TIME_CHARTS);
+			schedule(this, SimulationParameters.replaySeekTime, SHOW_PROGRESS);
+		} else {
+			// Schedule the update of real-time charts.
+			if (SimulationParameters.displayRealTimeCharts && !SimulationParameters.parallelism_enabled)
+				scheduleNow(this, UPDATE_REAL_TIME_CHARTS);
+
+			// Show simulation progress.
+			scheduleNow(this, SHOW_PROGRESS);
+		}
 
 		simLog.printSameLine("Simulation progress : [", "red");
 	}
@@ -216,6 +240,10 @@ public class DefaultSimulationManager extends SimulationManager {
 			break;
 
 		case UPDATE_REAL_TIME_CHARTS:
+			// The charts have been disabled when resuming from a checkpoint.
+			if (simulationVisualizer == null)
+				break;
+
 			// Update simulation Map, network utilization, and the other real-time charts.
 			simulationVisualizer.updateCharts();
 
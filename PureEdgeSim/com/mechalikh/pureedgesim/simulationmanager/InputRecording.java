@@ -0,0 +1,304 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationmanager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
+import com.mechalikh.pureedgesim.locationmanager.Location;
+import com.mechalikh.pureedgesim.simulationengine.FutureQueue;
+import com.mechalikh.pureedgesim.simulationengine.PureEdgeSim;
+import com.mechalikh.pureedgesim.simulationengine.RandomStreams;
+import com.mechalikh.pureedgesim.simulationengine.SimEntity;
+import com.mechalikh.pureedgesim.taskgenerator.Task;
+
+/**
+ * The external inputs of a simulation: the arrivals of the tasks, the paths of
+ * the mobile devices, and the numbers drawn from the {@link RandomStreams
+ * random streams}.
+ * <p>
+ * A simulation that replays a recording takes its inputs from it instead of
+ * generating them: the task generator and the mobility models are not run,
+ * and the random streams return the recorded numbers. So, the same inputs can
+ * be fed to a modified model, e.g., a custom orchestrator, to find out when
+ * its behavior changes. The devices and the tasks are identified by their
+ * {@link SimEntity#getGlobalId() global ids} and ids, so the replaying
+ * simulation must have the same infrastructure as the recorded one.
+ * <p>
+ * A recording is a gzip-compressed Java serialization stream, preceded by a
+ * small header, like the {@link com.mechalikh.pureedgesim.simulationengine.Checkpoint
+ * checkpoints}.
+ *
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#recordInputs
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#replayInputs
+ * @see SimulationThread#startSimulation()
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.3
+ */
+public class InputRecording implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The extension of the recording files.
+	 */
+	public static final String EXTENSION = ".inputs";
+
+	/**
+	 * The first bytes of a recording file, "PESI".
+	 */
+	private static final int MAGIC = 0x50455349;
+
+	/**
+	 * The version of the recording format.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The number of edge devices of the recorded simulation.
+	 */
+	protected final int devicesCount;
+
+	/**
+	 * The master seed of the random streams of the recorded simulation.
+	 */
+	protected final long seed;
+
+	/**
+	 * The generated tasks, by arrival time.
+	 */
+	protected final List<TaskArrival> tasks = new ArrayList<>();
+
+	/**
+	 * The path of each mobile device, by global id.
+	 */
+	protected final Map<Integer, Map<Integer, Location>> paths = new LinkedHashMap<>();
+
+	/**
+	 * The numbers drawn from each random stream, by purpose and index.
+	 */
+	protected Map<String, long[]> draws = new LinkedHashMap<>();
+
+	/**
+	 * Creates an empty recording.
+	 * 
+	 * @param devicesCount the number of edge devices of the simulation.
+	 * @param seed         the master seed of its random streams.
+	 */
+	public InputRecording(int devicesCount, long seed) {
+		this.devicesCount = devicesCount;
+		this.seed = seed;
+	}
+
+	/**
+	 * Records the generated tasks, before they are offloaded.
+	 * 
+	 * @param taskList the generated tasks.
+	 */
+	public void recordTasks(FutureQueue<Task> taskList) {
+		taskList.stream().forEach(task -> tasks.add(new TaskArrival(task)));
+	}
+
+	/**
+	 * Records the paths of the mobile devices, once they have been generated.
+	 * 
+	 * @param devices the edge devices.
+	 */
+	public void recordPaths(List<ComputingNode> devices) {
+		for (ComputingNode device : devices)
+			if (device.getMobilityModel().isMobile())
+				paths.put(((SimEntity) device).getGlobalId(),
+						new LinkedHashMap<>(device.getMobilityModel().getPath()));
+	}
+
+	/**
+	 * Records the numbers drawn so far from the random streams.
+	 * 
+	 * @param randomStreams the random streams, whose draws are recorded.
+	 * @see RandomStreams#record()
+	 */
+	public void recordDraws(RandomStreams randomStreams) {
+		draws = randomStreams.getDraws();
+	}
+
+	/**
+	 * Gives the recorded paths to the mobility models of the devices, so they do
+	 * not generate them.
+	 * 
+	 * @param devices the edge devices.
+	 */
+	public void replayPaths(List<ComputingNode> devices) {
+		for (ComputingNode device : devices) {
+			final Map<Integer, Location> path = paths.get(((SimEntity) device).getGlobalId());
+			if (path != null)
+				device.getMobilityModel().setPath(path);
+		}
+	}
+
+	/**
+	 * Makes the random streams of a simulation replay the recorded draws.
+	 * 
+	 * @param simulation the simulation engine.
+	 */
+	public void replayDraws(PureEdgeSim simulation) {
+		simulation.getRandomStreams().replay(seed, draws);
+	}
+
+	/**
+	 * Checks that a simulation can replay this recording.
+	 * 
+	 * @param devicesCount the number of edge devices of the simulation.
+	 * @throws IllegalStateException if the number of devices is not the recorded
+	 *                               one
+	 */
+	public void checkCompatibility(int devicesCount) {
+		if (devicesCount != this.devicesCount)
+			throw new IllegalStateException(getClass().getSimpleName() + " - The recording has " + this.devicesCount
+					+ " edge devices, while the scenario has " + devicesCount + ".");
+	}
+
+	public List<TaskArrival> getTasks() {
+		return tasks;
+	}
+
+	public int getDevicesCount() {
+		return devicesCount;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Saves the recording to a file.
+	 *
+	 * @param file the recording file.
+	 * @throws IOException if the file cannot be written
+	 */
+	public void save(File file) throws IOException {
+		final File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+		try (ObjectOutputStream output = new ObjectOutputStream(
+				new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file), 1 << 16)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeObject(this);
+		}
+	}
+
+	/**
+	 * Loads a recording from a file.
+	 *
+	 * @param file the recording file.
+	 * @return the recording
+	 * @throws IOException            if the file cannot be read, or if it is not a
+	 *                                recording of this version
+	 * @throws ClassNotFoundException if a class of the recording cannot be found
+	 */
+	public static InputRecording load(File file) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream input = new ObjectInputStream(
+				new BufferedInputStream(new GZIPInputStream(new FileInputStream(file), 1 << 16)))) {
+			if (input.readInt() != MAGIC)
+				throw new StreamCorruptedException(
+						InputRecording.class.getSimpleName() + " - " + file.getPath() + " is not a recording file.");
+			final int version = input.readInt();
+			if (version != VERSION)
+				throw new StreamCorruptedException(InputRecording.class.getSimpleName()
+						+ " - Unsupported recording version " + version + " in " + file.getPath() + ".");
+			return (InputRecording) input.readObject();
+		}
+	}
+
+	/**
+	 * The recorded attributes of a generated task.
+	 */
+	public static class TaskArrival implements Serializable {
+		private static final long serialVersionUID = 1L;
+		protected final int id;
+		protected final double time;
+		protected final int applicationId;
+		protected final String type;
+		protected final int edgeDevice;
+		protected final int registry;
+		protected final long fileSize;
+		protected final long outputSize;
+		protected final long containerSize;
+		protected final double maxLatency;
+		protected final double length;
+
+		protected TaskArrival(Task task) {
+			id = task.getId();
+			time = task.getTime();
+			applicationId = task.getApplicationID();
+			type = task.getType();
+			edgeDevice = ((SimEntity) task.getEdgeDevice()).getGlobalId();
+			registry = task.getRegistry() instanceof SimEntity ? ((SimEntity) task.getRegistry()).getGlobalId() : -1;
+			fileSize = (long) task.getFileSizeInBits();
+			outputSize = (long) task.getOutputSizeInBits();
+			containerSize = task.getContainerSizeInBits();
+			maxLatency = task.getMaxLatency();
+			length = task.getLength();
+		}
+
+		/**
+		 * Sets the recorded attributes of a new task.
+		 * 
+		 * @param task       the new task, having the recorded id.
+		 * @param simulation the simulation engine, used to find the devices.
+		 * @return the task
+		 */
+		public Task apply(Task task, PureEdgeSim simulation) {
+			final ComputingNode device = (ComputingNode) simulation.getEntityRegistry().get(edgeDevice);
+			device.setApplicationType(applicationId);
+			task.setType(type).setFileSizeInBits(fileSize).setOutputSizeInBits(outputSize)
+					.setContainerSizeInBits(containerSize).setApplicationID(applicationId).setMaxLatency(maxLatency)
+					.setLength(length).setEdgeDevice(device).setRegistry(registry == -1 ? ComputingNode.NULL
+							: (ComputingNode) simulation.getEntityRegistry().get(registry));
+			task.setTime(time);
+			return task;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		public double getTime() {
+			return time;
+		}
+	}
+
+}
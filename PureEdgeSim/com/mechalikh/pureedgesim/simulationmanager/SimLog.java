@@ -24,6 +24,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
@@ -43,9 +44,13 @@ import com.mechalikh.pureedgesim.network.NetworkLink;
 import com.mechalikh.pureedgesim.network.TransferProgress;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters.TYPES;
+import com.mechalikh.pureedgesim.simulationengine.EngineProfiler;
+import com.mechalikh.pureedgesim.simulationengine.PureEdgeSim;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
-public class SimLog {
+public class SimLog implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	public static final int NO_TIME = 0;
 	public static final int SAME_LINE = 1;
 	public static final int DEFAULT = 2;
@@ -59,6 +64,13 @@ public class SimLog {
 	protected SimulationManager simulationManager;
 	protected boolean isFirstIteration;
 
+	/**
+	 * The simulation time before which nothing is logged.
+	 * 
+	 * @see #setQuietUntil(double)
+	 */
+	protected double quietUntil = 0;
+
 	// Tasks execution results
 	protected int generatedTasksCount = 0;
 	protected int tasksSent = 0;
@@ -467,6 +479,37 @@ public class SimLog {
 
 	}
 
+	/**
+	 * Saves the statistics of the simulation engine next to the results, if
+	 * profiling is enabled: the events statistics in a "_engine.csv" file, and the
+	 * queue depth samples in a "_queue_depth.csv" file.
+	 * 
+	 * @param simulation the simulation engine
+	 * @see SimulationParameters#engineProfiling
+	 */
+	public void saveEngineStatistics(PureEdgeSim simulation) {
+		EngineProfiler profiler = simulation.getProfiler();
+		if (profiler == null)
+			return;
+
+		String prefix = currentOrchArchitecture + "," + currentOrchAlgorithm + "," + currentEdgeDevicesCount + ",";
+		String scenarioColumns = "Orchestration architecture,Orchestration algorithm,Edge devices count,";
+
+		List<String> lines = new ArrayList<>();
+		String fileName = getFileName("_engine.csv");
+		if (!new File(fileName).exists())
+			lines.add(scenarioColumns + "Metric,Entity,Tag,Value");
+		lines.addAll(profiler.getStatisticsLines(prefix));
+		writeFile(fileName, lines);
+
+		lines = new ArrayList<>();
+		fileName = getFileName("_queue_depth.csv");
+		if (!new File(fileName).exists())
+			lines.add(scenarioColumns + "Simulation time (s),Wall time (s),Queue depth");
+		lines.addAll(profiler.getQueueDepthLines(prefix));
+		writeFile(fileName, lines);
+	}
+
 	protected List<String> getResultsList() {
 		return this.resultsList;
 	}
@@ -495,6 +538,8 @@ public class SimLog {
 	}
 
 	public void print(int flag, String newLine, Object... args) {
+		if (isQuiet())
+			return;
 		if (args != null)
 			newLine = String.format(newLine, args);
 
@@ -530,7 +575,7 @@ public class SimLog {
 	}
 
 	public void deepLog(String line, Object... args) {
-		if (SimulationParameters.deepLoggingEnabled) {
+		if (SimulationParameters.deepLoggingEnabled && !isQuiet()) {
 			print(DEFAULT, line, args);
 			System.out.format(line, args);
 		}
@@ -542,6 +587,28 @@ public class SimLog {
 		}
 	}
 
+	/**
+	 * Logs nothing until the given simulation time, e.g., to quickly seek to a
+	 * point of a replayed simulation.
+	 * 
+	 * @param time the simulation time in seconds.
+	 * @see SimulationParameters#replaySeekTime
+	 */
+	public void setQuietUntil(double time) {
+		quietUntil = time;
+	}
+
+	/**
+	 * Returns whether the log is disabled at the current simulation time.
+	 * 
+	 * @return true if nothing is logged yet
+	 * @see #setQuietUntil(double)
+	 */
+	protected boolean isQuiet() {
+		return quietUntil > 0 && simulationManager != null
+				&& simulationManager.getSimulation().clock() < quietUntil;
+	}
+
 	public void printWithoutTime(String line, Object... args) {
 		print(NO_TIME, line, args);
 	}
@@ -168,6 +168,40 @@ public class Simulation extends SimulationAbstract {
 
 	}
 
+	/**
+	 * Checks the simulation parameters, then resumes a simulation from a
+	 * checkpoint saved by a previous run (see the {@code checkpoint_interval}
+	 * parameter). The simulation continues with the models and the state saved in
+	 * the checkpoint, while the parameters are those of the current settings
+	 * files, e.g., to run different what-if scenarios from the same warmed-up
+	 * checkpoint.
+	 * 
+	 * @param checkpointFile the checkpoint file.
+	 * @see com.mechalikh.pureedgesim.simulationengine.Checkpoint
+	 * @see com.mechalikh.pureedgesim.simulationmanager.SimulationThread#resumeSimulation(String)
+	 */
+	public void launchSimulation(String checkpointFile) {
+		SimLog.println("%s - Loading simulation files...", getClass().getSimpleName());
+
+		// Check files.
+		if (!checkFiles())
+			// If any of the input files is not correct stop everything.
+			return;
+
+		// Save the simulation starting time.
+		Date startTime = Calendar.getInstance().getTime();
+
+		new SimulationThread(this, 0, 1).resumeSimulation(checkpointFile);
+
+		// At this point, the simulation has finished. So, save the finish time.
+		Date finishTime = Calendar.getInstance().getTime();
+
+		// Then, print the simulation duration
+		SimLog.println("%s - Simulation took : %s", getClass().getSimpleName(),
+				simulatioDuration(startTime, finishTime));
+		SimLog.println("%s - results were saved to the folder: %s", getClass().getSimpleName(), SimulationParameters.outputFolder);
+	}
+
 	/**
 	 * Checks the input files.
 	 */
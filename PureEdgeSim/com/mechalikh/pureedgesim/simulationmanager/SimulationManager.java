@@ -42,12 +42,13 @@ import com.mechalikh.pureedgesim.taskorchestrator.Orchestrator;
  * @since PureEdgeSim 1.0
  */
 public abstract class SimulationManager extends SimEntity {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Simulation manager tags.
 	 * 
 	 * @see com.mechalikh.pureedgesim.simulationengine.SimEntity#schedule(SimEntity
-	 *      simEntity, Double time, int tag)
+	 *      simEntity, double time, int tag)
 	 **/
 	protected static final int PRINT_LOG = 1;
 	protected static final int SHOW_PROGRESS = 2;
@@ -61,7 +62,7 @@ public abstract class SimulationManager extends SimEntity {
 
 	protected Orchestrator edgeOrchestrator;
 	protected DataCentersManager dataCentersManager;
-	protected SimulationVisualizer simulationVisualizer;
+	protected transient SimulationVisualizer simulationVisualizer;
 	protected PureEdgeSim simulation;
 	protected int simulationId;
 	protected int iteration;
@@ -102,6 +103,16 @@ public abstract class SimulationManager extends SimEntity {
 	 */
 	public abstract void startSimulation();
 
+	/**
+	 * Resumes the PureEdgeSim simulation engine, once loaded from a checkpoint.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.PureEdgeSim#resume()
+	 * @see com.mechalikh.pureedgesim.simulationmanager.SimulationThread#resumeSimulation(String)
+	 */
+	public void resumeSimulation() {
+		simulation.resume();
+	}
+
 	/**
 	 * Sets the data centers manager.
 	 * 
@@ -20,6 +20,7 @@
  **/
 package com.mechalikh.pureedgesim.simulationmanager;
 
+import java.io.File;
 import java.lang.reflect.Constructor;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -27,8 +28,12 @@ import java.util.Date;
 import com.mechalikh.pureedgesim.datacentersmanager.DataCentersManager;
 import com.mechalikh.pureedgesim.scenariomanager.Scenario;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
+import com.mechalikh.pureedgesim.simulationengine.BatchPureEdgeSim;
+import com.mechalikh.pureedgesim.simulationengine.Checkpoint;
+import com.mechalikh.pureedgesim.simulationengine.ConservativePureEdgeSim;
 import com.mechalikh.pureedgesim.simulationengine.FutureQueue;
 import com.mechalikh.pureedgesim.simulationengine.PureEdgeSim;
+import com.mechalikh.pureedgesim.simulationengine.TraceRecorder;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 import com.mechalikh.pureedgesim.taskgenerator.TaskGenerator;
 
@@ -73,6 +78,20 @@ public class SimulationThread {
 	 */
 	protected Simulation simulation;
 
+	/**
+	 * The inputs replayed by the simulations, or null if they generate them.
+	 * 
+	 * @see SimulationParameters#replayInputs
+	 */
+	protected InputRecording replayedInputs;
+
+	/**
+	 * The inputs of the current simulation, or null if they are not recorded.
+	 * 
+	 * @see SimulationParameters#recordInputs
+	 */
+	protected InputRecording recordedInputs;
+
 	/**
 	 * Used to run parallel simulations. When parallelism is enabled in the
 	 * simulation settings, the simulation runs are divided between the CPU cores.
@@ -106,6 +125,13 @@ public class SimulationThread {
 		SimLog simLog = null;
 
 		try {
+			// Load the inputs to replay, if any.
+			if (!SimulationParameters.replayInputs.isEmpty()) {
+				SimLog.println("%s - Loading the inputs %s...", getClass().getSimpleName(),
+						SimulationParameters.replayInputs);
+				replayedInputs = InputRecording.load(new File(SimulationParameters.replayInputs));
+			}
+
 			// Repeat the operation for different numbers of devices.
 			for (int it = fromIteration; it < simulation.getScenarios().size(); it += step) {
 
@@ -119,7 +145,7 @@ public class SimulationThread {
 				isFirstIteration = false;
 
 				// New instance of the PureEdgeSim simulation engine.
-				PureEdgeSim pureEdgeSim = new PureEdgeSim();
+				PureEdgeSim pureEdgeSim = createEngine();
 
 				// Initialize the simulation manager.
 				Constructor<?> simulationManagerConstructor = simulation.simulationManager.getConstructor(SimLog.class,
@@ -130,12 +156,46 @@ public class SimulationThread {
 						simulation.getScenarios().get(it).getOrchAlgorithm(),
 						simulation.getScenarios().get(it).getOrchArchitecture());
 
+				// Replay the recorded inputs, or record the generated ones, if enabled.
+				recordedInputs = null;
+				if (replayedInputs != null) {
+					replayedInputs.checkCompatibility(simulation.getScenarios().get(it).getDevicesCount());
+					replayedInputs.replayDraws(pureEdgeSim);
+					simLog.setQuietUntil(SimulationParameters.replaySeekTime);
+				} else if (SimulationParameters.recordInputs) {
+					pureEdgeSim.getRandomStreams().record();
+					recordedInputs = new InputRecording(simulation.getScenarios().get(it).getDevicesCount(),
+							pureEdgeSim.getRandomStreams().getSeed());
+				}
+
 				// Load custom classes and models.
 				loadModels(simulationManager);
 
+				// Save checkpoints along the way, if enabled.
+				pureEdgeSim.enableCheckpoints(SimulationParameters.checkpointInterval,
+						simLog.getFileName("_iteration_" + iteration));
+
+				// Record the processed events, if enabled.
+				if (SimulationParameters.traceEvents)
+					pureEdgeSim.enableTrace(
+							new File(simLog.getFileName("_iteration_" + iteration) + TraceRecorder.EXTENSION),
+							SimulationParameters.traceCapacity);
+
 				// Finally, launch the simulation.
 				simulationManager.startSimulation();
 
+				// Save the recorded inputs, now that the paths and the random draws are known.
+				if (recordedInputs != null) {
+					recordedInputs.recordPaths(
+							simulationManager.getDataCentersManager().getComputingNodesGenerator().getMistOnlyList());
+					recordedInputs.recordDraws(pureEdgeSim.getRandomStreams());
+					recordedInputs.save(
+							new File(simLog.getFileName("_iteration_" + iteration) + InputRecording.EXTENSION));
+				}
+
+				// Save the statistics of the simulation engine, if enabled.
+				simLog.saveEngineStatistics(pureEdgeSim);
+
 				// Take a few seconds pause to display results, if parallelism is disabled.
 				if (!SimulationParameters.parallelism_enabled) {
 					pause(simLog);
@@ -160,6 +220,67 @@ public class SimulationThread {
 		}
 	}
 
+	/**
+	 * Resumes a simulation from a checkpoint, and runs it until its end. Only the
+	 * iteration that was saved in the checkpoint is resumed, and its results are
+	 * saved in a new folder, so the same checkpoint can be resumed several times.
+	 * 
+	 * @param checkpointFile the checkpoint file.
+	 * @see Checkpoint
+	 * @see Simulation#launchSimulation(String)
+	 */
+	public void resumeSimulation(String checkpointFile) {
+		try {
+			SimLog.println("%s - Loading the checkpoint %s...", getClass().getSimpleName(), checkpointFile);
+			PureEdgeSim pureEdgeSim = Checkpoint.load(new File(checkpointFile));
+
+			SimulationManager simulationManager = pureEdgeSim.getEntityRegistry()
+					.getEntities(SimulationManager.class).get(0);
+			SimLog simLog = simulationManager.getSimulationLogger();
+
+			// Save the results of this run in a new folder.
+			simLog.setSimStartTime(new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date()));
+			pureEdgeSim.enableCheckpoints(SimulationParameters.checkpointInterval,
+					simLog.getFileName("_iteration_" + simulationManager.getIteration()));
+			if (SimulationParameters.traceEvents)
+				pureEdgeSim.enableTrace(new File(
+						simLog.getFileName("_iteration_" + simulationManager.getIteration()) + TraceRecorder.EXTENSION),
+						SimulationParameters.traceCapacity);
+
+			// Continue the simulation from where the checkpoint was saved.
+			simulationManager.resumeSimulation();
+
+			// Save the statistics of the simulation engine, if enabled.
+			simLog.saveEngineStatistics(pureEdgeSim);
+
+			SimLog.println("%s - Simulation Finished!", this.getClass().getSimpleName());
+			// Generate and save charts.
+			generateCharts(simLog);
+
+		} catch (Exception e) {
+			e.printStackTrace();
+			SimLog.println(
+					getClass().getSimpleName() + " - The simulation has been terminated due to an unexpected error");
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Creates a new instance of the simulation engine, according to the engine
+	 * mode defined in the simulation parameters.
+	 * 
+	 * @see SimulationParameters#engineMode
+	 * 
+	 * @return the simulation engine
+	 */
+	protected PureEdgeSim createEngine() {
+		if ("CONSERVATIVE".equals(SimulationParameters.engineMode))
+			return new ConservativePureEdgeSim(SimulationParameters.engineThreads);
+		if ("BATCH".equals(SimulationParameters.engineMode))
+			return new BatchPureEdgeSim(SimulationParameters.engineThreads);
+		return new PureEdgeSim();
+	}
+
 	/**
 	 * A pause of a few seconds between iterations. The duration of the pause is
 	 * defined in the simulation parameters.
@@ -201,6 +322,11 @@ public class SimulationThread {
 		SimLog.println(this.getClass().getSimpleName() + " - Initializing the Datacenters Manager Module...");
 		new DataCentersManager(simulationManager, simulation.mobilityModel, simulation.computingNode,
 				simulation.topologyCreator);
+
+		// Use the recorded paths of the mobile devices, if replaying.
+		if (replayedInputs != null)
+			replayedInputs.replayPaths(
+					simulationManager.getDataCentersManager().getComputingNodesGenerator().getMistOnlyList());
 		long endTime = System.currentTimeMillis();
 		System.out.println("Time taken: " + (endTime - startTime) + " milliseconds");
 		
@@ -208,7 +334,10 @@ public class SimulationThread {
 		SimLog.println(this.getClass().getSimpleName() + " - Initializing the Task Generator...");
 		Constructor<?> tasksGeneratorConstructor = simulation.tasksGenerator.getConstructor(SimulationManager.class);
 		TaskGenerator tasksGenerator = (TaskGenerator) tasksGeneratorConstructor.newInstance(simulationManager);
-		FutureQueue<Task> taskList = tasksGenerator.generate();
+		FutureQueue<Task> taskList = replayedInputs != null ? tasksGenerator.replay(replayedInputs)
+				: tasksGenerator.generate();
+		if (recordedInputs != null)
+			recordedInputs.recordTasks(taskList);
 		simulationManager.setTaskList(taskList);
 
 		// Initialize the orchestrator
@@ -21,6 +21,8 @@
  **/
 package com.mechalikh.pureedgesim.taskgenerator;
 
+import java.io.Serializable;
+
 /**
  * This class represents an application that can be executed on a computing
  * node.
@@ -28,7 +30,8 @@ package com.mechalikh.pureedgesim.taskgenerator;
  * @author Charafeddine Mechalikh
  **/
 
-public class Application {
+public class Application implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * The rate at which requests are generated for this application
@@ -71,6 +74,13 @@ public class Application {
 	 */
 	protected String type;
 
+	/**
+	 * The priority of the tasks of this application, used by the
+	 * {@link com.mechalikh.pureedgesim.datacentersmanager.TaskQueue.Policy#PRIORITY
+	 * PRIORITY} scheduling policy (the highest first)
+	 */
+	protected int priority = 0;
+
 	/**
 	 * The number of bits in one megabyte.
 	 */
@@ -184,6 +194,27 @@ public class Application {
 		this.taskLength = taskLength;
 	}
 
+	/**
+	 * 
+	 * Returns the priority of the tasks of this application.
+	 * 
+	 * @return the priority, the tasks of the highest priority are executed first
+	 */
+	public int getPriority() {
+		return priority;
+	}
+
+	/**
+	 * 
+	 * Sets the priority of the tasks of this application.
+	 * 
+	 * @param priority the priority, the tasks of the highest priority are executed
+	 *                 first
+	 */
+	public void setPriority(int priority) {
+		this.priority = priority;
+	}
+
 	/**
 	 * 
 	 * Returns the size of the results in bits.
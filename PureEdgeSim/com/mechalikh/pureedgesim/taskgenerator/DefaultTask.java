@@ -32,6 +32,7 @@ import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
  * properties.
  */
 public class DefaultTask extends TaskAbstract {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * The time required for offloading the task in seconds.
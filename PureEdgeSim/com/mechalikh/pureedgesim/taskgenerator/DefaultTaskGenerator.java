@@ -20,9 +20,7 @@
  **/
 package com.mechalikh.pureedgesim.taskgenerator;
 
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 import java.util.stream.IntStream;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
@@ -31,23 +29,21 @@ import com.mechalikh.pureedgesim.simulationengine.FutureQueue;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 public class DefaultTaskGenerator extends TaskGenerator {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Used to generate random values.
 	 * 
 	 * @see #generate()
 	 * @see #generateTasksForDevice(ComputingNode, int)
 	 */
-	protected Random random;
+	protected RandomGenerator random;
 	protected int id = 0;
 	protected double simulationTime;
 
 	public DefaultTaskGenerator(SimulationManager simulationManager) {
 		super(simulationManager);
-		try {
-			random = SecureRandom.getInstanceStrong();
-		} catch (NoSuchAlgorithmException e) {
-			e.printStackTrace();
-		}
+		random = simulationManager.getSimulation().getRandomStreams().getStream("tasks");
 	}
 
 	/**
@@ -124,20 +120,4 @@ public class DefaultTaskGenerator extends TaskGenerator {
 		}
 	}
 
-	/**
-	 * 
-	 * Creates a new instance of Task using the specified ID.
-	 * 
-	 * @param id the ID to assign to the new task
-	 * @return the new Task instance
-	 */
-	protected Task createTask(int id) {
-		try {
-			return taskClass.getConstructor(int.class).newInstance(id);
-		} catch (Exception e) {
-			e.printStackTrace();
-			return null;
-		}
-	}
-
 }
@@ -23,6 +23,7 @@ package com.mechalikh.pureedgesim.taskgenerator;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.simulationengine.QueueElement;
+import com.mechalikh.pureedgesim.simulationengine.Traceable;
 
 /**
  * The Task interface represents a unit of work that can be executed in the
@@ -33,7 +34,7 @@ import com.mechalikh.pureedgesim.simulationengine.QueueElement;
  * 
  * @author Charafeddine Mechalikh
  */
-public interface Task extends QueueElement {
+public interface Task extends QueueElement, Traceable {
 
 	/**
 	 * Enumeration for failure reasons of a Task.
@@ -135,6 +136,16 @@ public interface Task extends QueueElement {
 	 */
 	int getId();
 
+	/**
+	 * Returns the ID of the Task, which identifies it in the event traces.
+	 * 
+	 * @return the ID of the Task
+	 */
+	@Override
+	default long getTraceId() {
+		return getId();
+	}
+
 	/**
 	 * 
 	 * Sets the time of the task.
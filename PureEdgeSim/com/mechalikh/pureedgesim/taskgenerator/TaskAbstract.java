@@ -50,6 +50,7 @@ import java.util.Objects;
  * @see Comparable
  */
 public abstract class TaskAbstract implements Task, Comparable<Task> {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * 
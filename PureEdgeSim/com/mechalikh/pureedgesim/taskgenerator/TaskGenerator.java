@@ -20,14 +20,18 @@
  **/
 package com.mechalikh.pureedgesim.taskgenerator;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.simulationengine.FutureQueue;
+import com.mechalikh.pureedgesim.simulationmanager.InputRecording;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
-public abstract class TaskGenerator {
+public abstract class TaskGenerator implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * The Task class that is used in the simulation.
 	 * 
@@ -99,6 +103,35 @@ public abstract class TaskGenerator {
 	 */
 	public abstract FutureQueue<Task> generate();
 
+	/**
+	 * Creates the tasks of a recorded simulation, instead of generating them.
+	 * 
+	 * @param recording the recorded inputs.
+	 * @return the recorded offloading requests.
+	 * @see #generate()
+	 */
+	public FutureQueue<Task> replay(InputRecording recording) {
+		for (InputRecording.TaskArrival arrival : recording.getTasks())
+			taskList.add(arrival.apply(createTask(arrival.getId()), getSimulationManager().getSimulation()));
+		return taskList;
+	}
+
+	/**
+	 * 
+	 * Creates a new instance of Task using the specified ID.
+	 * 
+	 * @param id the ID to assign to the new task
+	 * @return the new Task instance
+	 */
+	protected Task createTask(int id) {
+		try {
+			return taskClass.getConstructor(int.class).newInstance(id);
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
 	/**
 	 * Allows to use a custom task class in the simulation. The class must extend
 	 * the {@link Task} provided by PureEdgeSim.
@@ -30,6 +30,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
 public class DefaultOrchestrator extends Orchestrator {
+	private static final long serialVersionUID = 1L;
+
 	protected Map<Integer, Integer> historyMap = new LinkedHashMap<>();
 
 	public DefaultOrchestrator(SimulationManager simulationManager) {
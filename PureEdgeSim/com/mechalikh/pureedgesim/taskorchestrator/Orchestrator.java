@@ -29,6 +29,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
 public abstract class Orchestrator extends SimEntity {
+	private static final long serialVersionUID = 1L;
+
 	protected List<ComputingNode> nodeList;
 	protected SimulationManager simulationManager;
 	protected SimLog simLog;
@@ -38,6 +38,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  */
 
 public class Example2CustomMobilityModel extends MobilityModel {
+	private static final long serialVersionUID = 1L;
 
 	public Example2CustomMobilityModel(SimulationManager simulationManager, Location currentLocation) {
 		super(simulationManager, currentLocation);
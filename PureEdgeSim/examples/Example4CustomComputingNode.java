@@ -36,6 +36,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 2.2
  */
 public class Example4CustomComputingNode extends DefaultComputingNode {
+	private static final long serialVersionUID = 1L;
+
 	private static final int DO_SOMETHING = 12000; // Avoid conflicting with CloudSim Plus Tags
 
 	public Example4CustomComputingNode(SimulationManager simulationManager, double mipsCapacity, int numberOfPes,
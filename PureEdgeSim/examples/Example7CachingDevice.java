@@ -66,6 +66,7 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @since PureEdgeSim 2.3
  */
 public class Example7CachingDevice extends Example7ClusteringDevice {
+	private static final long serialVersionUID = 1L;
 
 	public List<Task> cache = new ArrayList<Task>();
 	public List<int[]> Remotecache = new ArrayList<int[]>();
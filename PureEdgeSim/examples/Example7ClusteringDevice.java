@@ -66,6 +66,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 2.3
  */
 public class Example7ClusteringDevice extends DefaultComputingNode {
+	private static final long serialVersionUID = 1L;
+
 	private double weight = 0;
 	private Example7ClusteringDevice parent;
 	protected Example7ClusteringDevice Orchestrator;
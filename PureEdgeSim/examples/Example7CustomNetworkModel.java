@@ -66,6 +66,7 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @since PureEdgeSim 2.3
  */
 public class Example7CustomNetworkModel extends DefaultNetworkModel {
+	private static final long serialVersionUID = 1L;
 
 	private static final int MAX_NUMBER_OF_REPLICAS = 8;
 
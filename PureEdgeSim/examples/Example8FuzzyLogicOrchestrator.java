@@ -46,6 +46,7 @@ import net.sourceforge.jFuzzyLogic.FIS;
  * @since PureEdgeSim 3.0
  */
 public class Example8FuzzyLogicOrchestrator extends DefaultOrchestrator {
+	private static final long serialVersionUID = 1L;
 
 	public Example8FuzzyLogicOrchestrator(SimulationManager simulationManager) {
 		super(simulationManager);